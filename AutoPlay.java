@@ -0,0 +1,180 @@
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays rounds by itself for demos and soak tests: draw the win window (K draws, see
+ * GameRound.window()), find the most recent hit, settle, and start again from the same deck
+ * and selection, on a worker thread of its own.
+ *
+ * The worker plays a private copy of the round (taken with writeState/readState), so the UI's
+ * round, its history and its event subscribers are left alone; nothing is published per round.
+ * Instead the worker publishes an immutable Snapshot at most every PUBLISH_NANOS, and the UI
+ * reads latest() once per screen refresh and draws only that, skipping every state in
+ * between. The game therefore runs at full speed, or at the target rate when one is set,
+ * whatever the UI costs to paint.
+ *
+ * Each round starts from the deck as it was when auto-play started: the drawn cards are put
+ * back (K cards, not a rebuilt deck). Provably-fair draws are not used by the copy.
+ */
+final class AutoPlay {
+
+    private static final int BATCH = 256;                 // rounds between clock reads
+    private static final long PUBLISH_NANOS = 1_000_000;  // at most one snapshot per millisecond
+    private static final long RATE_NANOS = 500_000_000;   // window for the rounds/s figure
+
+    /** Everything the UI shows, as of one moment. */
+    static final class Snapshot {
+        final long rounds, hits, staked, net;  // money in minor units
+        final double roundsPerSecond;          // over the last RATE_NANOS or so
+        final Card lastCard, lastHit;          // of the last round; lastHit is null on a loss
+        final long lastNet;
+
+        Snapshot(long rounds, long hits, long staked, long net, double roundsPerSecond, Card lastCard, Card lastHit, long lastNet){
+            this.rounds = rounds; this.hits = hits; this.staked = staked; this.net = net;
+            this.roundsPerSecond = roundsPerSecond;
+            this.lastCard = lastCard; this.lastHit = lastHit; this.lastNet = lastNet;
+        }
+
+        // return to player: what came back per unit staked
+        double rtp(){ return staked == 0 ? 0 : (double) (staked + net) / staked; }
+        double hitRate(){ return rounds == 0 ? 0 : (double) hits / rounds; }
+    }
+
+    private final GameRound round = new GameRound(new Random());
+    private final long startMask;
+    private volatile double target;  // rounds per second, 0 for as fast as possible
+    private volatile boolean running = false;
+    private volatile Snapshot latest = new Snapshot(0, 0, 0, 0, 0, null, null, 0);
+    private Thread worker = null;
+
+    // worker state
+    private long rounds = 0, hits = 0, staked = 0, net = 0;
+    private Card lastCard = null, lastHit = null;
+    private long lastNet = 0;
+
+    /** Auto-play of `template`'s deck, bet, selection and multipliers. */
+    AutoPlay(GameRound template, double roundsPerSecond){
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            template.writeState(new DataOutputStream(bytes));
+            round.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException ex){
+            throw new UncheckedIOException(ex); // in-memory streams
+        }
+        if (round.betAmount <= 0) throw new IllegalStateException("Place a bet before auto-play.");
+        if (round.deck.size() == 0) throw new IllegalStateException("The deck is empty.");
+        startMask = round.deck.mask();
+        setTarget(roundsPerSecond);
+    }
+
+    void setTarget(double roundsPerSecond){
+        if (roundsPerSecond < 0 || Double.isNaN(roundsPerSecond)) throw new IllegalArgumentException("Rounds per second must be 0 or more.");
+        target = roundsPerSecond;
+    }
+
+    double target(){ return target; }
+    boolean isRunning(){ return running; }
+    Snapshot latest(){ return latest; }
+
+    synchronized void start(){
+        if (running) return;
+        running = true;
+        worker = new Thread(this::run, "AutoPlay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    synchronized void stop(){
+        running = false;
+        if (worker == null) return;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    private void run(){
+        long now = System.nanoTime();
+        long paceStart = now, paceRounds = 0;   // rounds played since the target was last set
+        double paceTarget = target;
+        long lastPublish = now, rateStart = now, rateRounds = rounds;
+        double rate = 0;
+        while (running){
+            int batch = BATCH;
+            double t = target;
+            if (t != paceTarget){
+                paceTarget = t;
+                paceStart = now;
+                paceRounds = 0;
+            }
+            if (t > 0){
+                long due = (long) ((now - paceStart) * t / 1e9) - paceRounds;
+                if (due <= 0){
+                    // ahead of schedule: sleep until the next round is due, or a millisecond
+                    LockSupport.parkNanos(Math.min(PUBLISH_NANOS, (long) (1e9 / t)));
+                    now = System.nanoTime();
+                    continue;
+                }
+                batch = (int) Math.min(batch, due);
+            }
+            for (int i = 0; i < batch; i++) playOne();
+            paceRounds += batch;
+
+            now = System.nanoTime();
+            if (now - rateStart >= RATE_NANOS){
+                rate = (rounds - rateRounds) * 1e9 / (now - rateStart);
+                rateStart = now;
+                rateRounds = rounds;
+            }
+            if (now - lastPublish >= PUBLISH_NANOS){
+                publish(rate);
+                lastPublish = now;
+            }
+        }
+        publish(rate);
+    }
+
+    private void playOne(){
+        round.deck.addMask(startMask);
+        round.drawHistory.clear();
+        for (int d = 0, k = round.window(); d < k && round.draw() != null; d++) { }
+        Card hit = round.mostRecentHit();
+        long result = round.settle();
+        rounds++;
+        if (hit != null) hits++;
+        staked += round.tableBets.stake(0);
+        net += result;
+        lastCard = round.lastDrawn;
+        lastHit = hit;
+        lastNet = result;
+    }
+
+    private void publish(double rate){
+        latest = new Snapshot(rounds, hits, staked, net, rate, lastCard, lastHit, lastNet);
+    }
+
+    /**
+     * Plays a $10 suit bet on a full deck flat out for a few seconds and prints the throughput
+     * and RTP, which should approach the theoretical figure for the multiplier.
+     *     java -cp . AutoPlay [seconds=5] [rounds-per-second=0]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        GameRound template = new GameRound();
+        template.choose(10, ChosenType.SUIT, "A", Suit.HEARTS, ColorType.RED);
+        AutoPlay auto = new AutoPlay(template, rate);
+        auto.start();
+        for (int s = 1; s <= seconds; s++){
+            Thread.sleep(1000);
+            Snapshot snap = auto.latest();
+            System.out.printf("%3ds %,14d rounds %,12.0f rounds/s  RTP %8.3f%%  hit rate %7.3f%%%n",
+                    s, snap.rounds, snap.roundsPerSecond, 100 * snap.rtp(), 100 * snap.hitRate());
+        }
+        auto.stop();
+    }
+}
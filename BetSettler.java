@@ -0,0 +1,90 @@
+import java.util.*;
+
+// Settles any number of bets against the same draw window in one pass.
+// Each distinct selection is compiled once into a card mask + multiplier; bets only keep
+// an index into that table, so settling a round is one AND and one multiply per bet.
+// Bets share a slot only when both the mask and the multiplier match, so a bet is always
+// paid at the multiplier it was placed at.
+// Money is fixed-point throughout: stakes and results in minor units (cents), multipliers
+// in units of 1/Money.MULT_SCALE, so a settlement is exact and reproducible.
+class BetSettler {
+    private final Map<Selection,Integer> selectionByKey = new HashMap<>();
+    private long[] selMasks = new long[16];
+    private long[] selMultipliers = new long[16];
+    private long[] selFactor = new long[16]; // multiplier on a hit, -MULT_SCALE on a miss
+    private int selCount = 0;
+
+    private int[] betPlayer = new int[64];
+    private int[] betSelection = new int[64];
+    private long[] betStake = new long[64];
+    private long[] betNet = new long[64];
+    private int betCount = 0;
+
+    void clear(){
+        selectionByKey.clear();
+        selCount = 0;
+        betCount = 0;
+    }
+
+    int size(){ return betCount; }
+
+    // register a bet and return its index; bets on the same mask and multiplier share one slot
+    int addBet(int player, long mask, long multiplierFixed, long stakeMinor){
+        Selection key = new Selection(mask, multiplierFixed);
+        Integer sel = selectionByKey.get(key);
+        if (sel == null){
+            if (selCount == selMasks.length){
+                int cap = selCount * 2;
+                selMasks = Arrays.copyOf(selMasks, cap);
+                selMultipliers = Arrays.copyOf(selMultipliers, cap);
+                selFactor = Arrays.copyOf(selFactor, cap);
+            }
+            sel = selCount++;
+            selMasks[sel] = mask;
+            selMultipliers[sel] = multiplierFixed;
+            selectionByKey.put(key, sel);
+        }
+
+        if (betCount == betPlayer.length){
+            int cap = betCount * 2;
+            betPlayer = Arrays.copyOf(betPlayer, cap);
+            betSelection = Arrays.copyOf(betSelection, cap);
+            betStake = Arrays.copyOf(betStake, cap);
+            betNet = Arrays.copyOf(betNet, cap);
+        }
+        betPlayer[betCount] = player;
+        betSelection[betCount] = sel;
+        betStake[betCount] = stakeMinor;
+        return betCount++;
+    }
+
+    // windowMask = OR of the card bits in the winning window; results are read back with net(i)
+    void settle(long windowMask){
+        for (int s = 0; s < selCount; s++) selFactor[s] = (selMasks[s] & windowMask) != 0 ? selMultipliers[s] : -Money.MULT_SCALE;
+        // branch-free: a loss is stake * -MULT_SCALE, which scales back to exactly -stake
+        for (int i = 0; i < betCount; i++){
+            betNet[i] = Money.scale(betStake[i], selFactor[betSelection[i]]);
+        }
+    }
+
+    int player(int bet){ return betPlayer[bet]; }
+    long stake(int bet){ return betStake[bet]; }
+    long mask(int bet){ return selMasks[betSelection[bet]]; }
+    long multiplier(int bet){ return selMultipliers[betSelection[bet]]; }
+    long net(int bet){ return betNet[bet]; }
+
+    long totalNet(){
+        long t = 0;
+        for (int i = 0; i < betCount; i++) t += betNet[i];
+        return t;
+    }
+
+    private static final class Selection {
+        final long mask, multiplier;
+        Selection(long mask, long multiplier){ this.mask = mask; this.multiplier = multiplier; }
+        @Override public boolean equals(Object o){
+            return o instanceof Selection && ((Selection) o).mask == mask && ((Selection) o).multiplier == multiplier;
+        }
+        @Override public int hashCode(){ return Long.hashCode(mask * 31 + multiplier); }
+    }
+}
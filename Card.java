@@ -0,0 +1,83 @@
+class Card {
+    static final String[] RANKS = {"A","2","3","4","5","6","7","8","9","10","J","Q","K"};
+
+    final String rank;
+    final Suit suit;
+    Card(String rank, Suit suit){ this.rank = rank; this.suit = suit; }
+    boolean isFace(){ return "J".equals(rank) || "Q".equals(rank) || "K".equals(rank); }
+    ColorType color(){ return (suit == Suit.HEARTS || suit == Suit.DIAMONDS) ? ColorType.RED : ColorType.BLACK; }
+    long bit(){ return cardBit(rank, suit); }
+    int ordinal(){ return Long.numberOfTrailingZeros(bit()); }
+    static Card fromOrdinal(int ordinal){ return new Card(RANKS[ordinal % RANKS.length], Suit.values()[ordinal / RANKS.length]); }
+    @Override public String toString(){ return rank + suit.glyph(); }
+
+    /* ---------------------- Card masks ---------------------- */
+    // Every card of the full deck owns one bit of a long: bit (suit.ordinal() * 13 + rank index).
+    // A selection (card, suit, colour or number) is then just the OR of the cards it matches.
+
+    static int rankIndex(String rank){
+        for (int i = 0; i < RANKS.length; i++) if (RANKS[i].equals(rank)) return i;
+        return -1;
+    }
+
+    static long cardBit(String rank, Suit suit){
+        int r = rankIndex(rank);
+        return r < 0 ? 0L : 1L << (suit.ordinal() * RANKS.length + r);
+    }
+
+    static long suitMask(Suit suit){
+        return ((1L << RANKS.length) - 1) << (suit.ordinal() * RANKS.length);
+    }
+
+    static long colorMask(ColorType color){
+        return color == ColorType.RED
+                ? suitMask(Suit.HEARTS) | suitMask(Suit.DIAMONDS)
+                : suitMask(Suit.CLUBS) | suitMask(Suit.SPADES);
+    }
+
+    static long rankMask(String rank){
+        long m = 0L;
+        for (Suit s : Suit.values()) m |= cardBit(rank, s);
+        return m;
+    }
+
+    static long selectionMask(ChosenType type, String rank, Suit suit, ColorType color){
+        switch (type){
+            case INDIVIDUAL: return cardBit(rank, suit);
+            case SUIT: return suitMask(suit);
+            case COLOUR: return colorMask(color);
+            case NUMBER: return rankMask(rank);
+            default: return 0L;
+        }
+    }
+
+    static final long FULL_MASK = (1L << (RANKS.length * 4)) - 1;
+
+    static long faceMask(){
+        return rankMask("J") | rankMask("Q") | rankMask("K");
+    }
+
+    // odd or even ranks under the A=1 .. J=11, K=12, Q=13 mapping
+    static long parityMask(boolean odd){
+        long m = 0L;
+        for (String r : RANKS){
+            int v = rankValue(r);
+            if (v > 0 && (v % 2 == 1) == odd) m |= rankMask(r);
+        }
+        return m;
+    }
+
+    // --- rankValue mapping A=1, 2..10 numeric, J=11, K=12, Q=13 ---
+    static int rankValue(String r){
+        if (r == null) return -1;
+        switch (r) {
+            case "A": return 1;
+            case "J": return 11;
+            case "K": return 12;
+            case "Q": return 13;
+            default:
+                try { return Integer.parseInt(r); }
+                catch (NumberFormatException ex) { return -1; }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.*;
+
+// Compiles a small filter expression into a card mask, e.g. "red & face", "even spades",
+// "hearts | (black & !face)". Terms: suits, red/black, face, odd, even, ranks (A,2..10,J,Q,K),
+// all. Operators: & / and, | / or, ! / not, parentheses; adjacent terms are AND-ed.
+class CardFilter {
+    private final List<String> tokens = new ArrayList<>();
+    private int pos = 0;
+
+    private CardFilter(String expr){
+        java.util.regex.Matcher m = java.util.regex.Pattern.compile("[()&|!]|[^\\s()&|!]+").matcher(expr);
+        while (m.find()) tokens.add(m.group().toLowerCase(Locale.ROOT));
+    }
+
+    static long compile(String expr){
+        if (expr == null || expr.trim().isEmpty()) throw new IllegalArgumentException("Filter is empty.");
+        CardFilter f = new CardFilter(expr);
+        long m = f.or();
+        if (f.pos < f.tokens.size()) throw new IllegalArgumentException("Unexpected '" + f.tokens.get(f.pos) + "'.");
+        return m;
+    }
+
+    private String peek(){ return pos < tokens.size() ? tokens.get(pos) : null; }
+
+    private long or(){
+        long m = and();
+        while ("|".equals(peek()) || "or".equals(peek())){ pos++; m |= and(); }
+        return m;
+    }
+
+    private long and(){
+        long m = not();
+        while (true){
+            String t = peek();
+            if ("&".equals(t) || "and".equals(t)) { pos++; m &= not(); }
+            else if (t != null && !")".equals(t) && !"|".equals(t) && !"or".equals(t)) m &= not();
+            else return m;
+        }
+    }
+
+    private long not(){
+        String t = peek();
+        if ("!".equals(t) || "not".equals(t)) { pos++; return ~not() & Card.FULL_MASK; }
+        return atom();
+    }
+
+    private long atom(){
+        String t = peek();
+        if (t == null) throw new IllegalArgumentException("Filter ends too early.");
+        pos++;
+        if ("(".equals(t)){
+            long m = or();
+            if (!")".equals(peek())) throw new IllegalArgumentException("Missing ')'.");
+            pos++;
+            return m;
+        }
+        switch (t){
+            case "all": case "any": case "card": case "cards": return Card.FULL_MASK;
+            case "red": return Card.colorMask(ColorType.RED);
+            case "black": return Card.colorMask(ColorType.BLACK);
+            case "heart": case "hearts": case "♥": return Card.suitMask(Suit.HEARTS);
+            case "diamond": case "diamonds": case "♦": return Card.suitMask(Suit.DIAMONDS);
+            case "club": case "clubs": case "♣": return Card.suitMask(Suit.CLUBS);
+            case "spade": case "spades": case "♠": return Card.suitMask(Suit.SPADES);
+            case "face": case "faces": return Card.faceMask();
+            case "odd": return Card.parityMask(true);
+            case "even": return Card.parityMask(false);
+            case "ace": return Card.rankMask("A");
+            case "jack": return Card.rankMask("J");
+            case "queen": return Card.rankMask("Q");
+            case "king": return Card.rankMask("K");
+        }
+        for (String r : Card.RANKS) if (r.equalsIgnoreCase(t)) return Card.rankMask(r);
+        throw new IllegalArgumentException("Unknown filter term '" + t + "'.");
+    }
+}
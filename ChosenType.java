@@ -0,0 +1,2 @@
+// what a bet is placed on: one card, a suit, a colour or a rank
+enum ChosenType { INDIVIDUAL, SUIT, COLOUR, NUMBER }
@@ -0,0 +1 @@
+enum ColorType { RED, BLACK }
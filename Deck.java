@@ -0,0 +1,119 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+class Deck {
+    private final List<Card> cards = new ArrayList<>();
+
+    // running counters, updated on every mutation so counts never rescan the list
+    private final int[] suitCounts = new int[Suit.values().length];
+    private final int[] rankCounts = new int[Card.RANKS.length];
+    private long mask = 0L; // card bits currently in the deck
+
+    Deck(){ resetToFull(); }
+    void resetToFull(){
+        clear();
+        for (Suit s : Suit.values()){
+            for (String r : Card.RANKS) add(new Card(r,s));
+        }
+    }
+    void clear(){
+        cards.clear();
+        Arrays.fill(suitCounts, 0);
+        Arrays.fill(rankCounts, 0);
+        mask = 0L;
+    }
+    int size(){ return cards.size(); }
+    List<Card> asList(){ return Collections.unmodifiableList(cards); }
+    long mask(){ return mask; }
+
+    private void add(Card c){
+        cards.add(c);
+        counted(c, 1);
+    }
+    private void counted(Card c, int delta){
+        suitCounts[c.suit.ordinal()] += delta;
+        rankCounts[Card.rankIndex(c.rank)] += delta;
+        if (delta > 0) mask |= c.bit(); else mask &= ~c.bit();
+    }
+    // single pass over the list; the predicate also keeps the counters in step
+    private boolean removeWhere(Predicate<Card> p){
+        return cards.removeIf(c -> {
+            if (!p.test(c)) return false;
+            counted(c, -1);
+            return true;
+        });
+    }
+
+    // mask edits: one pass over the list (removals) or over the missing bits (additions)
+    void removeMask(long m){
+        if ((mask & m) != 0) removeWhere(c -> (m & c.bit()) != 0);
+    }
+    void keepMask(long m){ removeMask(~m); }
+    void addMask(long m){
+        long missing = m & ~mask & Card.FULL_MASK;
+        while (missing != 0){
+            int bit = Long.numberOfTrailingZeros(missing);
+            missing &= missing - 1;
+            add(Card.fromOrdinal(bit));
+        }
+    }
+
+    void removeSuit(Suit suit){ removeMask(Card.suitMask(suit)); }
+    void addSuit(Suit suit){ addMask(Card.suitMask(suit)); }
+    void removeColor(ColorType color){ removeMask(Card.colorMask(color)); }
+    void addColor(ColorType color){ addMask(Card.colorMask(color)); }
+    void removeFaces(){ removeMask(Card.faceMask()); }
+    void addFaces(){ addMask(Card.faceMask()); }
+    Card drawRandom(Random rng){
+        if (cards.isEmpty()) return null;
+        int idx = rng.nextInt(cards.size());
+        Card c = cards.remove(idx);
+        counted(c, -1);
+        return c;
+    }
+    // draws the card with the given ordinal; used when the draw is picked from the mask
+    Card drawOrdinal(int ordinal){
+        long bit = 1L << ordinal;
+        if ((mask & bit) == 0) return null;
+        for (int i = 0; i < cards.size(); i++){
+            if (cards.get(i).bit() == bit){
+                Card c = cards.remove(i);
+                counted(c, -1);
+                return c;
+            }
+        }
+        return null;
+    }
+    boolean removeCard(String rank, Suit suit){
+        if (!contains(rank, suit)) return false;
+        return removeWhere(c -> c.rank.equals(rank) && c.suit == suit);
+    }
+    boolean contains(String rank, Suit suit){
+        return (mask & Card.cardBit(rank, suit)) != 0;
+    }
+    void addCard(String rank, Suit suit){
+        if (!contains(rank, suit)) add(new Card(rank, suit));
+    }
+    void shuffle(Random rng){
+        Collections.shuffle(cards, rng);
+    }
+
+    // counts
+    int countSuit(Suit suit){ return suitCounts[suit.ordinal()]; }
+    int countColor(ColorType color){
+        return color == ColorType.RED
+                ? suitCounts[Suit.HEARTS.ordinal()] + suitCounts[Suit.DIAMONDS.ordinal()]
+                : suitCounts[Suit.CLUBS.ordinal()] + suitCounts[Suit.SPADES.ordinal()];
+    }
+    int countRankSuit(String rank, Suit suit){ return contains(rank, suit) ? 1 : 0; }
+    int countRank(String rank){
+        int r = Card.rankIndex(rank);
+        return r < 0 ? 0 : rankCounts[r];
+    }
+    int countFaces(){ return countRank("J") + countRank("Q") + countRank("K"); }
+
+    void removeOdd(){ removeMask(Card.parityMask(true)); }
+    void removeEven(){ removeMask(Card.parityMask(false)); }
+    void addOdd(){ addMask(Card.parityMask(true)); }
+    void addEven(){ addMask(Card.parityMask(false)); }
+}
@@ -0,0 +1,45 @@
+// Each edit is stored as an immutable pair of masks: the cards it removed and the cards it
+// added. Undo and redo re-apply those deltas, so draws made in between are left alone.
+// Entries live in a fixed ring, so memory is bounded and the oldest edits fall off.
+class DeckEdits {
+    private static final int CAPACITY = 512;
+    private final long[] removed = new long[CAPACITY];
+    private final long[] added = new long[CAPACITY];
+    private int start = 0;     // ring index of the oldest undoable edit
+    private int undoCount = 0; // edits that can be undone
+    private int redoCount = 0; // undone edits that can be redone
+
+    void record(long before, long after){
+        if (before == after) return;
+        int idx = (start + undoCount) % CAPACITY;
+        removed[idx] = before & ~after;
+        added[idx] = after & ~before;
+        if (undoCount == CAPACITY) start = (start + 1) % CAPACITY;
+        else undoCount++;
+        redoCount = 0;
+    }
+
+    void clear(){ start = 0; undoCount = 0; redoCount = 0; }
+    boolean canUndo(){ return undoCount > 0; }
+    boolean canRedo(){ return redoCount > 0; }
+
+    boolean undo(Deck deck){
+        if (undoCount == 0) return false;
+        undoCount--;
+        int idx = (start + undoCount) % CAPACITY;
+        deck.addMask(removed[idx]);
+        deck.removeMask(added[idx]);
+        redoCount++;
+        return true;
+    }
+
+    boolean redo(Deck deck){
+        if (redoCount == 0) return false;
+        int idx = (start + undoCount) % CAPACITY;
+        deck.removeMask(removed[idx]);
+        deck.addMask(added[idx]);
+        undoCount++;
+        redoCount--;
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The draws of a round, as card ordinals: the win window (the last K draws) in a byte ring,
+ * and, only when retention is on, the full history spilled to a temporary file.
+ *
+ * Win checks are O(1) whatever K or the number of draws. The ring keeps a count per card of
+ * its copies in the window (a card can come back into the deck through an edit and be drawn
+ * again), so the window mask is kept up to date as cards enter and leave, and a running count
+ * of window entries that match the selection answers "is there a hit?". A draw therefore
+ * costs one entry in and at most one out. Changing the selection or K recounts the window,
+ * which is at most K steps and happens between rounds.
+ *
+ * Retained draws are one byte each. They collect in a SPILL_CHUNK buffer that is appended to a
+ * temporary file whenever it fills, so the heap holds at most one chunk however long the
+ * session runs; the file is deleted when retention is turned off or the JVM exits.
+ * readRetained() reads them back in bulk, from the file and the buffer.
+ *
+ * Not thread-safe, like GameRound.
+ */
+final class DrawHistory {
+
+    static final int DEFAULT_WINDOW = 3;
+    static final int MAX_WINDOW = 255; // so that K fits a byte in GameRound's state
+
+    private byte[] ring = new byte[DEFAULT_WINDOW];
+    private int head = 0;     // next slot to write
+    private int inWindow = 0; // entries in the ring, up to ring.length
+    private long draws = 0;   // since clear()
+
+    private final byte[] copies = new byte[52]; // per card, its entries in the window
+    private long mask = 0L;                     // cards with at least one entry in the window
+    private long selection = 0L;
+    private int matched = 0;                    // window entries in the selection
+
+    static final int SPILL_CHUNK = 64 * 1024;
+
+    private boolean retain = false;
+    private long keptFrom = 0;                  // first draw retained
+    private byte[] pending = null;              // retained draws not spilled yet
+    private int pendingCount = 0;
+    private FileChannel spill = null;           // retained draws keptFrom .. keptFrom + spilled
+    private long spilled = 0;
+
+    void clear(){
+        head = inWindow = 0;
+        draws = 0;
+        Arrays.fill(copies, (byte) 0);
+        mask = 0L;
+        matched = 0;
+        keptFrom = 0;
+        pendingCount = 0;
+        spilled = 0;
+        if (spill != null){
+            try {
+                spill.truncate(0);
+            } catch (IOException ex){
+                throw new UncheckedIOException("Could not clear the draw history", ex);
+            }
+        }
+    }
+
+    void add(int ordinal){
+        if (inWindow == ring.length){
+            int old = ring[head];
+            if (--copies[old] == 0) mask &= ~(1L << old);
+            if ((selection >>> old & 1) != 0) matched--;
+        } else {
+            inWindow++;
+        }
+        ring[head] = (byte) ordinal;
+        head = head + 1 == ring.length ? 0 : head + 1;
+        copies[ordinal]++;
+        mask |= 1L << ordinal;
+        if ((selection >>> ordinal & 1) != 0) matched++;
+
+        if (retain){
+            pending[pendingCount++] = (byte) ordinal;
+            if (pendingCount == pending.length) spill();
+        }
+        draws++;
+    }
+
+    long size(){ return draws; }
+    boolean isEmpty(){ return draws == 0; }
+
+    /* ---------------------- Window ---------------------- */
+
+    int window(){ return ring.length; }
+
+    // resizes the window to k, keeping the newest draws that still fit
+    void setWindow(int k){
+        if (k < 1 || k > MAX_WINDOW) throw new IllegalArgumentException("The window must be 1 to " + MAX_WINDOW + " draws.");
+        if (k == ring.length) return;
+        int keep = Math.min(k, inWindow);
+        byte[] next = new byte[k];
+        for (int i = 0; i < keep; i++) next[i] = (byte) inWindowOrdinal(inWindow - keep + i);
+        ring = next;
+        inWindow = keep;
+        head = keep == k ? 0 : keep;
+        recount();
+    }
+
+    // the selection a hit is counted against
+    void select(long selectionMask){
+        if (selectionMask == selection) return;
+        selection = selectionMask;
+        recount();
+    }
+
+    private void recount(){
+        Arrays.fill(copies, (byte) 0);
+        mask = 0L;
+        matched = 0;
+        for (int i = 0; i < inWindow; i++){
+            int o = ring[i];
+            copies[o]++;
+            mask |= 1L << o;
+            if ((selection >>> o & 1) != 0) matched++;
+        }
+    }
+
+    int inWindow(){ return inWindow; }
+    long windowMask(){ return mask; }
+    int matched(){ return matched; }
+
+    // i-th entry of the window, 0 = oldest
+    int inWindowOrdinal(int i){
+        if (i < 0 || i >= inWindow) throw new IndexOutOfBoundsException(i);
+        int start = head - inWindow;
+        if (start < 0) start += ring.length;
+        int j = start + i;
+        return ring[j >= ring.length ? j - ring.length : j];
+    }
+
+    Card inWindowCard(int i){ return Card.fromOrdinal(inWindowOrdinal(i)); }
+
+    // the newest window entry in the selection, or -1; O(1) when there is none
+    int mostRecentMatch(){
+        if (matched == 0) return -1;
+        for (int i = inWindow - 1; i >= 0; i--){
+            int o = inWindowOrdinal(i);
+            if ((selection >>> o & 1) != 0) return o;
+        }
+        return -1;
+    }
+
+    /* ---------------------- Retention ---------------------- */
+
+    boolean retains(){ return retain; }
+
+    // keeps every draw from now on (one byte each), starting with the window; off drops them
+    void setRetain(boolean on){
+        if (on == retain) return;
+        retain = on;
+        pendingCount = 0;
+        spilled = 0;
+        if (on){
+            keptFrom = draws - inWindow;
+            pending = new byte[SPILL_CHUNK];
+            for (int i = 0; i < inWindow; i++) pending[pendingCount++] = (byte) inWindowOrdinal(i);
+        } else {
+            pending = null;
+            if (spill != null){
+                try {
+                    spill.close(); // deletes the file
+                } catch (IOException ignored){
+                }
+                spill = null;
+            }
+        }
+    }
+
+    // the first retained draw (counted since clear()); retainedFrom() .. size() - 1 can be read
+    long retainedFrom(){
+        if (!retain) throw new IllegalStateException("The draw history is not being kept; turn on history retention.");
+        return keptFrom;
+    }
+
+    /**
+     * Copies retained draws from `first` on into `into`, as card ordinals, and returns how many
+     * were copied: up to into.length, fewer at the end of the history.
+     */
+    int readRetained(long first, byte[] into){
+        long from = first - retainedFrom();
+        if (from < 0 || first > draws) throw new IndexOutOfBoundsException("Draw " + first + " was not kept.");
+        int n = (int) Math.min(into.length, draws - first);
+        int done = 0;
+        try {
+            while (done < n && from + done < spilled){
+                ByteBuffer buf = ByteBuffer.wrap(into, done, (int) Math.min(n - done, spilled - from - done));
+                int read = spill.read(buf, from + done);
+                if (read < 0) throw new IOException("Draw history file is short");
+                done += read;
+            }
+        } catch (IOException ex){
+            throw new UncheckedIOException("Could not read the draw history", ex);
+        }
+        if (done < n) System.arraycopy(pending, (int) (from + done - spilled), into, done, n - done);
+        return n;
+    }
+
+    private void spill(){
+        try {
+            if (spill == null){
+                spill = FileChannel.open(Files.createTempFile("draws", ".bin"), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            ByteBuffer buf = ByteBuffer.wrap(pending, 0, pendingCount);
+            while (buf.hasRemaining()) spilled += spill.write(buf, spilled);
+        } catch (IOException ex){
+            throw new UncheckedIOException("Could not spill the draw history", ex);
+        }
+        pendingCount = 0;
+    }
+}
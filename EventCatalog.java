@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A deck of events read from a catalog file instead of the fixed 52 playing cards.
+ *
+ * Catalog format (UTF-8, one entry per line, '|' separated):
+ *     name|weight|tags|copies|art|description
+ * Only the name is required. weight defaults to 1, tags are comma separated, copies defaults
+ * to 1, art is an optional image path (relative paths resolve against the catalog's folder)
+ * and the description may use \n for line breaks. Blank lines and lines starting with # are
+ * skipped.
+ *
+ * The file is memory-mapped and indexed in a single pass. Only the numbers and tags are
+ * decoded up front (they feed the draw and the tag index); names, art and descriptions stay
+ * in the mapping until an entry is first asked for.
+ */
+public class EventCatalog {
+
+    public static final class Entry {
+        public final String name;
+        public final double weight;
+        public final List<String> tags;
+        public final int copies;
+        public final String art; // null when the entry has no art
+        public final String description; // empty when the entry has none
+
+        Entry(String name, double weight, List<String> tags, int copies, String art, String description){
+            this.name = name;
+            this.weight = weight;
+            this.tags = tags;
+            this.copies = copies;
+            this.art = art;
+            this.description = description;
+        }
+
+        @Override public String toString(){ return name; }
+    }
+
+    private final MappedByteBuffer buf;
+    private final Path baseDir;
+    private int size = 0;
+    private int[] lineStart = new int[1024];
+    private int[] lineEnd = new int[1024];
+    private double[] weights = new double[1024];
+    private int[] copies = new int[1024];
+    private Entry[] materialised;
+
+    // tag index: tag name -> id, and per tag the set of entries carrying it
+    private final Map<String,Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<BitSet> tagMembers = new ArrayList<>();
+    private long[] tagCopies = new long[16];
+    private double[] tagWeight = new double[16];
+    private long totalCopies = 0;
+    private double totalWeight = 0;
+
+    // field boundaries of the line being indexed: name | weight | tags | copies | art
+    private final int[] fs = new int[5];
+    private final int[] fe = new int[5];
+
+    private EventCatalog(MappedByteBuffer buf, Path baseDir){
+        this.buf = buf;
+        this.baseDir = baseDir;
+    }
+
+    public static EventCatalog load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            long len = ch.size();
+            if (len > Integer.MAX_VALUE) throw new IOException("Catalog is larger than 2 GB: " + file);
+            // the mapping stays valid after the channel is closed
+            Path dir = file.toAbsolutePath().getParent();
+            EventCatalog cat = new EventCatalog(ch.map(FileChannel.MapMode.READ_ONLY, 0, len), dir);
+            cat.index();
+            return cat;
+        }
+    }
+
+    private void index() throws IOException {
+        int limit = buf.limit();
+        int pos = 0;
+        int lineNo = 0;
+        while (pos < limit){
+            int start = pos;
+            while (pos < limit && buf.get(pos) != '\n') pos++;
+            int end = pos;
+            pos++; // skip '\n'
+            lineNo++;
+            if (end > start && buf.get(end - 1) == '\r') end--;
+            if (start == 0 && end - start >= 3 && (buf.get(0) & 0xFF) == 0xEF) start += 3; // UTF-8 BOM
+            if (end == start || buf.get(start) == '#') continue;
+            indexLine(start, end, lineNo);
+        }
+        materialised = new Entry[size];
+    }
+
+    private void indexLine(int start, int end, int lineNo) throws IOException {
+        if (size == lineStart.length){
+            int cap = size * 2;
+            lineStart = Arrays.copyOf(lineStart, cap);
+            lineEnd = Arrays.copyOf(lineEnd, cap);
+            weights = Arrays.copyOf(weights, cap);
+            copies = Arrays.copyOf(copies, cap);
+        }
+        int id = size;
+        lineStart[id] = start;
+        lineEnd[id] = end;
+
+        int field = 0, p = start;
+        fs[0] = start;
+        while (p < end && field < 5){
+            if (buf.get(p) == '|'){
+                fe[field] = p;
+                field++;
+                if (field < 5) fs[field] = p + 1;
+            }
+            p++;
+        }
+        if (field < 5) fe[field] = end;
+        for (int f = field + 1; f < 5; f++){ fs[f] = end; fe[f] = end; }
+
+        weights[id] = fs[1] < fe[1] ? parseWeight(fs[1], fe[1], lineNo) : 1.0;
+        copies[id] = fs[3] < fe[3] ? parseCopies(fs[3], fe[3], lineNo) : 1;
+        totalCopies += copies[id];
+        totalWeight += weights[id] * copies[id];
+
+        int t = fs[2];
+        while (t < fe[2]){
+            int te = t;
+            while (te < fe[2] && buf.get(te) != ',') te++;
+            String tag = decode(t, te).trim();
+            if (!tag.isEmpty()) addTag(tag, id);
+            t = te + 1;
+        }
+        size++;
+    }
+
+    private void addTag(String tag, int entry){
+        Integer tid = tagIds.get(tag);
+        if (tid == null){
+            tid = tagNames.size();
+            tagIds.put(tag, tid);
+            tagNames.add(tag);
+            tagMembers.add(new BitSet());
+            if (tid == tagCopies.length){
+                tagCopies = Arrays.copyOf(tagCopies, tid * 2);
+                tagWeight = Arrays.copyOf(tagWeight, tid * 2);
+            }
+        }
+        BitSet members = tagMembers.get(tid);
+        if (!members.get(entry)){
+            members.set(entry);
+            tagCopies[tid] += copies[entry];
+            tagWeight[tid] += weights[entry] * copies[entry];
+        }
+    }
+
+    private double parseWeight(int s, int e, int lineNo) throws IOException {
+        // plain decimals are parsed in place; anything else goes through Double.parseDouble
+        long whole = 0, frac = 0, scale = 1;
+        boolean dot = false, simple = true;
+        for (int i = s; i < e; i++){
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9'){
+                if (dot) { if (scale < 1_000_000_000L) { frac = frac * 10 + (b - '0'); scale *= 10; } }
+                else whole = whole * 10 + (b - '0');
+            } else if (b == '.' && !dot) dot = true;
+            else if (b != ' ') { simple = false; break; }
+        }
+        double w;
+        if (simple) w = whole + (double) frac / scale;
+        else {
+            try { w = Double.parseDouble(decode(s, e).trim()); }
+            catch (NumberFormatException ex) { throw new IOException("Bad weight on line " + lineNo); }
+        }
+        if (!(w >= 0) || Double.isInfinite(w)) throw new IOException("Bad weight on line " + lineNo);
+        return w;
+    }
+
+    private int parseCopies(int s, int e, int lineNo) throws IOException {
+        long v = 0;
+        for (int i = s; i < e; i++){
+            byte b = buf.get(i);
+            if (b == ' ') continue;
+            if (b < '0' || b > '9') throw new IOException("Bad copy count on line " + lineNo);
+            v = v * 10 + (b - '0');
+            if (v > Integer.MAX_VALUE) throw new IOException("Copy count too large on line " + lineNo);
+        }
+        return (int) v;
+    }
+
+    private String decode(int s, int e){
+        byte[] bytes = new byte[e - s];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buf.get(s + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* ---------------------- Queries ---------------------- */
+
+    public int size(){ return size; }
+    public long totalCopies(){ return totalCopies; }
+    public double totalWeight(){ return totalWeight; }
+    public double weight(int entry){ return weights[entry]; }
+    public int copies(int entry){ return copies[entry]; }
+
+    // decodes the entry's line on first use
+    public Entry entry(int i){
+        Entry e = materialised[i];
+        if (e != null) return e;
+        String[] f = decode(lineStart[i], lineEnd[i]).split("\\|", 6);
+        String name = f[0].trim();
+        List<String> tags = new ArrayList<>();
+        if (f.length > 2) for (String t : f[2].split(",")) if (!t.trim().isEmpty()) tags.add(t.trim());
+        String art = f.length > 4 && !f[4].trim().isEmpty() ? f[4].trim() : null;
+        if (art != null && baseDir != null && !Paths.get(art).isAbsolute()) art = baseDir.resolve(art).toString();
+        String description = f.length > 5 ? f[5].trim().replace("\\n", "\n") : "";
+        e = new Entry(name, weights[i], Collections.unmodifiableList(tags), copies[i], art, description);
+        materialised[i] = e;
+        return e;
+    }
+
+    public List<String> tags(){ return Collections.unmodifiableList(tagNames); }
+
+    // -1 when no entry carries the tag
+    public int tagId(String tag){
+        Integer id = tagIds.get(tag);
+        return id == null ? -1 : id;
+    }
+
+    // O(1) tag test, used to settle "any event tagged X" bets
+    public boolean hasTag(int entry, int tagId){
+        return tagId >= 0 && tagMembers.get(tagId).get(entry);
+    }
+
+    // copies carrying the tag
+    public long taggedCopies(int tagId){
+        return tagId >= 0 ? tagCopies[tagId] : 0;
+    }
+
+    // weight x copies carrying the tag; over totalWeight() this is the chance of a tag hit
+    public double taggedWeight(int tagId){
+        return tagId >= 0 ? tagWeight[tagId] : 0;
+    }
+}
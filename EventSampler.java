@@ -0,0 +1,148 @@
+import java.util.Random;
+
+/**
+ * Weighted draws over an event catalog. Each entry's mass is weight x remaining copies.
+ *
+ * Every draw walks a sum tree of masses in O(log n): a complete binary tree whose leaves are the
+ * entries' masses (computed from the counts, not stored) and whose inner nodes hold the sum of
+ * their two children. Taking a copy, or editing an entry's copies, recomputes the entry's
+ * ancestors from their children, so nothing is ever rebuilt on a change and draws with or
+ * without replacement cost the same on a deck of 52 entries or 5 million.
+ *
+ * Recomputing a node as left + right, where a delta update would add and subtract, keeps a
+ * subtree with no mass at exactly 0.0: x + 0.0 is x, and a sum of non-negative numbers is only
+ * zero when all of them are. The walk clamps its target below the node's sum at every step and
+ * never enters a child whose sum is zero, so it always ends on an entry with copies left and a
+ * positive weight, without scanning.
+ *
+ * Draws with replacement on an untouched deck (from construction or reset() until the first
+ * change) use a Walker/Vose alias table instead, in O(1). It is built in reset(), which is O(n)
+ * anyway, and is never patched or rebuilt after a change: a general alias table cannot be
+ * updated in place, and the sum tree is already fast enough on a changed deck.
+ */
+public class EventSampler {
+    private final double[] weights;
+    private final int[] fullCopies;
+    private final int[] remaining;
+    private final int n;
+    private long remainingTotal;
+
+    // sum tree: node 1 is the root, node k has children 2k and 2k + 1, nodes from leaves up are
+    // entries (entry = node - leaves; past n they are empty). Only inner nodes are stored.
+    private final int leaves;
+    private final double[] tree;
+
+    // alias table, valid while !aliasDirty
+    private final double[] prob;
+    private final int[] alias;
+    private boolean aliasDirty = true;
+
+    public EventSampler(EventCatalog catalog){
+        n = catalog.size();
+        weights = new double[n];
+        fullCopies = new int[n];
+        for (int i = 0; i < n; i++){
+            weights[i] = catalog.weight(i);
+            fullCopies[i] = catalog.copies(i);
+        }
+        remaining = new int[n];
+        leaves = Integer.highestOneBit(Math.max(1, n - 1)) << 1;
+        tree = new double[leaves];
+        prob = new double[n];
+        alias = new int[n];
+        reset();
+    }
+
+    // put every copy back
+    public void reset(){
+        System.arraycopy(fullCopies, 0, remaining, 0, n);
+        remainingTotal = 0;
+        for (int i = 0; i < n; i++) remainingTotal += remaining[i];
+        for (int k = leaves - 1; k >= 1; k--) tree[k] = sum(2 * k) + sum(2 * k + 1);
+        buildAlias();
+    }
+
+    public int size(){ return n; }
+    public long remainingTotal(){ return remainingTotal; }
+    public int remaining(int entry){ return remaining[entry]; }
+
+    // deck edit: set how many copies of an entry are left
+    public void setRemaining(int entry, int copies){
+        if (copies < 0) throw new IllegalArgumentException("copies < 0");
+        int delta = copies - remaining[entry];
+        if (delta == 0) return;
+        remaining[entry] = copies;
+        remainingTotal += delta;
+        for (int k = (entry + leaves) >> 1; k >= 1; k >>= 1) tree[k] = sum(2 * k) + sum(2 * k + 1);
+        aliasDirty = true;
+    }
+
+    // entry index, or -1 when nothing with positive weight is left
+    public int drawWithReplacement(Random rng){
+        if (!aliasDirty){
+            if (n == 0 || tree[1] <= 0) return -1;
+            int i = rng.nextInt(n);
+            return rng.nextDouble() < prob[i] ? i : alias[i];
+        }
+        return find(rng);
+    }
+
+    // entry index (its remaining copies drop by one), or -1 when nothing is left
+    public int drawWithoutReplacement(Random rng){
+        int i = find(rng);
+        if (i >= 0) setRemaining(i, remaining[i] - 1);
+        return i;
+    }
+
+    /* ---------------------- Sum tree ---------------------- */
+
+    private double sum(int node){
+        if (node < leaves) return tree[node];
+        int entry = node - leaves;
+        return entry < n ? weights[entry] * remaining[entry] : 0;
+    }
+
+    // an entry with probability proportional to its mass, or -1 when there is no mass
+    private int find(Random rng){
+        double total = n == 0 ? 0 : sum(1);
+        if (!(total > 0)) return -1;
+        double u = Math.min(rng.nextDouble() * total, Math.nextDown(total));
+        int k = 1;
+        // invariant: 0 <= u < sum(k), so sum(k) > 0
+        while (k < leaves){
+            double left = sum(2 * k);
+            if (u < left){
+                k = 2 * k;
+            } else {
+                // left + right > u >= left, so right > 0; keep u below it despite rounding
+                k = 2 * k + 1;
+                u = Math.min(u - left, Math.nextDown(sum(k)));
+            }
+        }
+        return k - leaves;
+    }
+
+    /* ---------------------- Alias table (Vose) ---------------------- */
+
+    private void buildAlias(){
+        double total = 0;
+        for (int i = 0; i < n; i++) total += weights[i] * remaining[i];
+        aliasDirty = false;
+        if (total <= 0) return;
+
+        int[] small = new int[n], large = new int[n];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < n; i++){
+            prob[i] = weights[i] * remaining[i] * n / total;
+            if (prob[i] < 1.0) small[ns++] = i; else large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0){
+            int s = small[--ns], l = large[--nl];
+            alias[s] = l;
+            prob[l] = (prob[l] + prob[s]) - 1.0;
+            if (prob[l] < 1.0) small[ns++] = l; else large[nl++] = l;
+        }
+        while (nl > 0) prob[large[--nl]] = 1.0;
+        while (ns > 0) prob[small[--ns]] = 1.0; // only reached through rounding
+    }
+}
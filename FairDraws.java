@@ -0,0 +1,275 @@
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Provably-fair draws for one table, backed by a SHA-256 hash chain.
+ *
+ * A chain starts from a random secret h[L] and hashes down to h[0] = SHA-256^L(h[L]). The
+ * table publishes h[0] when it takes the chain; round k then uses h[k] as its seed, and the
+ * seed of each round is the commitment for the next one. Revealing h[k] after round k lets
+ * anyone check SHA-256(h[k]) == h[k-1] (the commitment published before the round) without
+ * learning anything about later seeds.
+ *
+ * Draw j of a round takes the digest SHA-256(seed || j) and reads it as unsigned 64-bit
+ * words; the first word below the largest multiple of the deck size picks index
+ * word % size among the cards in the deck, in ordinal order (lowest mask bit first). So a draw
+ * depends only on the seed, j and the deck mask before the draw, which is what verify() needs.
+ *
+ * Chains, and the digests for the first DIGESTS_PER_ROUND draws of every round, are built
+ * ahead of time on a background thread (Pool), so committing and drawing cost an array read.
+ */
+public class FairDraws {
+
+    static final int ROUNDS_PER_CHAIN = 256;
+    static final int DIGESTS_PER_ROUND = 3; // the default window; later draws hash on demand
+    private static final int H = 32;        // SHA-256 length
+
+    // one precomputed chain: hashes h[0..L] and the first draw digests of every round
+    static final class Chain {
+        final byte[] hashes = new byte[(ROUNDS_PER_CHAIN + 1) * H];
+        final byte[] digests = new byte[ROUNDS_PER_CHAIN * DIGESTS_PER_ROUND * H];
+    }
+
+    /**
+     * Builds chains on a daemon thread and keeps up to `ahead` of them ready. One chain covers
+     * ROUNDS_PER_CHAIN rounds of one table, so a few chains ahead keep thousands of tables fed.
+     */
+    static final class Pool {
+        private static Pool shared;
+        private final BlockingQueue<Chain> ready;
+        private final SecureRandom random = new SecureRandom();
+
+        Pool(int ahead){
+            ready = new ArrayBlockingQueue<>(ahead);
+            Thread t = new Thread(() -> {
+                MessageDigest sha = sha256();
+                try {
+                    while (true) ready.put(build(sha));
+                } catch (InterruptedException ignored) {
+                    // exit
+                }
+            }, "HashChainBuilder");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        static synchronized Pool shared(){
+            if (shared == null) shared = new Pool(64);
+            return shared;
+        }
+
+        // a ready chain; builds one on the caller only if the background thread fell behind
+        Chain take(){
+            Chain c = ready.poll();
+            return c != null ? c : build(sha256());
+        }
+
+        private Chain build(MessageDigest sha){
+            Chain c = new Chain();
+            byte[] secret = new byte[H];
+            synchronized (random){ random.nextBytes(secret); }
+            System.arraycopy(secret, 0, c.hashes, ROUNDS_PER_CHAIN * H, H);
+            for (int k = ROUNDS_PER_CHAIN; k > 0; k--){
+                sha.update(c.hashes, k * H, H);
+                digestInto(sha, c.hashes, (k - 1) * H);
+            }
+            for (int k = 1; k <= ROUNDS_PER_CHAIN; k++){
+                for (int j = 0; j < DIGESTS_PER_ROUND; j++){
+                    drawDigest(sha, c.hashes, k * H, j, c.digests, ((k - 1) * DIGESTS_PER_ROUND + j) * H);
+                }
+            }
+            return c;
+        }
+    }
+
+    /** What a player needs to check a finished round. */
+    static final class Proof {
+        final byte[] commitment; // published before the round
+        final byte[] seed;       // revealed after it
+        final long[] masks;      // deck mask before each draw
+        final int[] ordinals;    // card drawn each time
+
+        Proof(byte[] commitment, byte[] seed, long[] masks, int[] ordinals){
+            this.commitment = commitment;
+            this.seed = seed;
+            this.masks = masks;
+            this.ordinals = ordinals;
+        }
+
+        boolean verify(){ return FairDraws.verify(commitment, seed, masks, ordinals); }
+
+        // arguments for the command-line verifier in main()
+        String verifierArgs(){
+            StringBuilder sb = new StringBuilder(hex(commitment)).append(' ').append(hex(seed));
+            for (int j = 0; j < masks.length; j++) sb.append(' ').append(Long.toHexString(masks[j])).append(':').append(ordinals[j]);
+            return sb.toString();
+        }
+    }
+
+    private final Pool pool;
+    private final MessageDigest sha = sha256(); // only for draws past the precomputed ones
+    private Chain chain;
+    private int round; // 1..ROUNDS_PER_CHAIN, index of the current seed in the chain
+    private int drawInRound = 0;
+    private long[] masks = new long[8];
+    private int[] ordinals = new int[8];
+
+    FairDraws(){ this(Pool.shared()); }
+
+    FairDraws(Pool pool){
+        this.pool = pool;
+        this.chain = pool.take();
+        this.round = 1;
+    }
+
+    // the hash the current round's seed must hash to; known before any of its draws
+    byte[] commitment(){
+        return slice(chain.hashes, (round - 1) * H);
+    }
+
+    // picks the next card's ordinal for a deck with this mask and logs it for the proof
+    int next(long deckMask){
+        int size = Long.bitCount(deckMask);
+        if (size == 0) return -1;
+        int j = drawInRound;
+        int idx;
+        if (j < DIGESTS_PER_ROUND){
+            idx = pickIndex(chain.digests, ((round - 1) * DIGESTS_PER_ROUND + j) * H, size, sha);
+        } else {
+            byte[] d = new byte[H];
+            drawDigest(sha, chain.hashes, round * H, j, d, 0);
+            idx = pickIndex(d, 0, size, sha);
+        }
+        int ordinal = select(deckMask, idx);
+        if (j == masks.length){
+            masks = Arrays.copyOf(masks, j * 2);
+            ordinals = Arrays.copyOf(ordinals, j * 2);
+        }
+        masks[j] = deckMask;
+        ordinals[j] = ordinal;
+        drawInRound++;
+        return ordinal;
+    }
+
+    // reveals the seed and moves on to the next one (a fresh chain when this one is used up)
+    Proof endRound(){
+        Proof p = new Proof(commitment(), slice(chain.hashes, round * H),
+                Arrays.copyOf(masks, drawInRound), Arrays.copyOf(ordinals, drawInRound));
+        drawInRound = 0;
+        if (++round > ROUNDS_PER_CHAIN){
+            chain = pool.take();
+            round = 1;
+        }
+        return p;
+    }
+
+    /* ---------------------- Verification ---------------------- */
+
+    static boolean verify(byte[] commitment, byte[] seed, long[] masks, int[] ordinals){
+        MessageDigest sha = sha256();
+        if (!MessageDigest.isEqual(sha.digest(seed), commitment)) return false;
+        byte[] d = new byte[H];
+        for (int j = 0; j < masks.length; j++){
+            int size = Long.bitCount(masks[j]);
+            if (size == 0) return false;
+            drawDigest(sha, seed, 0, j, d, 0);
+            if (select(masks[j], pickIndex(d, 0, size, sha)) != ordinals[j]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Command-line verifier:
+     *     java -cp . FairDraws <commitment-hex> <seed-hex> [<deck-mask-hex>:<ordinal> ...]
+     * Prints OK and exits 0 when the seed matches the commitment and every draw reproduces.
+     */
+    public static void main(String[] args){
+        if (args.length < 2){
+            System.err.println("usage: java FairDraws <commitment-hex> <seed-hex> [<deck-mask-hex>:<ordinal> ...]");
+            System.exit(2);
+        }
+        List<long[]> draws = new ArrayList<>();
+        for (int i = 2; i < args.length; i++){
+            String[] p = args[i].split(":");
+            draws.add(new long[]{ Long.parseUnsignedLong(p[0], 16), Integer.parseInt(p[1]) });
+        }
+        long[] masks = new long[draws.size()];
+        int[] ordinals = new int[draws.size()];
+        for (int i = 0; i < masks.length; i++){ masks[i] = draws.get(i)[0]; ordinals[i] = (int) draws.get(i)[1]; }
+        boolean ok = verify(fromHex(args[0]), fromHex(args[1]), masks, ordinals);
+        System.out.println(ok ? "OK" : "FAILED");
+        if (!ok) System.exit(1);
+    }
+
+    /* ---------------------- Helpers ---------------------- */
+
+    // SHA-256(seed || j), j as 4 big-endian bytes
+    private static void drawDigest(MessageDigest sha, byte[] seed, int seedOff, int j, byte[] out, int outOff){
+        sha.update(seed, seedOff, H);
+        sha.update((byte) (j >>> 24));
+        sha.update((byte) (j >>> 16));
+        sha.update((byte) (j >>> 8));
+        sha.update((byte) j);
+        digestInto(sha, out, outOff);
+    }
+
+    // unbiased index in [0, size) from the digest's 64-bit words, rehashing if all four miss
+    private static int pickIndex(byte[] digest, int off, int size, MessageDigest sha){
+        long limit = Long.divideUnsigned(-1L, size) * size;
+        byte[] d = digest;
+        while (true){
+            for (int w = 0; w < H / 8; w++){
+                long v = 0;
+                for (int b = 0; b < 8; b++) v = (v << 8) | (d[off + w * 8 + b] & 0xFF);
+                if (Long.compareUnsigned(v, limit) < 0) return (int) Long.remainderUnsigned(v, size);
+            }
+            sha.update(d, off, H);
+            d = sha.digest();
+            off = 0;
+        }
+    }
+
+    // ordinal of the idx-th set bit of mask, lowest first
+    private static int select(long mask, int idx){
+        for (int i = 0; i < idx; i++) mask &= mask - 1;
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    private static void digestInto(MessageDigest sha, byte[] out, int off){
+        try {
+            sha.digest(out, off, H);
+        } catch (java.security.DigestException ex){
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static MessageDigest sha256(){
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex){
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static byte[] slice(byte[] a, int off){
+        return Arrays.copyOfRange(a, off, off + H);
+    }
+
+    static String hex(byte[] b){
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) sb.append(Character.forDigit((x >> 4) & 0xF, 16)).append(Character.forDigit(x & 0xF, 16));
+        return sb.toString();
+    }
+
+    static byte[] fromHex(String s){
+        byte[] b = new byte[s.length() / 2];
+        for (int i = 0; i < b.length; i++) b[i] = (byte) Integer.parseInt(s.substring(2 * i, 2 * i + 2), 16);
+        return b;
+    }
+}
@@ -0,0 +1,274 @@
+import java.util.Random;
+
+/**
+ * Running fairness statistics over every draw: how often each card, suit, colour and rank came
+ * up against how often it should have, given the deck as it was at each draw, plus a chi-square
+ * test on those counts and a runs test on the red/black sequence.
+ *
+ * Nothing here looks at the draw history. The expected count of a card is the sum of 1/size
+ * over the draws it was in the deck for, kept with one running sum S = sum of 1/size over all
+ * draws: a card remembers S when it enters the deck and banks the difference when it leaves.
+ * A draw therefore costs the same after ten draws or ten million: one counter, one division,
+ * one card leaving. Deck edits cost one step per card that changed.
+ *
+ * Draws are without replacement and the deck changes, so neither test assumes independent
+ * draws. The chi-square compares counts with summed conditional probabilities. The runs test
+ * counts red/black changes against the sum of the conditional probability of a change at each
+ * draw (the share of the other colour left in the deck), with variance sum p(1-p); a plain
+ * Wald-Wolfowitz test would flag every honest deck, since drawing a red makes the next red less
+ * likely. Both are approximate: a regulator's first look, not a proof.
+ *
+ * Fed from GameEvents as a lossy subscriber on its own thread, so a slow consumer never holds
+ * up the round that publishes. When it is lapped, the skipped events are counted and simply not
+ * part of the statistics: expectation only accrues on draws that were seen (the cards that left
+ * meanwhile are banked at the next event, with nothing added for the draws that were missed),
+ * and the red/black sequence starts a new segment, so both tests stay valid over fewer draws.
+ * The methods are synchronized so the UI can take a snapshot() while draws come in.
+ */
+final class FairnessStats implements GameEvents.Handler {
+
+    static final int TREND = 120;          // p-value samples kept for the trend
+    static final double MIN_EXPECTED = 5;  // per chi-square cell before a p-value is given
+
+    private static final long RED = Card.colorMask(ColorType.RED);
+
+    private long draws = 0;
+    private final long[] observed = new long[52];
+    private final double[] expectedBanked = new double[52];
+    private final double[] enteredAt = new double[52];
+    private double sumInverseSize = 0;     // S
+    private long deckMask = 0;             // the deck as the statistics last saw it
+
+    // red/black runs, and their conditional expectation and variance
+    private long reds = 0, blacks = 0, runs = 0;
+    private double runsExpected = 0, runsVariance = 0;
+    private boolean lastRed;
+    private boolean segmentStart = true;   // next draw starts a red/black segment (first draw, or after a gap)
+    private long missed = 0;               // events skipped because the subscriber was lapped
+
+    // p-value trend, sampled by snapshot() whenever there were new draws
+    private final double[] trendChi = new double[TREND];
+    private final double[] trendRuns = new double[TREND];
+    private final long[] trendDraws = new long[TREND];
+    private int trendCount = 0, trendNext = 0;
+    private long trendLastDraws = -1;
+
+    @Override public synchronized void onEvent(GameEvents.Event e, boolean endOfBatch){
+        if (e.type == GameEvents.Type.DRAW && e.ordinal >= 0) draw(e.ordinal, e.deckMask | (1L << e.ordinal));
+        else syncDeck(e.deckMask);
+    }
+
+    @Override public synchronized void onMissed(long count){
+        missed += count;
+        segmentStart = true;
+    }
+
+    synchronized void reset(){
+        draws = 0;
+        java.util.Arrays.fill(observed, 0);
+        java.util.Arrays.fill(expectedBanked, 0);
+        java.util.Arrays.fill(enteredAt, 0);
+        sumInverseSize = 0;
+        long m = deckMask;
+        deckMask = 0;
+        syncDeck(m);
+        reds = blacks = runs = 0;
+        runsExpected = runsVariance = 0;
+        segmentStart = true;
+        missed = 0;
+        trendCount = trendNext = 0;
+        trendLastDraws = -1;
+    }
+
+    // one draw of `ordinal` from a deck that was `before`
+    synchronized void draw(int ordinal, long before){
+        syncDeck(before);
+        int size = Long.bitCount(before);
+        sumInverseSize += 1.0 / size;
+        if (segmentStart){
+            runsExpected += 1; // a segment's first draw always starts a run
+        } else {
+            double change = Long.bitCount(before & (lastRed ? ~RED : RED)) / (double) size;
+            runsExpected += change;
+            runsVariance += change * (1 - change);
+        }
+        observed[ordinal]++;
+        draws++;
+        syncDeck(before & ~(1L << ordinal));
+
+        boolean red = (RED >>> ordinal & 1) != 0;
+        if (red) reds++; else blacks++;
+        if (segmentStart || red != lastRed) runs++;
+        lastRed = red;
+        segmentStart = false;
+    }
+
+    // cards entering start accruing expectation from now; cards leaving bank what they accrued
+    private void syncDeck(long mask){
+        long changed = deckMask ^ mask;
+        while (changed != 0){
+            int c = Long.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            if ((mask >>> c & 1) != 0) enteredAt[c] = sumInverseSize;
+            else expectedBanked[c] += sumInverseSize - enteredAt[c];
+        }
+        deckMask = mask;
+    }
+
+    /* ---------------------- Snapshot ---------------------- */
+
+    static final class Snapshot {
+        long draws;
+        final long[] observed = new long[52];
+        final double[] expected = new double[52];
+        final long[] suitObserved = new long[4], rankObserved = new long[13], colourObserved = new long[2];
+        final double[] suitExpected = new double[4], rankExpected = new double[13], colourExpected = new double[2];
+        double cardChi, suitChi, rankChi, colourChi;
+        int cardDof, suitDof, rankDof, colourDof;
+        double cardP = Double.NaN, suitP = Double.NaN, rankP = Double.NaN, colourP = Double.NaN;
+        long runs, reds, blacks;
+        long missed;
+        double runsExpected, runsZ, runsP = Double.NaN;
+        long[] trendDraws = new long[0];
+        double[] trendChi = new double[0], trendRuns = new double[0];
+    }
+
+    // the current statistics; O(52), independent of how many draws there were
+    synchronized Snapshot snapshot(){
+        Snapshot s = new Snapshot();
+        s.draws = draws;
+        for (int c = 0; c < 52; c++){
+            s.observed[c] = observed[c];
+            s.expected[c] = expectedBanked[c] + ((deckMask >>> c & 1) != 0 ? sumInverseSize - enteredAt[c] : 0);
+            int suit = c / 13, rank = c % 13, colour = (RED >>> c & 1) != 0 ? 0 : 1;
+            s.suitObserved[suit] += observed[c];     s.suitExpected[suit] += s.expected[c];
+            s.rankObserved[rank] += observed[c];     s.rankExpected[rank] += s.expected[c];
+            s.colourObserved[colour] += observed[c]; s.colourExpected[colour] += s.expected[c];
+        }
+        double[] r;
+        r = chiSquare(s.observed, s.expected); s.cardChi = r[0]; s.cardDof = (int) r[1]; s.cardP = r[2];
+        r = chiSquare(s.suitObserved, s.suitExpected); s.suitChi = r[0]; s.suitDof = (int) r[1]; s.suitP = r[2];
+        r = chiSquare(s.rankObserved, s.rankExpected); s.rankChi = r[0]; s.rankDof = (int) r[1]; s.rankP = r[2];
+        r = chiSquare(s.colourObserved, s.colourExpected); s.colourChi = r[0]; s.colourDof = (int) r[1]; s.colourP = r[2];
+
+        // runs test on red/black, two-sided
+        s.runs = runs; s.reds = reds; s.blacks = blacks;
+        s.missed = missed;
+        s.runsExpected = runsExpected;
+        if (runsVariance > 0){
+            s.runsZ = (runs - runsExpected) / Math.sqrt(runsVariance);
+            s.runsP = erfc(Math.abs(s.runsZ) / Math.sqrt(2));
+        }
+
+        if (draws != trendLastDraws && !Double.isNaN(s.cardP)){
+            trendLastDraws = draws;
+            trendDraws[trendNext] = draws;
+            trendChi[trendNext] = s.cardP;
+            trendRuns[trendNext] = Double.isNaN(s.runsP) ? 1 : s.runsP;
+            trendNext = (trendNext + 1) % TREND;
+            if (trendCount < TREND) trendCount++;
+        }
+        s.trendDraws = new long[trendCount];
+        s.trendChi = new double[trendCount];
+        s.trendRuns = new double[trendCount];
+        for (int i = 0; i < trendCount; i++){
+            int j = (trendNext - trendCount + i + TREND) % TREND;
+            s.trendDraws[i] = trendDraws[j]; s.trendChi[i] = trendChi[j]; s.trendRuns[i] = trendRuns[j];
+        }
+        return s;
+    }
+
+    // {statistic, degrees of freedom, upper-tail p}; cells with no expectation are left out, and
+    // p is NaN until every other cell expects MIN_EXPECTED, below which the approximation fails
+    private static double[] chiSquare(long[] observed, double[] expected){
+        double chi = 0;
+        int cells = 0;
+        boolean enough = true;
+        for (int i = 0; i < observed.length; i++){
+            if (expected[i] <= 1e-12) continue;
+            double d = observed[i] - expected[i];
+            chi += d * d / expected[i];
+            cells++;
+            if (expected[i] < MIN_EXPECTED) enough = false;
+        }
+        int dof = cells - 1;
+        return new double[]{ chi, dof, dof > 0 && enough ? chiSquareP(chi, dof) : Double.NaN };
+    }
+
+    /* ---------------------- Distributions ---------------------- */
+
+    // P(X >= x) for chi-square with k degrees of freedom: the regularized upper gamma Q(k/2, x/2)
+    static double chiSquareP(double x, int k){
+        if (x <= 0) return 1;
+        double a = k / 2.0, y = x / 2.0;
+        if (y < a + 1){
+            // series for P(a, y)
+            double sum = 1 / a, term = sum;
+            for (int n = 1; n < 1000; n++){
+                term *= y / (a + n);
+                sum += term;
+                if (term < sum * 1e-15) break;
+            }
+            return Math.max(0, 1 - sum * Math.exp(-y + a * Math.log(y) - logGamma(a)));
+        }
+        // continued fraction for Q(a, y) (modified Lentz)
+        double b = y + 1 - a, c = 1e300, d = 1 / b, h = d;
+        for (int i = 1; i < 1000; i++){
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b; if (Math.abs(d) < 1e-300) d = 1e-300;
+            c = b + an / c; if (Math.abs(c) < 1e-300) c = 1e-300;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return Math.exp(-y + a * Math.log(y) - logGamma(a)) * h;
+    }
+
+    // Lanczos approximation
+    private static double logGamma(double x){
+        double[] g = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+                       -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+        double y = x, tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double ser = 1.000000000190015;
+        for (double v : g) ser += v / ++y;
+        return -tmp + Math.log(2.5066282746310005 * ser / x);
+    }
+
+    // complementary error function, |error| < 1.2e-7
+    static double erfc(double z){
+        double t = 1 / (1 + 0.5 * Math.abs(z));
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return z >= 0 ? r : 2 - r;
+    }
+
+    /**
+     * Feeds n draws from a real Deck (reshuffled to full whenever it runs out) and prints the
+     * statistics and the cost per draw, which should not grow with n.
+     *     java -cp . FairnessStats [n=10000000]
+     */
+    public static void main(String[] args){
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        FairnessStats stats = new FairnessStats();
+        Deck deck = new Deck();
+        Random rng = new Random();
+        stats.syncDeck(deck.mask());
+        long t0 = System.nanoTime(), checkpoint = 1000;
+        for (long i = 1; i <= n; i++){
+            if (deck.size() == 0) deck.resetToFull();
+            long before = deck.mask();
+            Card c = deck.drawRandom(rng);
+            stats.draw(c.ordinal(), before);
+            if (i == checkpoint || i == n){
+                Snapshot s = stats.snapshot();
+                System.out.printf("%,12d draws  %6.1f ns/draw  cards chi2=%.1f (df %d) p=%.3f  suits p=%.3f  ranks p=%.3f  colours p=%.3f  runs z=%.2f p=%.3f%n",
+                        i, (System.nanoTime() - t0) / (double) i, s.cardChi, s.cardDof, s.cardP, s.suitP, s.rankP, s.colourP, s.runsZ, s.runsP);
+                checkpoint *= 10;
+            }
+        }
+    }
+}
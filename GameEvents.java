@@ -0,0 +1,369 @@
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-producer, multi-consumer ring buffer of game events (draws, deck edits, bet changes,
+ * settlements). GameRound publishes into it; the UI, audio, metrics or a journal consume at
+ * their own pace, in batches, without the round knowing about any of them.
+ *
+ * The ring is a fixed array of preallocated, mutable Event slots. Publishing fills the next
+ * slot's primitive fields and stamps it with its sequence number, so it allocates nothing.
+ * Each subscriber copies slots into its own Event before handing them over, and re-checks the
+ * stamp afterwards, so a slot overwritten mid-read is noticed rather than half-seen.
+ *
+ * Two kinds of subscriber:
+ *  - gating (the default): the producer never laps it. If it falls a full ring behind, the
+ *    producer waits for it. Use for anything that must see every event (journal, metrics).
+ *  - lossy: the producer may lap it. It then skips to the oldest event still in the ring and
+ *    is told how many it missed. Use for consumers that only show the latest state (the UI),
+ *    and for any consumer running on the producer's own thread, which could never catch up
+ *    while the producer waits for it.
+ *
+ * A subscriber either gets its own daemon thread, which parks while the ring is empty, runs on
+ * an Executor that is handed one drain task per batch, or is polled by its owner (e.g. from a
+ * javax.swing.Timer on the EDT). Waking a thread or a polled subscriber allocates nothing, so
+ * with those a draw allocates nothing on any thread. An Executor may allocate per batch on the
+ * producer's thread: SwingUtilities::invokeLater posts a new InvocationEvent each time.
+ */
+final class GameEvents {
+
+    private static final int IDLE_YIELDS = 16; // yields before a subscriber thread parks
+
+    enum Type { DRAW, DECK_EDIT, BET_CHANGED, ROUND_SETTLED }
+
+    /** One event. Which fields are set depends on the type; the rest are left at their last value. */
+    static final class Event {
+        long sequence;
+        Type type;
+        long nanos;          // System.nanoTime() at publication
+        long deckMask;       // deck after the event (all types)
+        int ordinal = -1;    // DRAW: card drawn, -1 for an empty deck
+        long previousMask;   // DECK_EDIT: deck before the edit
+        long selectionMask;  // BET_CHANGED, ROUND_SETTLED
+        long stake;          // BET_CHANGED, ROUND_SETTLED: minor units
+        long multiplier;     // BET_CHANGED, ROUND_SETTLED: fixed point, see Money
+        long windowMask;     // ROUND_SETTLED: OR of the cards settled against
+        long net;            // ROUND_SETTLED: minor units
+
+        boolean won(){ return (selectionMask & windowMask) != 0; }
+
+        void copyFrom(Event o){
+            sequence = o.sequence; type = o.type; nanos = o.nanos; deckMask = o.deckMask;
+            ordinal = o.ordinal; previousMask = o.previousMask; selectionMask = o.selectionMask;
+            stake = o.stake; multiplier = o.multiplier; windowMask = o.windowMask; net = o.net;
+        }
+    }
+
+    interface Handler {
+        // e is only valid during the call; endOfBatch is true for the last event available right now
+        void onEvent(Event e, boolean endOfBatch);
+
+        // a lossy subscriber was lapped and skipped this many events
+        default void onMissed(long count){ }
+    }
+
+    private final Event[] slots;
+    private final AtomicLongArray stamps; // sequence held by each slot; -1 while it is being written
+    private final int mask;
+    private long next = 0;                // producer only
+    private long gateCache = 0;           // producer only: lowest gating position seen last time
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private volatile Subscriber[] active = new Subscriber[0];
+
+    GameEvents(int capacity){
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two");
+        slots = new Event[capacity];
+        for (int i = 0; i < capacity; i++) slots[i] = new Event();
+        stamps = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) stamps.set(i, -1);
+        mask = capacity - 1;
+    }
+
+    /* ---------------------- Subscribing ---------------------- */
+
+    // runs the handler on its own daemon thread
+    Subscriber subscribe(String name, Handler handler, boolean lossy){
+        Subscriber s = new Subscriber(handler, lossy, null);
+        Thread t = new Thread(s::runThread, name);
+        t.setDaemon(true);
+        s.thread = t;
+        add(s);
+        t.start();
+        return s;
+    }
+
+    // runs the handler on the executor, one task per batch
+    Subscriber subscribe(Handler handler, Executor executor, boolean lossy){
+        Subscriber s = new Subscriber(handler, lossy, executor);
+        add(s);
+        return s;
+    }
+
+    // the owner drains it by calling poll() from one thread; publishing never wakes it
+    Subscriber subscribePolled(Handler handler, boolean lossy){
+        Subscriber s = new Subscriber(handler, lossy, null);
+        add(s);
+        return s;
+    }
+
+    private synchronized void add(Subscriber s){
+        s.position.set(next - 1); // starts with the next event published
+        subscribers.add(s);
+        active = subscribers.toArray(new Subscriber[0]);
+    }
+
+    synchronized void unsubscribe(Subscriber s){
+        s.closed = true;
+        subscribers.remove(s);
+        active = subscribers.toArray(new Subscriber[0]);
+        if (s.thread != null) LockSupport.unpark(s.thread);
+    }
+
+    /* ---------------------- Publishing (one thread only) ---------------------- */
+
+    void draw(int ordinal, long deckMask){
+        Event e = claim(Type.DRAW, deckMask);
+        e.ordinal = ordinal;
+        publish();
+    }
+
+    void deckEdit(long before, long after){
+        Event e = claim(Type.DECK_EDIT, after);
+        e.previousMask = before;
+        publish();
+    }
+
+    void betChanged(long selectionMask, long stake, long multiplier, long deckMask){
+        Event e = claim(Type.BET_CHANGED, deckMask);
+        e.selectionMask = selectionMask;
+        e.stake = stake;
+        e.multiplier = multiplier;
+        publish();
+    }
+
+    void roundSettled(long selectionMask, long windowMask, long stake, long multiplier, long net, long deckMask){
+        Event e = claim(Type.ROUND_SETTLED, deckMask);
+        e.selectionMask = selectionMask;
+        e.windowMask = windowMask;
+        e.stake = stake;
+        e.multiplier = multiplier;
+        e.net = net;
+        publish();
+    }
+
+    long published(){ return next; }
+
+    private Event claim(Type type, long deckMask){
+        long seq = next;
+        if (seq - slots.length >= gateCache) waitForGating(seq);
+        int i = (int) seq & mask;
+        stamps.set(i, -1);
+        VarHandle.storeStoreFence(); // the -1 is visible before any field changes
+        Event e = slots[i];
+        e.sequence = seq;
+        e.type = type;
+        e.nanos = System.nanoTime();
+        e.deckMask = deckMask;
+        return e;
+    }
+
+    private void publish(){
+        long seq = next++;
+        stamps.set((int) seq & mask, seq);
+        for (Subscriber s : active) s.signal();
+    }
+
+    // slot seq & mask last held seq - capacity; wait until every gating subscriber has read it
+    private void waitForGating(long seq){
+        int spins = 0;
+        while (true){
+            long min = Long.MAX_VALUE;
+            for (Subscriber s : active) if (!s.lossy) min = Math.min(min, s.position.get() + 1);
+            gateCache = min == Long.MAX_VALUE ? seq + 1 : min;
+            if (seq - slots.length < gateCache) return;
+            for (Subscriber s : active) s.signal();
+            if (++spins < 100) Thread.onSpinWait();
+            else LockSupport.parkNanos(1_000);
+        }
+    }
+
+    /* ---------------------- Consuming ---------------------- */
+
+    final class Subscriber {
+        private final Handler handler;
+        final boolean lossy;
+        private final Executor executor;
+        private final Event view = new Event();
+        final AtomicLong position = new AtomicLong(-1); // last sequence handed to the handler
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Runnable drainTask = this::drainScheduled;
+        private volatile boolean waiting;
+        private volatile boolean closed;
+        private Thread thread;
+        private long missed;
+
+        private Subscriber(Handler handler, boolean lossy, Executor executor){
+            this.handler = handler;
+            this.lossy = lossy;
+            this.executor = executor;
+        }
+
+        long missed(){ return missed; }
+
+        // polled subscribers: hands over everything available now; returns how many events
+        int poll(){
+            return closed ? 0 : drain();
+        }
+
+        // events published but not yet handled; ask from the producer's thread
+        long lag(){ return next - 1 - position.get(); }
+
+        private void signal(){
+            if (executor != null){
+                if (!scheduled.get() && scheduled.compareAndSet(false, true)) executor.execute(drainTask);
+            } else if (waiting){
+                LockSupport.unpark(thread);
+            }
+        }
+
+        // when the ring runs dry, yield a few times before parking: waking a parked thread
+        // costs far more than a yield, and the producer is usually about to publish again
+        private void runThread(){
+            int idle = 0;
+            while (!closed){
+                if (drain() > 0){
+                    idle = 0;
+                } else if (++idle <= IDLE_YIELDS){
+                    Thread.yield();
+                } else {
+                    waiting = true;
+                    if (!available()) LockSupport.park(this);
+                    waiting = false;
+                    idle = 0;
+                }
+            }
+        }
+
+        private void drainScheduled(){
+            do {
+                drain();
+                scheduled.set(false);
+                // an event published between the last read and the reset would have found us scheduled
+            } while (!closed && available() && scheduled.compareAndSet(false, true));
+        }
+
+        private boolean available(){
+            long seq = position.get() + 1;
+            return stamps.get((int) seq & mask) >= seq;
+        }
+
+        // hands over everything available; returns how many events
+        private int drain(){
+            int handled = 0;
+            long seq = position.get() + 1;
+            while (!closed){
+                int i = (int) seq & mask;
+                long stamp = stamps.get(i);
+                if (stamp < seq) break; // not published yet (or being written)
+                if (stamp > seq || !read(i, seq)){
+                    // lapped (lossy only): jump towards the oldest event the slot says is still there
+                    stamp = stamps.get(i);
+                    long resume = Math.max(seq + 1, stamp - slots.length + 1);
+                    missed += resume - seq;
+                    handler.onMissed(resume - seq);
+                    seq = resume;
+                    position.set(seq - 1);
+                    continue;
+                }
+                seq++;
+                boolean end = stamps.get((int) seq & mask) < seq;
+                handler.onEvent(view, end);
+                position.set(seq - 1);
+                handled++;
+            }
+            return handled;
+        }
+
+        // copies slot i into view; false if the producer rewrote it meanwhile
+        private boolean read(int i, long seq){
+            view.copyFrom(slots[i]);
+            VarHandle.loadLoadFence();
+            return stamps.get(i) == seq;
+        }
+    }
+
+    /**
+     * Throughput check: a producer publishes n draws while a counting subscriber, a journal
+     * that appends to a ledger file and a lossy slow subscriber consume them.
+     *     java -cp . GameEvents [n=10000000]
+     */
+    public static void main(String[] args) throws Exception {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        GameEvents bus = new GameEvents(4096);
+
+        long[] counts = new long[2];
+        Subscriber metrics = bus.subscribe("metrics", (e, end) -> { counts[0]++; if (e.type == Type.ROUND_SETTLED) counts[1] += e.net; }, false);
+        Subscriber slow = bus.subscribe("slow", new Handler(){
+            public void onEvent(Event e, boolean end){ if (end) LockSupport.parkNanos(200_000); }
+        }, true);
+
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("events", ".wal");
+        PayoutLedger ledger = new PayoutLedger(file, 4096, false);
+        Subscriber journal = bus.subscribe("journal", (e, end) -> {
+            try {
+                if (e.type == Type.ROUND_SETTLED) ledger.settled(0, 0, e.selectionMask, e.windowMask, Long.bitCount(e.deckMask), e.multiplier, e.stake, e.net);
+                if (end) ledger.commit();
+            } catch (java.io.IOException ex){
+                throw new java.io.UncheckedIOException(ex);
+            }
+        }, false);
+
+        java.util.Random rng = new java.util.Random(1);
+        long mult = Money.multiplier(2.17), stake = Money.minor(5);
+        long allocatedBefore = allocatedBytes();
+        long t0 = System.nanoTime();
+        long expectedNet = 0;
+        for (long i = 0; i < n; i++){
+            if ((i & 3) != 3){
+                bus.draw((int) (i % 52), Card.FULL_MASK);
+            } else {
+                long window = 1L << rng.nextInt(52);
+                long net = Money.scale(stake, (window & 0x1FFFL) != 0 ? mult : -Money.MULT_SCALE);
+                expectedNet += net;
+                bus.roundSettled(0x1FFFL, window, stake, mult, net, Card.FULL_MASK);
+            }
+        }
+        long publishNs = System.nanoTime() - t0;
+        long allocated = allocatedBytes() - allocatedBefore;
+        while (metrics.lag() > 0 || journal.lag() > 0) Thread.sleep(1);
+        long totalNs = System.nanoTime() - t0;
+        ledger.commit();
+        String problem = ledger.reconcile();
+        ledger.close();
+        java.nio.file.Files.deleteIfExists(file);
+
+        System.out.printf("%d events: published in %.1f ms (%.1f M/s), all gating subscribers done in %.1f ms%n",
+                n, publishNs / 1e6, n / (publishNs / 1e3), totalNs / 1e6);
+        System.out.printf("producer thread allocated %s bytes%n", allocated < 0 ? "(unknown)" : String.valueOf(allocated));
+        System.out.printf("metrics saw %d events, net %s (expected %s); lossy subscriber missed %d; journal reconciliation %s%n",
+                counts[0], Money.format(counts[1]), Money.format(expectedNet), slow.missed(), problem == null ? "exact" : problem);
+        boolean ok = counts[0] == n && counts[1] == expectedNet && problem == null;
+        System.out.println(ok ? "OK" : "MISMATCH");
+        if (!ok) System.exit(1);
+    }
+
+    // bytes allocated so far by this thread, or -1 where the JVM does not say
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
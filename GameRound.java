@@ -0,0 +1,394 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The rules of one game with no UI attached: the deck, the player's bet and selection, the
+ * payout multipliers, the draw history and settlement. gamePanel drives it from Swing buttons,
+ * SessionRunner drives it from scripts; neither loads anything from AWT through this class.
+ *
+ * A round is not thread-safe. Give each thread its own.
+ */
+public class GameRound {
+
+    // the player's bet and what it is placed on
+    int betAmount = 0;
+    ChosenType chosenType = ChosenType.INDIVIDUAL;
+    String chosenRank = "A"; // reused for number bets as well ("A","2",..."K")
+    Suit chosenSuit = Suit.SPADES;
+    ColorType chosenColor = ColorType.RED;
+
+    final Deck deck = new Deck();
+    final Random rng;
+    Card lastDrawn = null;
+    boolean windowHit = false; // whether the last up-to-K draws contain a hit
+
+    // draw history: the win window of the last K draws, and the rest only when retained
+    final DrawHistory drawHistory = new DrawHistory();
+
+    // undo/redo history of deck edits
+    final DeckEdits deckEdits = new DeckEdits();
+
+    // every bet placed on the current round (the local player is player 0)
+    final BetSettler tableBets = new BetSettler();
+
+    // optional combination/parlay side bet on the draws after it was placed (null = none),
+    // tracked one leg per draw so settling it needs no history. Its multiplier is fixed for the
+    // deck it was placed on, so the deck cannot be edited, restored or replaced while it is open.
+    ParlayBet parlay = null;
+    long parlayStake = 0, parlayMultiplier = 0; // minor units; Money fixed-point net multiplier
+    private int parlayLegs = 0;                 // legs decided so far
+    private long parlayHits = 0L;               // bit i: leg i hit
+    private long parlayDrawn = 0L;              // cards drawn for it
+
+    // provably-fair mode: draws come from a committed hash chain instead of rng (null = off)
+    FairDraws fair = null;
+    FairDraws.Proof lastProof = null; // proof for the last round settled in fair mode
+
+    // where draws, deck edits, bet changes and settlements are published (null = nowhere)
+    GameEvents events = null;
+
+    // progressive jackpot shared with the other tables (null = none). A round can only win it
+    // when it is exactly K draws and the first came from a full deck, with no deck edit, state
+    // import, bet or window change after that, so any one card is the final one 1 time in 52.
+    Jackpot jackpot = null;
+    long lastJackpot = 0;        // minor units won from it by the last settle()
+    boolean jackpotHit = false;  // whether the last settle() hit it (a pooled jackpot pays elsewhere)
+    private int roundDraws = 0;  // draws since the last settle, restart or state import
+    private boolean jackpotEligible = false;
+
+    // payout ledger every settlement is appended to, under ledgerTable (null = not logged)
+    PayoutLedger ledger = null;
+    int ledgerTable = 0;
+
+    // Multipliers (editable in settings)
+    double mulIndividual = 17.4;
+    double mulSuit = 2.17;
+    double mulColour = 1.46;
+    // Number multipliers - separate for odd and even (no fallback single multiplier)
+    double mulNumberOdd = 4.61;
+    double mulNumberEven = 4.34;
+
+    public GameRound(){ this(new Random()); }
+    public GameRound(Random rng){ this.rng = rng; }
+
+    // full deck, no history; the bet, selection and multipliers are kept
+    void restart(){
+        checkDeckEditable();
+        deck.resetToFull();
+        deckEdits.clear();
+        drawHistory.clear();
+        lastDrawn = null;
+        windowHit = false;
+        roundDraws = 0;
+        if (events != null) events.deckEdit(deck.mask(), deck.mask());
+    }
+
+    private void checkDeckEditable(){
+        if (parlay != null) throw new IllegalStateException("The deck cannot change while a parlay is open; settle it first.");
+    }
+
+    // places `bet` on the next draws at the multiplier offered for the deck as it is now
+    void placeParlay(ParlayBet bet, int stake){
+        if (stake <= 0) throw new IllegalArgumentException("Stake must be a positive integer.");
+        double offered = bet.offeredMultiplier(deck.mask());
+        if (Double.isNaN(offered)) throw new IllegalArgumentException("'" + bet + "' cannot win on this deck.");
+        parlay = bet;
+        parlayStake = Money.minor(stake);
+        parlayMultiplier = Money.multiplier(offered);
+        parlayLegs = 0;
+        parlayHits = 0L;
+        parlayDrawn = 0L;
+    }
+
+    // set the bet; only the fields that matter for the type are changed, like the setup screen
+    void choose(int bet, ChosenType type, String rank, Suit suit, ColorType color){
+        if (bet <= 0) throw new IllegalArgumentException("Bet must be a positive integer.");
+        betAmount = bet;
+        chosenType = type;
+        jackpotEligible = false;
+        switch (type){
+            case INDIVIDUAL: chosenRank = rank; chosenSuit = suit; break;
+            case SUIT: chosenSuit = suit; break;
+            case COLOUR: chosenColor = color; break;
+            default: chosenRank = rank; break;
+        }
+        updateWindowHit();
+        publishBet();
+    }
+
+    // a bet wins when any of the last k draws is in its selection
+    int window(){ return drawHistory.window(); }
+
+    void setWindow(int k){
+        drawHistory.setWindow(k);
+        jackpotEligible = false;
+        updateWindowHit();
+    }
+
+    void setMultipliers(double individual, double suit, double colour, double numberOdd, double numberEven){
+        mulIndividual = individual;
+        mulSuit = suit;
+        mulColour = colour;
+        mulNumberOdd = numberOdd;
+        mulNumberEven = numberEven;
+        publishBet();
+    }
+
+    private void publishBet(){
+        if (events != null) events.betChanged(selectionMask(), Money.minor(betAmount), Money.multiplier(multiplier()), deck.mask());
+    }
+
+    // null when the deck is empty
+    Card draw(){
+        boolean fromFullDeck = roundDraws == 0 && deck.mask() == Card.FULL_MASK;
+        Card c;
+        if (fair != null){
+            int ordinal = fair.next(deck.mask());
+            c = ordinal < 0 ? null : deck.drawOrdinal(ordinal);
+        } else {
+            c = deck.drawRandom(rng);
+        }
+        if (c != null && roundDraws++ == 0) jackpotEligible = fromFullDeck;
+        lastDrawn = c;
+        if (c != null){
+            if (parlay != null && parlayLegs < parlay.legs()){
+                if (parlay.legHit(parlayLegs, c.ordinal())) parlayHits |= 1L << parlayLegs;
+                parlayLegs++;
+                parlayDrawn |= c.bit();
+            }
+            drawHistory.add(c.ordinal());
+            updateWindowHit(); // O(1): the selection is only recounted when it changed
+        }
+        if (events != null) events.draw(c == null ? -1 : c.ordinal(), deck.mask());
+        return c;
+    }
+
+    void shuffle(){
+        deck.shuffle(rng);
+        if (events != null) events.deckEdit(deck.mask(), deck.mask());
+    }
+
+    // run a deck edit and remember it for undo; refused while a parlay is open
+    void edit(Runnable edit){
+        checkDeckEditable();
+        long before = deck.mask();
+        edit.run();
+        jackpotEligible = false;
+        recordEdit(before);
+    }
+
+    private void recordEdit(long before){
+        deckEdits.record(before, deck.mask());
+        updateWindowHit();
+        if (events != null) events.deckEdit(before, deck.mask());
+    }
+
+    boolean undo(){
+        checkDeckEditable();
+        long before = deck.mask();
+        boolean done = deckEdits.undo(deck);
+        jackpotEligible = false;
+        updateWindowHit();
+        if (done && events != null) events.deckEdit(before, deck.mask());
+        return done;
+    }
+
+    boolean redo(){
+        checkDeckEditable();
+        long before = deck.mask();
+        boolean done = deckEdits.redo(deck);
+        jackpotEligible = false;
+        updateWindowHit();
+        if (done && events != null) events.deckEdit(before, deck.mask());
+        return done;
+    }
+
+    /* ---------------------- Rules ---------------------- */
+
+    long selectionMask(){
+        return Card.selectionMask(chosenType, chosenRank, chosenSuit, chosenColor);
+    }
+
+    // OR of the card bits of the last up-to-K draws; a bet wins when its mask intersects it
+    long windowMask(){
+        return drawHistory.windowMask();
+    }
+
+    boolean updateWindowHit(){
+        drawHistory.select(selectionMask());
+        windowHit = drawHistory.matched() > 0;
+        return windowHit;
+    }
+
+    // check whether a single card would be a winning hit for the current selection
+    boolean matchesChoice(Card c){
+        return c != null && (selectionMask() & c.bit()) != 0;
+    }
+
+    // the most recent hit among the last K draws, or null
+    Card mostRecentHit(){
+        drawHistory.select(selectionMask());
+        int o = drawHistory.mostRecentMatch();
+        return o < 0 ? null : Card.fromOrdinal(o);
+    }
+
+    // favorable outcomes for the current selection, straight from the deck counters
+    int favorableCount(){
+        switch (chosenType){
+            case INDIVIDUAL: return deck.countRankSuit(chosenRank, chosenSuit);
+            case SUIT: return deck.countSuit(chosenSuit);
+            case COLOUR: return deck.countColor(chosenColor);
+            default: return deck.countRank(chosenRank);
+        }
+    }
+
+    // Return the correct multiplier for the player's current choice
+    double multiplier(){
+        return multiplierFor(chosenType, chosenRank);
+    }
+
+    // multiplier for any bet of the given type (rank only matters for number bets)
+    double multiplierFor(ChosenType type, String rank){
+        switch (type){
+            case INDIVIDUAL: return mulIndividual;
+            case SUIT: return mulSuit;
+            case COLOUR: return mulColour;
+            case NUMBER: {
+                int v = Card.rankValue(rank);
+                // no fallback multiplier field: if rank invalid, treat as odd (safe default)
+                if (v <= 0) return mulNumberOdd;
+                return (v % 2 == 1) ? mulNumberOdd : mulNumberEven;
+            }
+            default: return mulNumberOdd;
+        }
+    }
+
+    // settle the player's bet against the last K draws, and the parlay if one was placed (an
+    // unfinished parlay loses). With a jackpot, the stake feeds it and an INDIVIDUAL bet hit on
+    // the final draw of an eligible round wins it (see jackpot). Returns the net result of all
+    // of it in minor units.
+    long settle(){
+        long window = windowMask();
+        tableBets.clear();
+        tableBets.addBet(0, selectionMask(), Money.multiplier(multiplier()), Money.minor(betAmount));
+        tableBets.settle(window);
+        if (fair != null) lastProof = fair.endRound();
+        if (events != null){
+            events.roundSettled(tableBets.mask(0), window, tableBets.stake(0), tableBets.multiplier(0), tableBets.net(0), deck.mask());
+        }
+        if (ledger != null){
+            try {
+                ledger.settled(ledgerTable, tableBets, window, deck.size());
+            } catch (java.io.IOException ex){
+                throw new java.io.UncheckedIOException("Could not log the settlement", ex);
+            }
+        }
+        return tableBets.net(0) + settleParlay() + settleJackpot();
+    }
+
+    private long settleJackpot(){
+        boolean eligible = jackpotEligible && roundDraws == window();
+        roundDraws = 0;
+        jackpotEligible = false;
+        lastJackpot = 0;
+        jackpotHit = false;
+        if (jackpot == null) return 0;
+        jackpot.contribute(Money.minor(betAmount));
+        jackpotHit = eligible && chosenType == ChosenType.INDIVIDUAL && matchesChoice(lastDrawn);
+        if (!jackpotHit || jackpot.isFeeder()) return 0;
+        lastJackpot = jackpot.claim();
+        if (ledger != null){
+            try {
+                ledger.settledJackpot(ledgerTable, 0, selectionMask(), lastDrawn.bit(), deck.size(), lastJackpot);
+            } catch (java.io.IOException ex){
+                throw new java.io.UncheckedIOException("Could not log the jackpot", ex);
+            }
+        }
+        return lastJackpot;
+    }
+
+    private long settleParlay(){
+        if (parlay == null) return 0;
+        boolean won = PayoutLedger.parlayWon(parlayHits, parlay.legs());
+        long net = Money.scale(parlayStake, won ? parlayMultiplier : -Money.MULT_SCALE);
+        if (ledger != null){
+            try {
+                ledger.settledParlay(ledgerTable, 0, parlay.legs(), parlayHits, parlayDrawn, deck.size(), parlayMultiplier, parlayStake, net);
+            } catch (java.io.IOException ex){
+                throw new java.io.UncheckedIOException("Could not log the settlement", ex);
+            }
+        }
+        parlay = null;
+        return net;
+    }
+
+    /* ---------------------- Compact state ---------------------- */
+    // Everything the rules need to carry on elsewhere, in 59 + K bytes: the deck as its
+    // bitmask (the draw picks a random index, so list order carries no information), the bet,
+    // the multipliers, the window size K and the last K draws. Older history, undo edits and
+    // the RNG stay behind. Version 1 states (K fixed at 3, no K byte) are still read.
+
+    private static final int STATE_VERSION = 2;
+
+    void writeState(DataOutput out) throws IOException {
+        out.writeByte(STATE_VERSION);
+        out.writeLong(deck.mask());
+        out.writeInt(betAmount);
+        out.writeByte(chosenType.ordinal());
+        out.writeByte(Math.max(0, Card.rankIndex(chosenRank)));
+        out.writeByte(chosenSuit.ordinal());
+        out.writeByte(chosenColor.ordinal());
+        out.writeDouble(mulIndividual);
+        out.writeDouble(mulSuit);
+        out.writeDouble(mulColour);
+        out.writeDouble(mulNumberOdd);
+        out.writeDouble(mulNumberEven);
+        out.writeByte(window());
+        int tail = drawHistory.inWindow();
+        out.writeByte(tail);
+        for (int i = 0; i < tail; i++) out.writeByte(drawHistory.inWindowOrdinal(i));
+    }
+
+    void readState(DataInput in) throws IOException {
+        checkDeckEditable();
+        int version = in.readUnsignedByte();
+        if (version != 1 && version != STATE_VERSION) throw new IOException("Unsupported round state version " + version);
+        long mask = in.readLong();
+        int bet = in.readInt();
+        int type = in.readUnsignedByte(), rank = in.readUnsignedByte(), suit = in.readUnsignedByte(), color = in.readUnsignedByte();
+        if ((mask & ~Card.FULL_MASK) != 0 || type >= ChosenType.values().length || rank >= Card.RANKS.length
+                || suit >= Suit.values().length || color >= ColorType.values().length)
+            throw new IOException("Corrupt round state");
+        double[] mul = new double[5];
+        for (int i = 0; i < mul.length; i++) mul[i] = in.readDouble();
+        int k = version == 1 ? DrawHistory.DEFAULT_WINDOW : in.readUnsignedByte();
+        int tail = in.readUnsignedByte();
+        if (k < 1 || tail > k) throw new IOException("Corrupt round state");
+        int[] last = new int[tail];
+        for (int i = 0; i < tail; i++){
+            last[i] = in.readUnsignedByte();
+            if (last[i] >= Card.RANKS.length * Suit.values().length) throw new IOException("Corrupt round state");
+        }
+
+        deck.clear();
+        deck.addMask(mask);
+        deckEdits.clear();
+        betAmount = bet;
+        chosenType = ChosenType.values()[type];
+        chosenRank = Card.RANKS[rank];
+        chosenSuit = Suit.values()[suit];
+        chosenColor = ColorType.values()[color];
+        mulIndividual = mul[0];
+        mulSuit = mul[1];
+        mulColour = mul[2];
+        mulNumberOdd = mul[3];
+        mulNumberEven = mul[4];
+        drawHistory.clear();
+        drawHistory.setWindow(k);
+        for (int o : last) drawHistory.add(o);
+        lastDrawn = tail > 0 ? Card.fromOrdinal(last[tail - 1]) : null;
+        roundDraws = 0;
+        jackpotEligible = false;
+        updateWindowHit();
+    }
+}
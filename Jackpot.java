@@ -0,0 +1,258 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A progressive jackpot shared by every table in the process: a fixed share of every stake
+ * goes into the pot. An INDIVIDUAL bet hit on the final draw of a round wins the whole pot
+ * (see GameRound.settle), and a new pot starts from the seed.
+ *
+ * Contributions take no lock and share no hot word. The pot is a set of striped cells, each
+ * on a cache line of its own. A thread adds to its own cell with one CAS and moves to another
+ * cell when the CAS fails, much like LongAdder. Amounts are kept in 1/UNITS of a minor unit,
+ * so a 1% share of a 3 cent stake is exact. The fractions left after an award stay in the
+ * next pot.
+ *
+ * Awards are linearizable. The winner is whoever swaps the current pot for a fresh one with a
+ * CAS, so each pot has exactly one winner, and two tables hitting at once win one pot each.
+ * The winner then seals the old pot's cells one at a time with getAndSet, collecting their
+ * amounts. A contribution that finds its cell sealed moves on to the new pot. So every
+ * contribution is paid out exactly once. One that races with an award may go either to that
+ * award or to the next pot.
+ *
+ * amount() is a moving estimate while contributions come in, like LongAdder.sum().
+ *
+ * Tables in other processes share a pot through feeders. A feeder() collects its process's
+ * contributions the same way but is never claimed there: a table that hits only reports it
+ * (GameRound.jackpotHit). Whoever holds the real pot, TableCoordinator for sharded tables,
+ * moves the feeders' takeUnits() into it with addUnits() before each claim.
+ */
+final class Jackpot {
+
+    static final long UNITS = 10_000;               // pot resolution: 1/UNITS of a minor unit
+    private static final long SEALED = Long.MIN_VALUE;
+    private static final int PAD = 8;               // longs per cell: one 64-byte line each
+
+    private static final class Pot {
+        final long number;
+        final AtomicLongArray cells;
+        Pot(long number, int stripes){
+            this.number = number;
+            this.cells = new AtomicLongArray(stripes * PAD);
+        }
+    }
+
+    private final long share;        // contribution per minor unit staked, in 1/UNITS
+    private final long seedUnits;
+    private final int stripes;       // a power of two
+    private final boolean feeder;
+    private final AtomicReference<Pot> current;
+    private final AtomicLong awarded = new AtomicLong();   // minor units paid out so far
+    private final ThreadLocal<int[]> probe = ThreadLocal.withInitial(
+            () -> new int[]{ (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32) | 1 });
+
+    /** share is the fraction of each stake that feeds the pot (0.01 = 1%), seed what a new pot starts at. */
+    Jackpot(double share, long seedMinor){
+        this(share, seedMinor, defaultStripes(), false);
+    }
+
+    Jackpot(double share, long seedMinor, int stripes){
+        this(share, seedMinor, stripes, false);
+    }
+
+    /** Collects share of each stake for a pot kept elsewhere; see takeUnits(). */
+    static Jackpot feeder(double share){
+        return new Jackpot(share, 0, defaultStripes(), true);
+    }
+
+    private static int defaultStripes(){
+        return Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) * 2;
+    }
+
+    private Jackpot(double share, long seedMinor, int stripes, boolean feeder){
+        if (share < 0 || share > 1) throw new IllegalArgumentException("The jackpot share must be between 0 and 1.");
+        if (Integer.bitCount(stripes) != 1) throw new IllegalArgumentException("Stripes must be a power of two.");
+        this.share = Math.round(share * UNITS);
+        this.seedUnits = seedMinor * UNITS;
+        this.stripes = stripes;
+        this.feeder = feeder;
+        Pot first = new Pot(1, stripes);
+        first.cells.set(0, seedUnits);
+        this.current = new AtomicReference<>(first);
+    }
+
+    // feeds the pot its share of a stake
+    void contribute(long stakeMinor){
+        add(stakeMinor * share);
+    }
+
+    private void add(long units){
+        if (units == 0) return;
+        int[] p = probe.get();
+        Pot pot = current.get();
+        while (true){
+            int i = (p[0] & (stripes - 1)) * PAD;
+            long v = pot.cells.get(i);
+            if (v == SEALED){
+                pot = current.get(); // awarded meanwhile: this goes to the next pot
+                continue;
+            }
+            if (pot.cells.compareAndSet(i, v, v + units)) return;
+            // contended: move this thread to another cell (xorshift)
+            int x = p[0];
+            x ^= x << 13; x ^= x >>> 17; x ^= x << 5;
+            p[0] = x;
+        }
+    }
+
+    /**
+     * Awards the current pot to the caller and starts the next one from the seed. Exactly one
+     * caller gets each pot; returns what it held in minor units.
+     */
+    long claim(){
+        if (feeder) throw new IllegalStateException("A feeder's pot is claimed where it is collected.");
+        while (true){
+            Pot pot = current.get();
+            Pot next = new Pot(pot.number + 1, stripes);
+            next.cells.set(0, seedUnits);
+            if (!current.compareAndSet(pot, next)) continue; // another table won this one
+            long units = 0;
+            for (int i = 0; i < stripes; i++) units += pot.cells.getAndSet(i * PAD, SEALED);
+            long paid = units / UNITS;
+            add(units - paid * UNITS); // fractions of a minor unit stay in the game
+            awarded.addAndGet(paid);
+            return paid;
+        }
+    }
+
+    boolean isFeeder(){ return feeder; }
+
+    // contributions collected elsewhere, in 1/UNITS of a minor unit
+    void addUnits(long units){
+        if (units < 0) throw new IllegalArgumentException("units < 0");
+        add(units);
+    }
+
+    // empties a feeder: everything contributed since the last take, in 1/UNITS, fractions included
+    long takeUnits(){
+        if (!feeder) throw new IllegalStateException("Only a feeder is emptied this way.");
+        while (true){
+            Pot pot = current.get();
+            if (!current.compareAndSet(pot, new Pot(pot.number, stripes))) continue;
+            long units = 0;
+            for (int i = 0; i < stripes; i++) units += pot.cells.getAndSet(i * PAD, SEALED);
+            return units;
+        }
+    }
+
+    // the current pot in minor units; approximate while contributions come in
+    long amount(){
+        Pot pot = current.get();
+        long units = 0;
+        for (int i = 0; i < stripes; i++){
+            long v = pot.cells.get(i * PAD);
+            if (v != SEALED) units += v;
+        }
+        return units / UNITS;
+    }
+
+    // 1 for the first pot, counting up with every award
+    long potNumber(){ return current.get().number; }
+    long awarded(){ return awarded.get(); }
+
+    /**
+     * Plays rounds on 1 to 10,000 tables spread over worker threads, without a jackpot, with
+     * this one, and with a single shared counter (one stripe), and prints rounds per second for
+     * each. It then checks the money: everything contributed plus the seeds must equal what
+     * was awarded plus what is left in the pot.
+     *     java -cp . Jackpot [seconds per case=3] [threads=cores]
+     */
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d worker thread(s), %.0f s per case%n", threads, seconds);
+        System.out.println("    tables    no jackpot rounds/s    striped rounds/s    1 stripe rounds/s");
+        for (int tables : new int[]{ 1, 100, 10_000 }){
+            double none = run(tables, threads, seconds, null);
+            Jackpot striped = new Jackpot(0.01, 1000_00);
+            double s = run(tables, threads, seconds, striped);
+            double single = run(tables, threads, seconds, new Jackpot(0.01, 1000_00, 1));
+            System.out.printf("%10d %,22.0f %,19.0f %,20.0f%n", tables, none, s, single);
+        }
+
+        // exact accounting under contention: many threads contribute while others claim
+        Jackpot j = new Jackpot(0.013, 500_00);
+        int workers = Math.max(4, threads);
+        long perWorker = 200_000;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int w = 0; w < workers; w++){
+            final int id = w;
+            results.add(pool.submit(() -> {
+                Random rng = new Random(id);
+                long staked = 0, won = 0, wins = 0;
+                for (long i = 0; i < perWorker; i++){
+                    long stake = 1 + rng.nextInt(10_000);
+                    j.contribute(stake);
+                    staked += stake;
+                    if (rng.nextInt(5_000) == 0){ won += j.claim(); wins++; }
+                }
+                return new long[]{ staked, won, wins };
+            }));
+        }
+        long staked = 0, won = 0, wins = 0;
+        for (Future<long[]> f : results){ long[] r = f.get(); staked += r[0]; won += r[1]; wins += r[2]; }
+        pool.shutdown();
+        long pots = j.potNumber();                        // seeds put in: one per pot
+        long in = staked * j.share + pots * j.seedUnits;  // in 1/UNITS
+        long out = won * UNITS + exactUnits(j);
+        System.out.printf("accounting: %d awards over %d pots, contributed+seeds %d, awarded+pot %d units: %s%n",
+                wins, pots, in, out, in == out ? "exact" : "MISMATCH");
+        if (in != out || wins != pots - 1) System.exit(1);
+    }
+
+    private static long exactUnits(Jackpot j){
+        Pot pot = j.current.get();
+        long units = 0;
+        for (int i = 0; i < j.stripes; i++) units += pot.cells.get(i * PAD);
+        return units;
+    }
+
+    // rounds per second over all tables; each thread plays its own tables in turn
+    private static double run(int tables, int threads, double seconds, Jackpot jackpot) throws Exception {
+        List<List<GameRound>> byThread = new ArrayList<>();
+        for (int t = 0; t < threads; t++) byThread.add(new ArrayList<>());
+        for (int i = 0; i < tables; i++){
+            GameRound r = new GameRound(new Random(i));
+            ChosenType type = ChosenType.values()[i % ChosenType.values().length];
+            r.choose(1 + i % 100, type, Card.RANKS[i % 13], Suit.values()[i % 4], ColorType.values()[i % 2]);
+            r.jackpot = jackpot;
+            byThread.get(i % threads).add(r);
+        }
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> done = new ArrayList<>();
+        for (List<GameRound> mine : byThread){
+            done.add(pool.submit(() -> {
+                long rounds = 0;
+                while (mine.size() > 0 && System.nanoTime() < end){
+                    for (int k = 0; k < mine.size(); k++){
+                        GameRound r = mine.get(k);
+                        if (r.deck.size() < r.window()) r.restart();
+                        r.drawHistory.clear();
+                        for (int d = 0; d < r.window(); d++) r.draw();
+                        r.settle();
+                        rounds++;
+                    }
+                }
+                return rounds;
+            }));
+        }
+        long rounds = 0;
+        for (Future<Long> f : done) rounds += f.get();
+        pool.shutdown();
+        return rounds / seconds;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * A fixed-size, log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values (nanoseconds) are bucketed by their power of two and, within it, by the next
+ * SUB_BITS bits, so every recorded value is kept to within 1/128 (under 1%) of its true size
+ * from 0 up to Long.MAX_VALUE, in about 60 KB. Recording is one array increment with no
+ * allocation. Not thread-safe: give each recording thread its own and add() them together.
+ *
+ * The histogram itself does not correct for coordinated omission; callers do that by
+ * measuring from when a request was due rather than when it was sent (see LoadGenerator).
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB];
+    private long total = 0;
+    private long max = 0;
+
+    public void record(long value){
+        if (value < 0) value = 0;
+        counts[index(value)]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    public void add(LatencyHistogram other){
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset(){
+        java.util.Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    public long count(){ return total; }
+    public long max(){ return max; }
+
+    // highest value equivalent to the one at the given percentile (0..100); 0 when empty
+    public long percentile(double p){
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++){
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestEquivalent(i));
+        }
+        return max;
+    }
+
+    private static int index(long v){
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    private static long highestEquivalent(int index){
+        if (index < SUB) return index;
+        int shift = index / SUB - 1;
+        long low = (long) (SUB + index % SUB) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,345 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Offline analytics over recorded play: reads PayoutLedger files (every settled bet, with its
+ * selection, the draws it was settled against, the deck size and the time) and summarises them:
+ *  - RTP and hit rate per bet type,
+ *  - hit rate by cards left in the deck,
+ *  - house edge per (bet type, multiplier) configuration,
+ *  - how long players play before they stop: rounds and minutes per session, where a session
+ *    ends after SESSION_GAP_SECONDS without a settlement from that player.
+ *
+ * The file is split into ranges of whole STAKE/PAYOUT pairs and processed by a fork/join pool.
+ * Each leaf maps its range (at most LEAF_BYTES) read-only and folds it into a small Summary of
+ * counters; summaries are merged in file order, which is all the session splitting needs. No
+ * record is kept on the heap, so a billion rounds (about 112 GB of log) only costs the time to
+ * stream it.
+ *
+ *     java -cp . LedgerAnalytics <ledger file> [--threads n]
+ *     java -cp . LedgerAnalytics --generate <ledger file> <rounds> [players]
+ *
+ * The second form writes a synthetic history to try the first on.
+ */
+public class LedgerAnalytics {
+
+    static final int PAIR = 2 * PayoutLedger.RECORD;
+    static final long LEAF_BYTES = 64L * 1024 * 1024 / PAIR * PAIR;
+    static final int SESSION_GAP_SECONDS = 30 * 60;
+
+    // bet types by selection mask; OTHER is anything that is not one of the four ChosenTypes,
+    // PARLAY any parlay (told apart by its record type)
+    static final int TYPES = ChosenType.values().length + 2;
+    static final int PARLAY = TYPES - 2;
+    static final int OTHER = TYPES - 1;
+
+    static int typeOf(long selection){
+        int low = Long.numberOfTrailingZeros(selection); // bit = suit * 13 + rank
+        switch (Long.bitCount(selection)){
+            case 1: return ChosenType.INDIVIDUAL.ordinal();
+            case 4: return selection == Card.rankMask(Card.RANKS[low % 13]) ? ChosenType.NUMBER.ordinal() : OTHER;
+            case 13: return selection == Card.suitMask(Suit.values()[low / 13]) ? ChosenType.SUIT.ordinal() : OTHER;
+            case 26: return selection == Card.colorMask(ColorType.RED) || selection == Card.colorMask(ColorType.BLACK) ? ChosenType.COLOUR.ordinal() : OTHER;
+            default: return OTHER;
+        }
+    }
+
+    static String typeName(int type){
+        return type == OTHER ? "OTHER" : type == PARLAY ? "PARLAY" : ChosenType.values()[type].name();
+    }
+
+    /* ---------------------- Summary tables ---------------------- */
+
+    // one player's sessions as seen from a contiguous range of the log: the first (head) and
+    // the still-open last (tail) sessions may continue into the neighbouring ranges
+    static final class Span {
+        int headStart, headEnd, headRounds;
+        int tailStart, tailEnd, tailRounds;
+        boolean split; // false: head is also the open session
+
+        Span(int t){ headStart = headEnd = t; headRounds = 1; }
+    }
+
+    static final class Summary {
+        long pairs;
+        long badPairs; // STAKE/PAYOUT out of step: counted and skipped
+        long jackpots, jackpotPaid; // awards are not rounds: they stake nothing and start no session
+        final long[] typeRounds = new long[TYPES], typeHits = new long[TYPES];
+        final long[] typeStaked = new long[TYPES], typeNet = new long[TYPES];
+        final long[] sizeRounds = new long[53], sizeHits = new long[53];
+        final Map<Long,long[]> configs = new HashMap<>(); // type << 32 | multiplier -> {rounds, staked, net}
+        final Map<Integer,Span> players = new HashMap<>();
+        final long[] sessionRounds = new long[33];  // log2 buckets: 1, 2-3, 4-7, ...
+        final long[] sessionMinutes = new long[33]; // log2 buckets of whole minutes, 0 first
+        long sessions;
+
+        void round(int player, int type, int deckSize, long mult, long stake, long net, boolean hit, int seconds){
+            pairs++;
+            typeRounds[type]++;
+            typeStaked[type] += stake;
+            typeNet[type] += net;
+            if (hit) typeHits[type]++;
+            if (deckSize <= 52){
+                sizeRounds[deckSize]++;
+                if (hit) sizeHits[deckSize]++;
+            }
+            long[] c = configs.computeIfAbsent(((long) type << 32) | (mult & 0xFFFFFFFFL), k -> new long[3]);
+            c[0]++; c[1] += stake; c[2] += net;
+
+            Span s = players.get(player);
+            if (s == null){
+                players.put(player, new Span(seconds));
+            } else if (!s.split){
+                if (seconds - s.headEnd > SESSION_GAP_SECONDS){ s.split = true; s.tailStart = s.tailEnd = seconds; s.tailRounds = 1; }
+                else { s.headEnd = seconds; s.headRounds++; }
+            } else {
+                if (seconds - s.tailEnd > SESSION_GAP_SECONDS){ session(s.tailStart, s.tailEnd, s.tailRounds); s.tailStart = s.tailEnd = seconds; s.tailRounds = 1; }
+                else { s.tailEnd = seconds; s.tailRounds++; }
+            }
+        }
+
+        void session(int start, int end, int rounds){
+            sessions++;
+            sessionRounds[log2Bucket(rounds)]++;
+            sessionMinutes[log2Bucket((end - start) / 60 + 1)]++;
+        }
+
+        // folds `later`, the range right after this one, into this summary
+        Summary merge(Summary later){
+            pairs += later.pairs;
+            badPairs += later.badPairs;
+            jackpots += later.jackpots;
+            jackpotPaid += later.jackpotPaid;
+            sessions += later.sessions;
+            for (int t = 0; t < TYPES; t++){
+                typeRounds[t] += later.typeRounds[t]; typeHits[t] += later.typeHits[t];
+                typeStaked[t] += later.typeStaked[t]; typeNet[t] += later.typeNet[t];
+            }
+            for (int i = 0; i < sizeRounds.length; i++){ sizeRounds[i] += later.sizeRounds[i]; sizeHits[i] += later.sizeHits[i]; }
+            for (int i = 0; i < sessionRounds.length; i++){ sessionRounds[i] += later.sessionRounds[i]; sessionMinutes[i] += later.sessionMinutes[i]; }
+            later.configs.forEach((k, v) -> {
+                long[] c = configs.computeIfAbsent(k, x -> new long[3]);
+                c[0] += v[0]; c[1] += v[1]; c[2] += v[2];
+            });
+            later.players.forEach((p, r) -> {
+                Span l = players.get(p);
+                if (l == null){ players.put(p, r); return; }
+                // l's open session meets r's head across the range boundary
+                int openEnd = l.split ? l.tailEnd : l.headEnd;
+                boolean joined = r.headStart - openEnd <= SESSION_GAP_SECONDS;
+                if (joined){
+                    if (l.split){ l.tailEnd = r.headEnd; l.tailRounds += r.headRounds; }
+                    else { l.headEnd = r.headEnd; l.headRounds += r.headRounds; }
+                } else {
+                    if (l.split) session(l.tailStart, l.tailEnd, l.tailRounds);
+                    l.split = true;
+                    l.tailStart = r.headStart; l.tailEnd = r.headEnd; l.tailRounds = r.headRounds;
+                }
+                if (r.split){
+                    // r's head is closed by r's tail: whatever l's open session became is complete
+                    if (l.split) session(l.tailStart, l.tailEnd, l.tailRounds);
+                    l.split = true;
+                    l.tailStart = r.tailStart; l.tailEnd = r.tailEnd; l.tailRounds = r.tailRounds;
+                }
+            });
+            return this;
+        }
+
+        // at the end of the whole log every span's head and tail are complete sessions
+        void finish(){
+            for (Span s : players.values()){
+                session(s.headStart, s.headEnd, s.headRounds);
+                if (s.split) session(s.tailStart, s.tailEnd, s.tailRounds);
+            }
+            players.clear();
+        }
+    }
+
+    static int log2Bucket(long v){
+        return v <= 1 ? 0 : Math.min(32, 64 - Long.numberOfLeadingZeros(v - 1));
+    }
+
+    /* ---------------------- Fork/join scan ---------------------- */
+
+    static final class Scan extends RecursiveTask<Summary> {
+        private final FileChannel channel;
+        private final long from, to; // byte offsets, multiples of PAIR
+
+        Scan(FileChannel channel, long from, long to){ this.channel = channel; this.from = from; this.to = to; }
+
+        @Override protected Summary compute(){
+            if (to - from > LEAF_BYTES){
+                long mid = from + (to - from) / 2 / PAIR * PAIR;
+                Scan left = new Scan(channel, from, mid);
+                Scan right = new Scan(channel, mid, to);
+                right.fork();
+                Summary l = left.compute();
+                return l.merge(right.join());
+            }
+            try {
+                return leaf();
+            } catch (IOException ex){
+                throw new java.io.UncheckedIOException(ex);
+            }
+        }
+
+        private Summary leaf() throws IOException {
+            Summary s = new Summary();
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            map.order(ByteOrder.BIG_ENDIAN);
+            int n = (int) ((to - from) / PAIR);
+            for (int i = 0, at = 0; i < n; i++, at += PAIR){
+                int payout = at + PayoutLedger.RECORD;
+                byte type = map.get(payout + PayoutLedger.OFF_TYPE);
+                if (map.get(at + PayoutLedger.OFF_TYPE) != PayoutLedger.STAKE
+                        || (type != PayoutLedger.PAYOUT && type != PayoutLedger.PARLAY && type != PayoutLedger.JACKPOT)){
+                    s.badPairs++;
+                    continue;
+                }
+                if (type == PayoutLedger.JACKPOT){
+                    s.pairs++;
+                    s.jackpots++;
+                    s.jackpotPaid += map.getLong(payout + PayoutLedger.OFF_AMOUNT);
+                    continue;
+                }
+                long sel = map.getLong(payout + PayoutLedger.OFF_SELECTION);
+                long window = map.getLong(payout + PayoutLedger.OFF_WINDOW);
+                boolean parlay = type == PayoutLedger.PARLAY;
+                s.round(map.getInt(payout + PayoutLedger.OFF_PLAYER), parlay ? PARLAY : typeOf(sel),
+                        map.get(payout + PayoutLedger.OFF_DECK) & 0xFF,
+                        map.getInt(payout + PayoutLedger.OFF_MULT),
+                        map.getLong(at + PayoutLedger.OFF_AMOUNT),
+                        map.getLong(payout + PayoutLedger.OFF_AMOUNT),
+                        parlay ? PayoutLedger.parlayWon(sel, map.getShort(payout + PayoutLedger.OFF_LEGS)) : (sel & window) != 0,
+                        map.getInt(payout + PayoutLedger.OFF_SECONDS));
+            }
+            return s;
+        }
+    }
+
+    static Summary analyse(Path file, int threads) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)){
+            long end = ch.size() / PAIR * PAIR; // a torn tail is left out
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Summary s = pool.invoke(new Scan(ch, 0, end));
+                s.finish();
+                return s;
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /* ---------------------- Report ---------------------- */
+
+    static void print(Summary s){
+        System.out.println("Bet type       rounds        staked         RTP   hit rate");
+        for (int t = 0; t < TYPES; t++){
+            if (s.typeRounds[t] == 0) continue;
+            System.out.printf("%-11s %,12d %15s %9.3f%% %9.3f%%%n", typeName(t), s.typeRounds[t], Money.format(s.typeStaked[t]),
+                    100.0 * (s.typeStaked[t] + s.typeNet[t]) / s.typeStaked[t], 100.0 * s.typeHits[t] / s.typeRounds[t]);
+        }
+        if (s.jackpots > 0) System.out.printf("Jackpots: %,d awarded, %s paid (not in the RTP above)%n", s.jackpots, Money.format(s.jackpotPaid));
+
+        System.out.println();
+        System.out.println("Cards left     rounds   hit rate");
+        for (int d = 0; d < s.sizeRounds.length; d++){
+            if (s.sizeRounds[d] > 0) System.out.printf("%10d %,12d %9.3f%%%n", d, s.sizeRounds[d], 100.0 * s.sizeHits[d] / s.sizeRounds[d]);
+        }
+
+        System.out.println();
+        System.out.println("Bet type    multiplier       rounds   house edge");
+        Map<Long,long[]> sorted = new TreeMap<>(s.configs);
+        sorted.forEach((k, c) -> System.out.printf("%-11s %10.4f %,12d %11.3f%%%n", typeName((int) (k >>> 32)),
+                (int) (long) k / (double) Money.MULT_SCALE, c[0], c[1] == 0 ? 0 : -100.0 * c[2] / c[1]));
+
+        System.out.println();
+        System.out.printf("Sessions: %,d (a gap of %d minutes ends one)%n", s.sessions, SESSION_GAP_SECONDS / 60);
+        System.out.println("      rounds     sessions   |      minutes     sessions");
+        for (int b = 0; b <= 32; b++){
+            if (s.sessionRounds[b] == 0 && s.sessionMinutes[b] == 0) continue;
+            System.out.printf("%12s %,12d   | %12s %,12d%n", roundsLabel(b), s.sessionRounds[b], minutesLabel(b), s.sessionMinutes[b]);
+        }
+        if (s.badPairs > 0) System.out.printf("%,d record pairs were out of step and skipped%n", s.badPairs);
+    }
+
+    // bucket b holds 2^(b-1)+1 .. 2^b (bucket 0 holds 1)
+    private static String roundsLabel(int b){
+        long lo = b == 0 ? 1 : (1L << (b - 1)) + 1, hi = 1L << b;
+        return lo == hi ? String.valueOf(lo) : lo + "-" + hi;
+    }
+
+    // minutes are bucketed as minutes + 1, so bucket b holds 2^(b-1) .. 2^b - 1 (bucket 0 holds 0)
+    private static String minutesLabel(int b){
+        if (b == 0) return "0";
+        long lo = 1L << (b - 1), hi = (1L << b) - 1;
+        return lo == hi ? String.valueOf(lo) : lo + "-" + hi;
+    }
+
+    /* ---------------------- Main ---------------------- */
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("--generate")){
+            generate(Paths.get(args[1]), Long.parseLong(args[2]), args.length > 3 ? Integer.parseInt(args[3]) : 1000);
+            return;
+        }
+        if (args.length < 1){
+            System.err.println("usage: java LedgerAnalytics <ledger file> [--threads n]");
+            System.err.println("       java LedgerAnalytics --generate <ledger file> <rounds> [players]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) if (args[i].equals("--threads")) threads = Integer.parseInt(args[++i]);
+
+        Path file = Paths.get(args[0]);
+        long t0 = System.nanoTime();
+        Summary s = analyse(file, threads);
+        double secs = (System.nanoTime() - t0) / 1e9;
+        print(s);
+        System.out.printf("%n%,d rounds in %.2f s on %d threads: %,.0f rounds/s, %.0f MB/s%n",
+                s.pairs, secs, threads, s.pairs / secs, s.pairs * (double) PAIR / secs / 1e6);
+    }
+
+    // players play sessions of geometric length with half-minute rounds and hours in between
+    private static void generate(Path file, long rounds, int players) throws IOException {
+        Random rng = new Random(7);
+        GameRound[] tables = new GameRound[players];
+        int[] clock = new int[players];
+        int start = (int) (System.currentTimeMillis() / 1000) - 90 * 24 * 3600;
+        for (int p = 0; p < players; p++){
+            tables[p] = new GameRound(new Random(rng.nextLong()));
+            clock[p] = start + rng.nextInt(24 * 3600);
+        }
+        ChosenType[] types = ChosenType.values();
+        try (PayoutLedger ledger = new PayoutLedger(file, 8192, false)){
+            for (long i = 0; i < rounds; i++){
+                int p = rng.nextInt(players);
+                GameRound round = tables[p];
+                if (round.deck.size() < Math.max(10, round.window())) round.restart();
+                if (round.betAmount == 0 || rng.nextInt(20) == 0){
+                    round.choose(1 + rng.nextInt(50), types[rng.nextInt(types.length)], Card.RANKS[rng.nextInt(13)],
+                            Suit.values()[rng.nextInt(4)], rng.nextBoolean() ? ColorType.RED : ColorType.BLACK);
+                }
+                for (int d = 0; d < round.window(); d++) round.draw();
+                round.settle();
+                clock[p] += 20 + rng.nextInt(20);
+                if (rng.nextInt(40) == 0) clock[p] += 3600 + rng.nextInt(12 * 3600); // stops for a while
+                BetSettler b = round.tableBets;
+                ledger.settledAt(clock[p], p % 100, p, b.mask(0), round.windowMask(), round.deck.size(), b.multiplier(0), b.stake(0), b.net(0));
+            }
+        }
+        System.out.printf("wrote %,d rounds for %d players to %s%n", rounds, players, file);
+    }
+}
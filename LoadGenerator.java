@@ -0,0 +1,221 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic player load against an in-process table host, to find how many concurrent
+ * players it takes before draw latency degrades.
+ *
+ *     java -cp . LoadGenerator [-p 10,100,1000,10000] [-s seconds] [-think ms] [-bet min-max]
+ *                              [-mix individual:1,suit:2,colour:4,number:2] [-hosts n]
+ *
+ * For each population size (-p) the tool runs for -s seconds. Every player owns a GameRound and
+ * plays rounds of three draws and a settlement, picking a bet type from -mix, a stake from -bet
+ * and an exponentially distributed think time with mean -think before each action. The host
+ * is -hosts worker threads; a player always lands on the same worker, as a table would.
+ *
+ * Actions are scheduled open-loop: the next one is due a think time after the previous one
+ * was due, not after it completed. Latency is measured from the due time, so when the host
+ * falls behind the queueing delay is counted instead of silently thinning the load
+ * (coordinated omission). The service column is the uncorrected time spent on the host.
+ *
+ * The report is a throughput-vs-latency curve: one row per population with achieved actions
+ * per second and the draw and settlement percentiles.
+ */
+public class LoadGenerator {
+
+    private static final class Player {
+        final GameRound round;
+        final Random rng;      // bet choices, used on the host thread
+        final Random thinkRng; // think times, used on the scheduling thread
+        final int host;
+        long due;        // nanoTime the next action is due
+        int drawsInRound = 0;
+
+        Player(long seed, int host){
+            this.rng = new Random(seed);
+            this.thinkRng = new Random(~seed);
+            this.round = new GameRound(new Random(seed * 31 + 7));
+            this.host = host;
+        }
+    }
+
+    // per host thread, so recording never contends
+    private static final class HostStats {
+        final LatencyHistogram draw = new LatencyHistogram();
+        final LatencyHistogram settle = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+    }
+
+    private final ChosenType[] mixTypes;
+    private final double[] mixCumulative;
+    private final int betMin, betMax;
+    private final double thinkMeanNs;
+
+    LoadGenerator(Map<ChosenType,Double> mix, int betMin, int betMax, double thinkMs){
+        mixTypes = mix.keySet().toArray(new ChosenType[0]);
+        mixCumulative = new double[mixTypes.length];
+        double sum = 0;
+        for (int i = 0; i < mixTypes.length; i++){ sum += mix.get(mixTypes[i]); mixCumulative[i] = sum; }
+        for (int i = 0; i < mixTypes.length; i++) mixCumulative[i] /= sum;
+        this.betMin = betMin;
+        this.betMax = betMax;
+        this.thinkMeanNs = thinkMs * 1e6;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] populations = {10, 100, 1000, 10000};
+        double seconds = 5;
+        double thinkMs = 100;
+        int betMin = 1, betMax = 100;
+        int hosts = 1;
+        Map<ChosenType,Double> mix = new EnumMap<>(ChosenType.class);
+        mix.put(ChosenType.INDIVIDUAL, 1.0);
+        mix.put(ChosenType.SUIT, 2.0);
+        mix.put(ChosenType.COLOUR, 4.0);
+        mix.put(ChosenType.NUMBER, 2.0);
+        try {
+            for (int i = 0; i < args.length; i++){
+                switch (args[i]){
+                    case "-p": populations = Arrays.stream(args[++i].split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray(); break;
+                    case "-s": seconds = Double.parseDouble(args[++i]); break;
+                    case "-think": thinkMs = Double.parseDouble(args[++i]); break;
+                    case "-hosts": hosts = Integer.parseInt(args[++i]); break;
+                    case "-bet": {
+                        String[] b = args[++i].split("-");
+                        betMin = Integer.parseInt(b[0].trim());
+                        betMax = Integer.parseInt(b[b.length - 1].trim());
+                        break;
+                    }
+                    case "-mix": {
+                        mix.clear();
+                        for (String part : args[++i].split(",")){
+                            String[] kv = part.split(":");
+                            mix.put(ChosenType.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), kv.length > 1 ? Double.parseDouble(kv[1]) : 1.0);
+                        }
+                        break;
+                    }
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (Arrays.stream(populations).anyMatch(n -> n <= 0) || mix.isEmpty() || hosts <= 0 || seconds <= 0 || thinkMs <= 0 || betMin <= 0 || betMax < betMin)
+                throw new IllegalArgumentException("bad option value");
+        } catch (RuntimeException ex){
+            System.err.println(ex.getMessage());
+            System.err.println("usage: java LoadGenerator [-p 10,100,1000] [-s seconds] [-think ms] [-bet min-max] [-mix suit:2,colour:1] [-hosts n]");
+            System.exit(2);
+        }
+
+        LoadGenerator gen = new LoadGenerator(mix, betMin, betMax, thinkMs);
+        System.out.printf("think %.0f ms, bets %d-%d, %d host thread(s), %.0f s per step; latencies in microseconds%n",
+                thinkMs, betMin, betMax, hosts, seconds);
+        System.out.printf("%8s %10s %10s | %8s %8s %8s %8s %9s | %8s %8s | %8s%n",
+                "players", "offered/s", "actions/s", "draw p50", "p90", "p99", "p99.9", "max",
+                "settle50", "p99", "svc p99");
+        for (int players : populations) gen.step(players, hosts, (long) (seconds * 1e9));
+    }
+
+    private void step(int players, int hosts, long durationNs) throws InterruptedException {
+        ExecutorService[] workers = new ExecutorService[hosts];
+        HostStats[] stats = new HostStats[hosts];
+        for (int h = 0; h < hosts; h++){
+            final int id = h;
+            workers[h] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "TableHost-" + id);
+                t.setDaemon(true);
+                return t;
+            });
+            stats[h] = new HostStats();
+        }
+
+        Player[] population = new Player[players];
+        for (int i = 0; i < players; i++){
+            population[i] = new Player(i, i % hosts);
+            newRound(population[i]);
+        }
+        // players spread their first action over one think time so they don't arrive in a burst
+        long start = System.nanoTime();
+        PriorityQueue<Player> schedule = new PriorityQueue<>(Comparator.comparingLong((Player p) -> p.due));
+        for (Player p : population){
+            p.due = start + (long) (p.thinkRng.nextDouble() * thinkMeanNs);
+            schedule.add(p);
+        }
+
+        long end = start + durationNs;
+        long offered = 0;
+        while (true){
+            Player p = schedule.poll();
+            if (p.due >= end) break;
+            long wait = p.due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            final long due = p.due;
+            final HostStats st = stats[p.host];
+            workers[p.host].execute(() -> act(p, due, st));
+            offered++;
+            // open loop: the next action is due one think time after this one was due
+            p.due = due + think(p.thinkRng);
+            schedule.add(p);
+        }
+        for (ExecutorService w : workers){
+            w.shutdown();
+            w.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        HostStats all = new HostStats();
+        for (HostStats s : stats){ all.draw.add(s.draw); all.settle.add(s.settle); all.service.add(s.service); }
+        long actions = all.draw.count() + all.settle.count();
+        System.out.printf("%8d %10.0f %10.0f | %8d %8d %8d %8d %9d | %8d %8d | %8d%n",
+                players, offered / (durationNs / 1e9), actions / (elapsed / 1e9),
+                us(all.draw.percentile(50)), us(all.draw.percentile(90)), us(all.draw.percentile(99)),
+                us(all.draw.percentile(99.9)), us(all.draw.max()),
+                us(all.settle.percentile(50)), us(all.settle.percentile(99)), us(all.service.percentile(99)));
+    }
+
+    // runs on the player's host thread; a round is K draws (the win window) and then a settlement
+    private void act(Player p, long due, HostStats st){
+        long t0 = System.nanoTime();
+        GameRound round = p.round;
+        if (p.drawsInRound < round.window()){
+            round.draw();
+            p.drawsInRound++;
+            long done = System.nanoTime();
+            st.draw.record(done - due);
+            st.service.record(done - t0);
+        } else {
+            round.settle();
+            newRound(p);
+            long done = System.nanoTime();
+            st.settle.record(done - due);
+            st.service.record(done - t0);
+        }
+    }
+
+    private void newRound(Player p){
+        GameRound round = p.round;
+        if (round.deck.size() < round.window()){
+            round.deck.resetToFull();
+        }
+        round.drawHistory.clear();
+        p.drawsInRound = 0;
+        ChosenType type = pickType(p.rng);
+        int bet = betMin + p.rng.nextInt(betMax - betMin + 1);
+        Suit suit = Suit.values()[p.rng.nextInt(4)];
+        String rank = Card.RANKS[p.rng.nextInt(Card.RANKS.length)];
+        ColorType color = p.rng.nextBoolean() ? ColorType.RED : ColorType.BLACK;
+        round.choose(bet, type, rank, suit, color);
+    }
+
+    private ChosenType pickType(Random rng){
+        double u = rng.nextDouble();
+        for (int i = 0; i < mixTypes.length; i++) if (u < mixCumulative[i]) return mixTypes[i];
+        return mixTypes[mixTypes.length - 1];
+    }
+
+    // exponential think time, so arrivals from a population are Poisson
+    private long think(Random rng){
+        return (long) (-Math.log(1 - rng.nextDouble()) * thinkMeanNs);
+    }
+
+    private static long us(long ns){ return ns / 1000; }
+}
@@ -0,0 +1,31 @@
+// Fixed-point money: amounts are longs in minor units (cents) and multipliers are longs in
+// units of 1/MULT_SCALE, so payouts never go through floating point once a bet is placed.
+final class Money {
+    static final long MINOR_PER_UNIT = 100;    // cents per dollar
+    static final long MULT_SCALE = 10_000;     // multiplier 17.4 is stored as 174000
+
+    private Money(){}
+
+    static long minor(long dollars){ return Math.multiplyExact(dollars, MINOR_PER_UNIT); }
+
+    // the configured (double) multiplier, rounded once to the fixed-point grid
+    static long multiplier(double m){ return Math.round(m * MULT_SCALE); }
+
+    // amount x multiplier, rounded half up to a whole minor unit
+    static long scale(long amountMinor, long multiplierFixed){
+        return Math.floorDiv(Math.multiplyExact(amountMinor, multiplierFixed) + MULT_SCALE / 2, MULT_SCALE);
+    }
+
+    // "$12.05" or "-$3.40"
+    static String format(long minor){
+        long abs = Math.abs(minor);
+        return String.format("%s$%d.%02d", minor < 0 ? "-" : "", abs / MINOR_PER_UNIT, abs % MINOR_PER_UNIT);
+    }
+
+    // parses "12", "12.5" or "-3.40" (a leading $ is allowed) into minor units, exactly
+    static long parse(String s){
+        String t = s.trim().replace("$", "");
+        java.math.BigDecimal d = new java.math.BigDecimal(t).movePointRight(2);
+        return d.setScale(0, java.math.RoundingMode.UNNECESSARY).longValueExact();
+    }
+}
@@ -0,0 +1,186 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless paint benchmark and allocation guard for the card UI.
+ *
+ * Renders CardComponent (card back, number card, face card, catalog event) and RoundedPanel
+ * into BufferedImages at several sizes and device scales, and reports the time per frame and
+ * the bytes allocated per paint. It exits with status 1 when any case goes over its budget,
+ * so it can run as a check before a release:
+ *
+ *     java -cp . PaintBenchmark            (all cases)
+ *     java -cp . PaintBenchmark 500 0.5    (frames per case, budget multiplier)
+ *
+ * Time budgets are relative to a calibration paint (an antialiased rounded fill of the same
+ * area) measured on the same machine, so they hold on slow and fast hardware alike.
+ * Allocation budgets are absolute.
+ *
+ * The rounded panel cases measure both implementations. "rounded panel" is the package-private
+ * RoundedPanel at the bottom of gamePanel.java, through gamePanel.roundedPanel: the panel the
+ * game actually paints. "standalone rounded panel" is the public class in RoundedPanel.java,
+ * which declares the same name and so cannot be compiled with gamePanel. The benchmark compiles
+ * it from the working directory on its own and loads it in a class loader that cannot see the
+ * game's classes. Those cases are skipped, with a note, when the file or a compiler is missing.
+ */
+public class PaintBenchmark {
+
+    private static final class Case {
+        final String name;
+        final JComponent comp;
+        final int w, h;
+        final double scale;
+        final double maxCalibrations; // time budget, in multiples of the calibration paint
+        final long maxBytesPerPaint;
+
+        Case(String name, JComponent comp, int w, int h, double scale, double maxCalibrations, long maxBytesPerPaint){
+            this.name = name;
+            this.comp = comp;
+            this.w = w;
+            this.h = h;
+            this.scale = scale;
+            this.maxCalibrations = maxCalibrations;
+            this.maxBytesPerPaint = maxBytesPerPaint;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        double budget = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+
+        EventCatalog.Entry event = sampleEvent();
+        Constructor<?> standalone = standaloneRoundedPanel(Paths.get("RoundedPanel.java"));
+        List<Case> cases = new ArrayList<>();
+        // sizes: the default card, the enlarged result card, a 4K result card; scales 1x and 2x
+        int[][] sizes = {{320, 440}, {700, 960}, {1580, 2160}};
+        double[] scales = {1.0, 2.0};
+        for (int[] sz : sizes){
+            for (double sc : scales){
+                String at = sz[0] + "x" + sz[1] + "@" + sc + "x";
+                // glyphs this large skip the JDK glyph cache, hence the larger text budgets
+                long textBytes = sz[0] * sc > 1000 ? 256 * 1024 : 64 * 1024;
+                cases.add(new Case("card back " + at, card(null, null), sz[0], sz[1], sc, 25, 64 * 1024));
+                cases.add(new Case("number card " + at, card(new Card("7", Suit.HEARTS), null), sz[0], sz[1], sc, 25, textBytes));
+                cases.add(new Case("face card " + at, card(new Card("Q", Suit.SPADES), null), sz[0], sz[1], sc, 30, textBytes));
+                cases.add(new Case("event card " + at, card(null, event), sz[0], sz[1], sc, 25, textBytes));
+                cases.add(new Case("rounded panel " + at, gamePanel.roundedPanel(new Color(40,46,54), 14), sz[0], sz[1], sc, 3, 16 * 1024));
+                if (standalone != null){
+                    // it fills and then outlines, so it gets a larger time budget
+                    cases.add(new Case("standalone rounded panel " + at, (JComponent) standalone.newInstance(new Color(40,46,54), 14),
+                            sz[0], sz[1], sc, 5, 16 * 1024));
+                }
+            }
+        }
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        boolean failed = false;
+
+        System.out.printf("%-40s %12s %8s %12s %8s%n", "case", "ns/frame", "x calib", "bytes/paint", "result");
+        Case calibrated = null;
+        long calibNs = 0;
+        for (Case c : cases){
+            c.comp.setSize(c.w, c.h);
+            RepaintManager.currentManager(c.comp).setDoubleBufferingEnabled(false);
+            BufferedImage img = new BufferedImage((int) Math.ceil(c.w * c.scale), (int) Math.ceil(c.h * c.scale), BufferedImage.TYPE_INT_ARGB);
+            if (calibrated == null || calibrated.w != c.w || calibrated.scale != c.scale){
+                calibNs = calibrate(img, c, frames);
+                calibrated = c;
+            }
+
+            int warmup = Math.max(20, frames / 5);
+            for (int i = 0; i < warmup; i++) paintOnce(c, img);
+
+            long bytes0 = mx.getThreadAllocatedBytes(tid);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < frames; i++) paintOnce(c, img);
+            long ns = (System.nanoTime() - t0) / frames;
+            long bytes = (mx.getThreadAllocatedBytes(tid) - bytes0) / frames;
+
+            double ratio = (double) ns / Math.max(1, calibNs);
+            boolean ok = ratio <= c.maxCalibrations * budget && bytes <= c.maxBytesPerPaint * budget;
+            failed |= !ok;
+            System.out.printf("%-40s %12d %8.1f %12d %8s%n", c.name, ns, ratio, bytes, ok ? "ok" : "OVER");
+        }
+
+        if (failed){
+            System.out.println("One or more paint budgets exceeded.");
+            System.exit(1);
+        }
+    }
+
+    // ns for an antialiased rounded fill covering the whole component: the unit for time budgets
+    private static long calibrate(BufferedImage img, Case c, int frames){
+        int warmup = Math.max(20, frames / 5);
+        long t0 = 0;
+        for (int i = 0; i < warmup + frames; i++){
+            if (i == warmup) t0 = System.nanoTime();
+            Graphics2D g2 = img.createGraphics();
+            g2.scale(c.scale, c.scale);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(Color.DARK_GRAY);
+            g2.fillRoundRect(0, 0, c.w, c.h, 26, 26);
+            g2.dispose();
+        }
+        return (System.nanoTime() - t0) / frames;
+    }
+
+    // card components repaint from their back buffer; invalidate it so every frame is a full paint
+    private static void paintOnce(Case c, BufferedImage img){
+        if (c.comp instanceof gamePanel.CardComponent) ((gamePanel.CardComponent) c.comp).invalidateFrame();
+        Graphics2D g2 = img.createGraphics();
+        g2.scale(c.scale, c.scale);
+        c.comp.paint(g2);
+        g2.dispose();
+    }
+
+    private static gamePanel.CardComponent card(Card card, EventCatalog.Entry event){
+        gamePanel.CardComponent comp = new gamePanel.CardComponent();
+        if (event != null) comp.setEvent(event); else comp.setCard(card);
+        return comp;
+    }
+
+    // RoundedPanel.java compiled on its own, or null (with a note) when that cannot be done
+    private static Constructor<?> standaloneRoundedPanel(Path source) throws Exception {
+        javax.tools.JavaCompiler javac = javax.tools.ToolProvider.getSystemJavaCompiler();
+        if (!Files.exists(source) || javac == null){
+            System.out.println("standalone rounded panel skipped: " + (javac == null ? "no Java compiler in this runtime" : source + " not found"));
+            return null;
+        }
+        Path out = Files.createTempDirectory("paint-bench");
+        out.toFile().deleteOnExit();
+        if (javac.run(null, null, null, "-d", out.toString(), source.toString()) != 0){
+            System.out.println("standalone rounded panel skipped: " + source + " did not compile");
+            return null;
+        }
+        out.resolve("RoundedPanel.class").toFile().deleteOnExit();
+        // the platform loader sees Swing but not gamePanel's RoundedPanel on the class path
+        URLClassLoader loader = new URLClassLoader(new URL[]{ out.toUri().toURL() }, ClassLoader.getPlatformClassLoader());
+        return loader.loadClass("RoundedPanel").getConstructor(Color.class, int.class);
+    }
+
+    private static EventCatalog.Entry sampleEvent() throws IOException {
+        Path file = Files.createTempFile("paint-bench", ".txt");
+        try {
+            Files.write(file, ("Dragon Attack|2|fire,boss|1||A huge dragon descends upon the village and every "
+                    + "player loses a turn while the fires burn.\\nThe dealer reshuffles afterwards.\n").getBytes(StandardCharsets.UTF_8));
+            EventCatalog cat = EventCatalog.load(file);
+            return cat.entry(0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.*;
+
+/**
+ * A combination or parlay bet compiled to card masks. Each leg is a CardFilter expression
+ * ("red & face", "spade | 7", "!hearts") and legs are joined with "then" or ">" for
+ * consecutive draws: "red & face then spade | 7" wins when the next draw is a red face card
+ * and the one after it is a spade or a seven. A single leg is a combination bet on the next
+ * draw.
+ *
+ * Evaluation is a bitwise test per draw. The probability of a single leg is a popcount over
+ * the deck mask. For several legs the draws are without replacement and the legs may share
+ * cards, so the legs' outcomes are not independent. probability() computes the chance exactly
+ * by grouping the deck's cards by which legs they satisfy. Only the count in each group
+ * matters, so the recursion runs over count vectors and not over cards. At each leg, groups
+ * that differ only in legs already settled are merged. Results are cached per deck mask,
+ * which keeps pricing live while the deck is edited: each deck state is computed once.
+ *
+ * Instances are immutable apart from the cache and are safe to share between threads.
+ */
+final class ParlayBet {
+
+    static final int MAX_LEGS = 8;
+    // the offered net multiplier keeps this share of the fair return for the house
+    static final double HOUSE_EDGE = 0.05;
+    // and is capped here, which also keeps it within the ledger's multiplier field
+    static final double MAX_MULTIPLIER = 100_000;
+    private static final int CACHE_SIZE = 256;
+
+    private final String text;
+    private final long[] legs;
+    private final Map<Long,Double> cache = Collections.synchronizedMap(
+            new LinkedHashMap<Long,Double>(64, 0.75f, true){
+                @Override protected boolean removeEldestEntry(Map.Entry<Long,Double> e){ return size() > CACHE_SIZE; }
+            });
+
+    private ParlayBet(String text, long[] legs){
+        this.text = text;
+        this.legs = legs;
+    }
+
+    static ParlayBet compile(String text){
+        if (text == null || text.trim().isEmpty()) throw new IllegalArgumentException("The bet is empty.");
+        String[] parts = text.trim().split("(?i)\\s+then\\s+|\\s*>\\s*");
+        if (parts.length > MAX_LEGS) throw new IllegalArgumentException("A parlay has at most " + MAX_LEGS + " legs.");
+        long[] legs = new long[parts.length];
+        for (int i = 0; i < parts.length; i++){
+            legs[i] = CardFilter.compile(parts[i]);
+            if (legs[i] == 0) throw new IllegalArgumentException("Leg " + (i + 1) + " ('" + parts[i].trim() + "') matches no card.");
+        }
+        return new ParlayBet(text.trim(), legs);
+    }
+
+    int legs(){ return legs.length; }
+    long leg(int i){ return legs[i]; }
+    // every card any leg can win on
+    long mask(){
+        long m = 0;
+        for (long l : legs) m |= l;
+        return m;
+    }
+
+    // whether the i-th draw after the bet keeps it alive
+    boolean legHit(int i, int ordinal){ return (legs[i] >>> ordinal & 1) != 0; }
+
+    /* ---------------------- Pricing ---------------------- */
+
+    // chance of winning on a deck with this mask, exact
+    double probability(long deckMask){
+        if (legs.length == 1){
+            int size = Long.bitCount(deckMask);
+            return size == 0 ? 0 : (double) Long.bitCount(legs[0] & deckMask) / size;
+        }
+        Double p = cache.get(deckMask);
+        if (p == null){
+            p = exact(deckMask);
+            cache.put(deckMask, p);
+        }
+        return p;
+    }
+
+    // net multiplier at which the bet has zero expected value, or NaN when it cannot win
+    double fairMultiplier(long deckMask){
+        double p = probability(deckMask);
+        return p <= 0 ? Double.NaN : 1 / p - 1;
+    }
+
+    // net multiplier offered on this deck: the fair return less HOUSE_EDGE, never below zero
+    // and never above MAX_MULTIPLIER
+    double offeredMultiplier(long deckMask){
+        double p = probability(deckMask);
+        return p <= 0 ? Double.NaN : Math.min(MAX_MULTIPLIER, Math.max(0, (1 - HOUSE_EDGE) / p - 1));
+    }
+
+    private double exact(long deckMask){
+        int n = legs.length;
+        int size = Long.bitCount(deckMask);
+        if (size < n) return 0;
+        // group the deck by signature: bit i set when the card satisfies leg i
+        int[] counts = new int[1 << n];
+        for (long m = deckMask; m != 0; m &= m - 1){
+            int c = Long.numberOfTrailingZeros(m);
+            int sig = 0;
+            for (int i = 0; i < n; i++) if ((legs[i] >>> c & 1) != 0) sig |= 1 << i;
+            counts[sig]++;
+        }
+        return chance(counts, size, new HashMap<>());
+    }
+
+    // counts[s]: cards whose signature over the remaining legs is s (bit 0 = the next leg)
+    private static double chance(int[] counts, int size, Map<Key,Double> memo){
+        if (counts.length == 1) return 1;
+        Key key = new Key(counts);
+        Double known = memo.get(key);
+        if (known != null) return known;
+        double p = 0;
+        int half = counts.length >> 1;
+        for (int s = 1; s < counts.length; s += 2){
+            if (counts[s] == 0) continue;
+            // draw one card of group s, then merge groups on the legs that are left
+            int[] next = new int[half];
+            for (int t = 0; t < half; t++) next[t] = counts[2 * t] + counts[2 * t + 1];
+            next[s >> 1]--;
+            p += (double) counts[s] / size * chance(next, size - 1, memo);
+        }
+        memo.put(key, p);
+        return p;
+    }
+
+    private static final class Key {
+        final int[] counts;
+        final int hash;
+        Key(int[] counts){ this.counts = counts; this.hash = Arrays.hashCode(counts); }
+        @Override public boolean equals(Object o){ return o instanceof Key && Arrays.equals(counts, ((Key) o).counts); }
+        @Override public int hashCode(){ return hash; }
+    }
+
+    @Override public String toString(){ return text; }
+
+    /**
+     * Prices a few combination and parlay bets on a full deck and on edited decks, and checks
+     * the exact figures against simulated draws.
+     *     java -cp . ParlayBet [simulated rounds=1000000]
+     */
+    public static void main(String[] args){
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] bets = { "red & face", "spade | 7", "red then red then red", "hearts > face > !hearts > ace",
+                          "odd then odd & red then spade | face then 2 | 3 | 4 then black then K then !face" };
+        long[] decks = { Card.FULL_MASK, Card.FULL_MASK & ~Card.faceMask(), Card.FULL_MASK & ~Card.suitMask(Suit.SPADES) };
+        Random rng = new Random(1);
+        for (String text : bets){
+            ParlayBet bet = compile(text);
+            for (long deck : decks){
+                long t0 = System.nanoTime();
+                double p = bet.probability(deck);
+                long cold = System.nanoTime() - t0;
+                t0 = System.nanoTime();
+                bet.probability(deck);
+                long warm = System.nanoTime() - t0;
+
+                int won = 0;
+                Deck d = new Deck();
+                for (int r = 0; r < rounds; r++){
+                    d.clear();
+                    d.addMask(deck);
+                    boolean alive = true;
+                    for (int i = 0; i < bet.legs() && alive; i++){
+                        Card c = d.drawRandom(rng);
+                        alive = c != null && bet.legHit(i, c.ordinal());
+                    }
+                    if (alive) won++;
+                }
+                System.out.printf("%-40.40s %2d cards  p=%.6f  simulated %.6f  fair x%-10.3f %8.1f us cold %6.2f us cached%n",
+                        text, Long.bitCount(deck), p, (double) won / rounds, bet.fairMultiplier(deck), cold / 1e3, warm / 1e3);
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of every stake and payout, with running totals.
+ *
+ * Each settled bet appends two fixed-size records, STAKE then PAYOUT, carrying the table,
+ * the player, the selection mask, the window mask (the draws it was settled against), the
+ * cards left in the deck, the fixed-point multiplier, the amount in minor units (see Money)
+ * and the time in epoch seconds. A parlay's payout is a PARLAY record instead: its selection
+ * has bit i set when leg i hit, its window holds the cards drawn for the legs, and the legs
+ * field says how many legs there were. A jackpot award is a STAKE of zero then a JACKPOT record:
+ * its selection is the card bet on and its window the final card drawn. LedgerAnalytics reads the same layout. Records collect in a
+ * buffer and are written and forced to disk a batch at a time (group commit), or when
+ * commit() is called. Per-player and per-table totals live in primitive arrays.
+ *
+ * On open the log is scanned: totals and the sequence number are rebuilt and a torn tail
+ * from a crash mid-write is cut off. reconcile() replays the log, re-derives every payout
+ * from the masks and the multiplier with the game rules, and compares the result with
+ * the recorded amounts and the running totals, exactly.
+ *
+ * Methods are synchronized; one ledger can take settlements from many tables.
+ */
+public class PayoutLedger implements Closeable {
+
+    static final byte STAKE = 1;
+    static final byte PAYOUT = 2;
+    static final byte PARLAY = 3; // a parlay's payout
+    static final byte JACKPOT = 4; // a jackpot award, after a STAKE of zero
+
+    // seq(8) type(1) deck size(1) legs(2, PARLAY only) table(4) player(4) multiplier(4) amount(8)
+    // selection(8) window(8) seconds(4) crc(4); the CRC covers everything before it
+    static final int RECORD = 56;
+    static final int OFF_TYPE = 8, OFF_DECK = 9, OFF_LEGS = 10, OFF_TABLE = 12, OFF_PLAYER = 16, OFF_MULT = 20,
+                     OFF_AMOUNT = 24, OFF_SELECTION = 32, OFF_WINDOW = 40, OFF_SECONDS = 48;
+    private static final int CRC_OFFSET = 52;
+
+    private final FileChannel channel;
+    private final ByteBuffer batch;
+    private final boolean sync;
+    private long nextSeq = 0;
+
+    private long[] playerStaked = new long[16];
+    private long[] playerNet = new long[16];
+    private long[] tableNet = new long[16];
+    private long settlements = 0;
+
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * @param batchRecords records per group commit
+     * @param sync         force each batch to the storage device (false: leave it to the OS)
+     */
+    public PayoutLedger(Path file, int batchRecords, boolean sync) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.batch = ByteBuffer.allocateDirect(Math.max(2, batchRecords) * RECORD).order(ByteOrder.BIG_ENDIAN);
+        this.sync = sync;
+        recover();
+    }
+
+    /* ---------------------- Writing ---------------------- */
+
+    // logs one settled bet; net is what BetSettler produced for it
+    public synchronized void settled(int table, int player, long selectionMask, long windowMask, int deckSize,
+                                     long multiplierFixed, long stakeMinor, long netMinor) throws IOException {
+        settledAt((int) (System.currentTimeMillis() / 1000), table, player, selectionMask, windowMask, deckSize,
+                multiplierFixed, stakeMinor, netMinor);
+    }
+
+    // the same with an explicit time, for imports and generated histories
+    synchronized void settledAt(int seconds, int table, int player, long selectionMask, long windowMask, int deckSize,
+                                long multiplierFixed, long stakeMinor, long netMinor) throws IOException {
+        append(PAYOUT, 0, seconds, table, player, selectionMask, windowMask, deckSize, multiplierFixed, stakeMinor, netMinor);
+    }
+
+    // logs one settled parlay: legHits has bit i set when leg i hit, drawnMask the cards drawn for the legs
+    public synchronized void settledParlay(int table, int player, int legs, long legHits, long drawnMask, int deckSize,
+                                           long multiplierFixed, long stakeMinor, long netMinor) throws IOException {
+        if (legs < 1 || legs > 63) throw new IllegalArgumentException("A parlay has 1 to 63 legs.");
+        append(PARLAY, legs, (int) (System.currentTimeMillis() / 1000), table, player, legHits, drawnMask, deckSize,
+                multiplierFixed, stakeMinor, netMinor);
+    }
+
+    // logs one jackpot award: cardMask is the card bet on, drawnMask the final card drawn
+    public synchronized void settledJackpot(int table, int player, long cardMask, long drawnMask, int deckSize,
+                                            long awardMinor) throws IOException {
+        append(JACKPOT, 0, (int) (System.currentTimeMillis() / 1000), table, player, cardMask, drawnMask, deckSize,
+                0, 0, awardMinor);
+    }
+
+    private void append(byte payoutType, int legs, int seconds, int table, int player, long selectionMask, long windowMask,
+                        int deckSize, long multiplierFixed, long stakeMinor, long netMinor) throws IOException {
+        if (multiplierFixed != (int) multiplierFixed) throw new IllegalArgumentException("Multiplier " + multiplierFixed + " does not fit the ledger.");
+        if (batch.remaining() < 2 * RECORD) flush();
+        put(STAKE, 0, deckSize, table, player, multiplierFixed, stakeMinor, selectionMask, windowMask, seconds);
+        put(payoutType, legs, deckSize, table, player, multiplierFixed, netMinor, selectionMask, windowMask, seconds);
+        apply(STAKE, table, player, stakeMinor);
+        apply(PAYOUT, table, player, netMinor);
+        settlements++;
+    }
+
+    // logs every bet of a settled BetSettler round at once
+    public synchronized void settled(int table, BetSettler bets, long windowMask, int deckSize) throws IOException {
+        for (int i = 0; i < bets.size(); i++){
+            settled(table, bets.player(i), bets.mask(i), windowMask, deckSize, bets.multiplier(i), bets.stake(i), bets.net(i));
+        }
+    }
+
+    // makes everything appended so far durable
+    public synchronized void commit() throws IOException {
+        flush();
+    }
+
+    private void put(byte type, int legs, int deckSize, int table, int player, long mult, long amount, long sel, long window, int seconds){
+        int start = batch.position();
+        batch.putLong(nextSeq++).put(type).put((byte) deckSize).putShort((short) legs)
+             .putInt(table).putInt(player).putInt((int) mult)
+             .putLong(amount).putLong(sel).putLong(window).putInt(seconds);
+        crc.reset();
+        ByteBuffer view = batch.duplicate();
+        view.position(start).limit(start + CRC_OFFSET);
+        crc.update(view);
+        batch.putInt((int) crc.getValue());
+    }
+
+    private void flush() throws IOException {
+        if (batch.position() == 0) return;
+        batch.flip();
+        while (batch.hasRemaining()) channel.write(batch);
+        batch.clear();
+        if (sync) channel.force(false);
+    }
+
+    private void apply(byte type, int table, int player, long amount){
+        if (player >= playerNet.length || table >= tableNet.length) grow(Math.max(player, table) + 1);
+        if (type == STAKE) playerStaked[player] += amount;
+        else { playerNet[player] += amount; tableNet[table] += amount; }
+    }
+
+    private void grow(int min){
+        int cap = Math.max(min, playerNet.length * 2);
+        playerStaked = Arrays.copyOf(playerStaked, cap);
+        playerNet = Arrays.copyOf(playerNet, cap);
+        tableNet = Arrays.copyOf(tableNet, cap);
+    }
+
+    /* ---------------------- Totals ---------------------- */
+
+    public synchronized long playerStaked(int player){ return player < playerStaked.length ? playerStaked[player] : 0; }
+    public synchronized long playerNet(int player){ return player < playerNet.length ? playerNet[player] : 0; }
+    public synchronized long tableNet(int table){ return table < tableNet.length ? tableNet[table] : 0; }
+    public synchronized long settlements(){ return settlements; }
+
+    /* ---------------------- Recovery and reconciliation ---------------------- */
+
+    // result of replaying the log
+    static final class Replay {
+        long records, settlements, badPayouts, tornBytes;
+        long[] playerStaked = new long[0], playerNet = new long[0], tableNet = new long[0];
+        String error; // first structural problem (bad CRC, sequence gap, unpaired record), or null
+    }
+
+    private void recover() throws IOException {
+        Replay r = replay(channel);
+        if (r.error != null) throw new IOException("Ledger is corrupt: " + r.error);
+        if (r.tornBytes > 0) channel.truncate(channel.size() - r.tornBytes);
+        channel.position(channel.size());
+        nextSeq = r.records;
+        settlements = r.settlements;
+        grow(Math.max(1, Math.max(r.playerNet.length, r.tableNet.length)));
+        System.arraycopy(r.playerStaked, 0, playerStaked, 0, r.playerStaked.length);
+        System.arraycopy(r.playerNet, 0, playerNet, 0, r.playerNet.length);
+        System.arraycopy(r.tableNet, 0, tableNet, 0, r.tableNet.length);
+    }
+
+    /**
+     * Commits, replays the whole log and checks it against the rules and the running totals.
+     * Returns null when everything matches to the cent, otherwise what did not.
+     */
+    public synchronized String reconcile() throws IOException {
+        flush();
+        Replay r = replay(channel);
+        channel.position(channel.size());
+        if (r.error != null) return r.error;
+        if (r.tornBytes > 0) return r.tornBytes + " torn bytes at the end of the log";
+        if (r.badPayouts > 0) return r.badPayouts + " payout(s) differ from the rules";
+        if (r.settlements != settlements) return "log has " + r.settlements + " settlements, totals have " + settlements;
+        for (int p = 0; p < playerNet.length; p++){
+            long staked = p < r.playerStaked.length ? r.playerStaked[p] : 0;
+            long net = p < r.playerNet.length ? r.playerNet[p] : 0;
+            if (staked != playerStaked[p] || net != playerNet[p]) return "player " + p + " totals differ from the log";
+        }
+        for (int t = 0; t < tableNet.length; t++){
+            long net = t < r.tableNet.length ? r.tableNet[t] : 0;
+            if (net != tableNet[t]) return "table " + t + " total differs from the log";
+        }
+        return null;
+    }
+
+    private static Replay replay(FileChannel ch) throws IOException {
+        Replay r = new Replay();
+        long size = ch.size();
+        ByteBuffer buf = ByteBuffer.allocateDirect(4096 * RECORD);
+        CRC32C crc = new CRC32C();
+        long pos = 0;
+        long pendingStake = Long.MIN_VALUE; // amount of the STAKE waiting for its PAYOUT
+        int pendingTable = 0, pendingPlayer = 0;
+        while (pos + RECORD <= size){
+            buf.clear();
+            long want = Math.min(buf.capacity(), (size - pos) / RECORD * RECORD);
+            buf.limit((int) want);
+            while (buf.hasRemaining()){
+                if (ch.read(buf, pos + buf.position()) < 0) break;
+            }
+            buf.flip();
+            while (buf.remaining() >= RECORD){
+                int start = buf.position();
+                ByteBuffer view = buf.duplicate();
+                view.position(start).limit(start + CRC_OFFSET);
+                crc.reset();
+                crc.update(view);
+                long seq = buf.getLong(start);
+                byte type = buf.get(start + OFF_TYPE);
+                int table = buf.getInt(start + OFF_TABLE), player = buf.getInt(start + OFF_PLAYER), mult = buf.getInt(start + OFF_MULT);
+                long amount = buf.getLong(start + OFF_AMOUNT), sel = buf.getLong(start + OFF_SELECTION), window = buf.getLong(start + OFF_WINDOW);
+                int storedCrc = buf.getInt(start + CRC_OFFSET);
+                buf.position(start + RECORD);
+
+                if ((int) crc.getValue() != storedCrc){
+                    // a bad last record is a torn write; anywhere else it is corruption
+                    if (pos + buf.position() == size - (size % RECORD)){
+                        r.tornBytes = size - (pos + start);
+                        // so is the stake it would have paid, as at the end of the log below
+                        if (pendingStake != Long.MIN_VALUE){ r.tornBytes += RECORD; r.records--; }
+                        return r;
+                    }
+                    r.error = "bad checksum at record " + r.records; return r;
+                }
+                if (seq != r.records){ r.error = "sequence gap at record " + r.records; return r; }
+                r.records++;
+                if (type == STAKE){
+                    if (pendingStake != Long.MIN_VALUE){ r.error = "stake without payout at record " + (seq - 1); return r; }
+                    pendingStake = amount; pendingTable = table; pendingPlayer = player;
+                } else if (type == PAYOUT || type == PARLAY || type == JACKPOT){
+                    if (pendingStake == Long.MIN_VALUE || table != pendingTable || player != pendingPlayer){
+                        r.error = "payout without stake at record " + seq; return r;
+                    }
+                    // the rules again: a bet wins when its selection meets the window, a parlay
+                    // when every leg hit; a win pays stake x multiplier, anything else loses the
+                    // stake. A jackpot is staked nothing and pays the pot, for one card hit by one
+                    if (type == JACKPOT){
+                        boolean hit = Long.bitCount(sel) == 1 && sel == window;
+                        if (!hit || pendingStake != 0 || amount <= 0) r.badPayouts++;
+                    } else {
+                        boolean won = type == PAYOUT ? (sel & window) != 0 : parlayWon(sel, buf.getShort(start + OFF_LEGS));
+                        long expected = Money.scale(pendingStake, won ? mult : -Money.MULT_SCALE);
+                        if (expected != amount) r.badPayouts++;
+                    }
+                    r.playerStaked = ensure(r.playerStaked, player);
+                    r.playerNet = ensure(r.playerNet, player);
+                    r.tableNet = ensure(r.tableNet, table);
+                    r.playerStaked[player] += pendingStake;
+                    r.playerNet[player] += amount;
+                    r.tableNet[table] += amount;
+                    r.settlements++;
+                    pendingStake = Long.MIN_VALUE;
+                } else {
+                    r.error = "unknown record type " + type + " at record " + seq; return r;
+                }
+            }
+            pos += want;
+        }
+        // a stake whose payout never made it to disk is part of the torn tail
+        r.tornBytes += (size - pos) + (pendingStake != Long.MIN_VALUE ? RECORD : 0);
+        if (pendingStake != Long.MIN_VALUE) r.records--;
+        return r;
+    }
+
+    static boolean parlayWon(long legHits, int legs){
+        return legs >= 1 && legs <= 63 && legHits == (1L << legs) - 1;
+    }
+
+    private static long[] ensure(long[] a, int index){
+        return index < a.length ? a : Arrays.copyOf(a, Math.max(index + 1, a.length * 2));
+    }
+
+    @Override public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Throughput check: settles n random bets from `players` players over `tables` tables,
+     * logging each, then reconciles.
+     *     java -cp . PayoutLedger <file> [n=1000000] [batch=4096] [sync=true]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1){
+            System.err.println("usage: java PayoutLedger <file> [settlements] [batch records] [sync]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int batchRecords = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+        boolean sync = args.length <= 3 || Boolean.parseBoolean(args[3]);
+        int players = 1000, tables = 100;
+
+        Random rng = new Random(1);
+        BetSettler bets = new BetSettler();
+        try (PayoutLedger ledger = new PayoutLedger(file, batchRecords, sync)){
+            long before = ledger.settlements();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i += 8){
+                // a table round: up to 8 players, suit bets, a 3-card window
+                bets.clear();
+                int table = rng.nextInt(tables);
+                for (int b = 0; b < 8 && i + b < n; b++){
+                    bets.addBet(rng.nextInt(players), Card.suitMask(Suit.values()[rng.nextInt(4)]), Money.multiplier(2.17), Money.minor(1 + rng.nextInt(100)));
+                }
+                long window = 0;
+                for (int d = 0; d < 3; d++) window |= 1L << rng.nextInt(52);
+                bets.settle(window);
+                ledger.settled(table, bets, window, 49);
+            }
+            ledger.commit();
+            long ns = System.nanoTime() - t0;
+            System.out.printf("%d settlements in %.1f ms: %.0f per second (batch %d, sync %s), %d total in the log%n",
+                    ledger.settlements() - before, ns / 1e6, (ledger.settlements() - before) / (ns / 1e9), batchRecords, sync, ledger.settlements());
+            t0 = System.nanoTime();
+            String problem = ledger.reconcile();
+            System.out.printf("reconciliation: %s (%.1f ms)%n", problem == null ? "exact" : problem, (System.nanoTime() - t0) / 1e6);
+            if (problem != null) System.exit(1);
+        }
+    }
+}
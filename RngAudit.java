@@ -0,0 +1,436 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Release audit of the shuffle and draw path: Deck.shuffle and Deck.drawRandom on the same
+ * java.util.Random the game uses. Every core runs its own decks and generator; the counts are
+ * merged and tested:
+ *  - draw positions: which card comes out at which position of a full 52-card draw-down (chi-square, 52x52),
+ *  - shuffle positions: which card lands at which position after Deck.shuffle (chi-square, 52x52),
+ *  - permutation uniformity of 4- and 5-card decks, by shuffle and by drawing them out (chi-square over k!),
+ *  - serial correlation of successive draws (lag 1 and 2, over the index each draw picked),
+ *  - birthday spacings on days made of four draws from a full deck (Marsaglia; Poisson counts).
+ *
+ * A test fails when its p-value is below ALPHA or above 1 - ALPHA (too good a fit is as
+ * suspicious as too bad a one). The report is plain text signed with Ed25519; the key pair is
+ * created next to the given key path on first use, the private key readable by its owner only.
+ *
+ *     java -cp . RngAudit [--draws 1000000000] [--shuffles 200000000] [--threads n] [--seed s]
+ *                         [--key audit.key] [--out report.txt]
+ *     java -cp . RngAudit --verify report.txt [--pub audit.key.pub] [--key audit.key]
+ *
+ * Exits 1 when a test fails. --verify checks the signature against a trusted public key only:
+ * --pub, or else the .pub next to --key. The key named in the report is never trusted, as
+ * anyone can re-sign an edited report with a key of their own. It exits 1 when the trusted key
+ * is missing, the signature does not verify, or the signed report says RESULT: FAIL.
+ */
+public class RngAudit {
+
+    static final double ALPHA = 1e-4;
+    static final int SMALL_A = 4, SMALL_B = 5;
+    static final int BIRTHDAYS = 512;            // per sample
+    static final long DAYS = 52L * 52 * 52 * 52; // four full-deck draws per birthday
+    private static final String SIGNATURE_LINE = "-----BEGIN SIGNATURE-----";
+
+    /* ---------------------- Counting (one per worker) ---------------------- */
+
+    static final class Counts {
+        final long[] drawPos = new long[52 * 52];     // card * 52 + position in the draw-down
+        final long[] shufflePos = new long[52 * 52];  // card * 52 + position after a shuffle
+        final long[] shuffleSmallA = new long[factorial(SMALL_A)], shuffleSmallB = new long[factorial(SMALL_B)];
+        final long[] drawSmallA = new long[factorial(SMALL_A)], drawSmallB = new long[factorial(SMALL_B)];
+        // serial correlation of u = (index + 0.5) / size over successive draws
+        double sumU, sumUU, sumLag1, sumLag2;
+        long n, pairs1, pairs2;
+        final long[] birthdayCollisions = new long[12]; // samples by number of repeated spacings, last = 11+
+
+        void merge(Counts o){
+            add(drawPos, o.drawPos); add(shufflePos, o.shufflePos);
+            add(shuffleSmallA, o.shuffleSmallA); add(shuffleSmallB, o.shuffleSmallB);
+            add(drawSmallA, o.drawSmallA); add(drawSmallB, o.drawSmallB);
+            add(birthdayCollisions, o.birthdayCollisions);
+            sumU += o.sumU; sumUU += o.sumUU; sumLag1 += o.sumLag1; sumLag2 += o.sumLag2; n += o.n;
+            pairs1 += o.pairs1; pairs2 += o.pairs2;
+        }
+
+        private static void add(long[] a, long[] b){ for (int i = 0; i < a.length; i++) a[i] += b[i]; }
+    }
+
+    // Random that remembers the bound and result of its last nextInt, so the serial test sees
+    // exactly the index Deck.drawRandom picked
+    static final class TracingRandom extends Random {
+        int lastBound, lastValue;
+        TracingRandom(long seed){ super(seed); }
+        TracingRandom(){ super(); }
+        @Override public int nextInt(int bound){
+            lastBound = bound;
+            return lastValue = super.nextInt(bound);
+        }
+    }
+
+    static final class Worker implements Runnable {
+        final Counts counts = new Counts();
+        private final TracingRandom rng;
+        private final long drawDowns, singleDraws, shuffles, smallRounds;
+        private double prev1 = Double.NaN, prev2 = Double.NaN;
+
+        Worker(TracingRandom rng, long drawDowns, long singleDraws, long shuffles, long smallRounds){
+            this.rng = rng;
+            this.drawDowns = drawDowns;
+            this.singleDraws = singleDraws;
+            this.shuffles = shuffles;
+            this.smallRounds = smallRounds;
+        }
+
+        @Override public void run(){
+            Deck deck = new Deck();
+            for (long i = 0; i < drawDowns; i++){
+                deck.addMask(Card.FULL_MASK);
+                for (int pos = 0; pos < 52; pos++){
+                    Card c = deck.drawRandom(rng);
+                    counts.drawPos[c.ordinal() * 52 + pos]++;
+                    serial();
+                }
+            }
+
+            // birthday spacings: days from four draws of a full deck, the card put back each time
+            deck.addMask(Card.FULL_MASK);
+            long[] days = new long[BIRTHDAYS];
+            for (long d = 0; d + 4L * BIRTHDAYS <= singleDraws; d += 4L * BIRTHDAYS){
+                for (int b = 0; b < BIRTHDAYS; b++){
+                    long day = 0;
+                    for (int k = 0; k < 4; k++){
+                        Card c = deck.drawRandom(rng);
+                        serial();
+                        day = day * 52 + c.ordinal();
+                        deck.addMask(c.bit());
+                    }
+                    days[b] = day;
+                }
+                counts.birthdayCollisions[Math.min(11, repeatedSpacings(days))]++;
+            }
+
+            deck.addMask(Card.FULL_MASK);
+            for (long i = 0; i < shuffles; i++){
+                deck.shuffle(rng);
+                List<Card> cards = deck.asList();
+                for (int pos = 0; pos < 52; pos++) counts.shufflePos[cards.get(pos).ordinal() * 52 + pos]++;
+            }
+
+            long smallA = (1L << SMALL_A) - 1, smallB = (1L << SMALL_B) - 1;
+            int[] order = new int[SMALL_B];
+            for (long i = 0; i < smallRounds; i++){
+                counts.shuffleSmallA[shuffleRank(deck, smallA, SMALL_A, order)]++;
+                counts.shuffleSmallB[shuffleRank(deck, smallB, SMALL_B, order)]++;
+                counts.drawSmallA[drawRank(deck, smallA, SMALL_A, order)]++;
+                counts.drawSmallB[drawRank(deck, smallB, SMALL_B, order)]++;
+            }
+        }
+
+        private void serial(){
+            double u = (rng.lastValue + 0.5) / rng.lastBound;
+            counts.sumU += u;
+            counts.sumUU += u * u;
+            if (!Double.isNaN(prev1)){ counts.sumLag1 += u * prev1; counts.pairs1++; }
+            if (!Double.isNaN(prev2)){ counts.sumLag2 += u * prev2; counts.pairs2++; }
+            prev2 = prev1;
+            prev1 = u;
+            counts.n++;
+        }
+
+        private int shuffleRank(Deck deck, long mask, int k, int[] order){
+            deck.keepMask(mask);
+            deck.addMask(mask);
+            deck.shuffle(rng);
+            List<Card> cards = deck.asList();
+            for (int i = 0; i < k; i++) order[i] = cards.get(i).ordinal();
+            return lehmerRank(order, k);
+        }
+
+        private int drawRank(Deck deck, long mask, int k, int[] order){
+            deck.keepMask(mask);
+            deck.addMask(mask);
+            for (int i = 0; i < k; i++) order[i] = deck.drawRandom(rng).ordinal();
+            return lehmerRank(order, k);
+        }
+    }
+
+    // rank of a permutation of 0..k-1 among all k! (Lehmer code)
+    static int lehmerRank(int[] p, int k){
+        int rank = 0;
+        for (int i = 0; i < k; i++){
+            int smaller = 0;
+            for (int j = i + 1; j < k; j++) if (p[j] < p[i]) smaller++;
+            rank = rank * (k - i) + smaller;
+        }
+        return rank;
+    }
+
+    // sorted birthdays -> spacings -> how many spacing values occur more than once
+    static int repeatedSpacings(long[] days){
+        long[] d = days.clone();
+        Arrays.sort(d);
+        long[] spacing = new long[d.length];
+        spacing[0] = d[0];
+        for (int i = 1; i < d.length; i++) spacing[i] = d[i] - d[i - 1];
+        Arrays.sort(spacing);
+        int repeats = 0;
+        for (int i = 1; i < spacing.length; i++) if (spacing[i] == spacing[i - 1]) repeats++;
+        return repeats;
+    }
+
+    static int factorial(int k){ return k <= 1 ? 1 : k * factorial(k - 1); }
+
+    /* ---------------------- Tests ---------------------- */
+
+    static final class Result {
+        final String name, detail;
+        final double p;
+        Result(String name, String detail, double p){ this.name = name; this.detail = detail; this.p = p; }
+        boolean passed(){ return p >= ALPHA && p <= 1 - ALPHA; }
+    }
+
+    static List<Result> evaluate(Counts c){
+        List<Result> r = new ArrayList<>();
+        r.add(contingency("draw positions (52x52)", c.drawPos));
+        r.add(contingency("shuffle positions (52x52)", c.shufflePos));
+        r.add(uniform("shuffle permutations, " + SMALL_A + " cards", c.shuffleSmallA));
+        r.add(uniform("shuffle permutations, " + SMALL_B + " cards", c.shuffleSmallB));
+        r.add(uniform("draw-order permutations, " + SMALL_A + " cards", c.drawSmallA));
+        r.add(uniform("draw-order permutations, " + SMALL_B + " cards", c.drawSmallB));
+        r.add(serial("serial correlation, lag 1", c.sumLag1, c.pairs1, c));
+        r.add(serial("serial correlation, lag 2", c.sumLag2, c.pairs2, c));
+        r.add(birthdays(c.birthdayCollisions));
+        return r;
+    }
+
+    // every row (card) should spread evenly over the columns (positions); margins are fixed
+    private static Result contingency(String name, long[] cells){
+        long total = 0;
+        for (long v : cells) total += v;
+        if (total == 0) return new Result(name, "no data", Double.NaN);
+        double e = total / (52.0 * 52.0);
+        double chi = 0;
+        for (long v : cells) chi += (v - e) * (v - e) / e;
+        int dof = 51 * 51;
+        return new Result(name, String.format("%,d samples, chi2 = %.1f, %d df", total, chi, dof), FairnessStats.chiSquareP(chi, dof));
+    }
+
+    private static Result uniform(String name, long[] cells){
+        long total = 0;
+        for (long v : cells) total += v;
+        if (total == 0) return new Result(name, "no data", Double.NaN);
+        double e = (double) total / cells.length, chi = 0;
+        for (long v : cells) chi += (v - e) * (v - e) / e;
+        int dof = cells.length - 1;
+        return new Result(name, String.format("%,d samples, chi2 = %.1f, %d df", total, chi, dof), FairnessStats.chiSquareP(chi, dof));
+    }
+
+    // lag-k autocorrelation of the draw stream, pairs taken within each worker's stream
+    private static Result serial(String name, double sumLag, long pairs, Counts c){
+        if (pairs < 2) return new Result(name, "no data", Double.NaN);
+        double mean = c.sumU / c.n, var = c.sumUU / c.n - mean * mean;
+        double rho = (sumLag / pairs - mean * mean) / var;
+        double z = rho * Math.sqrt(pairs);
+        return new Result(name, String.format("%,d pairs, r = %.2e, z = %.2f", pairs, rho, z), FairnessStats.erfc(Math.abs(z) / Math.sqrt(2)));
+    }
+
+    // repeated spacings among BIRTHDAYS birthdays in DAYS days are Poisson with mean m^3 / 4n
+    private static Result birthdays(long[] counts){
+        long samples = 0;
+        for (long v : counts) samples += v;
+        String name = "birthday spacings (" + BIRTHDAYS + " in 52^4 days)";
+        if (samples == 0) return new Result(name, "no data", Double.NaN);
+        double lambda = Math.pow(BIRTHDAYS, 3) / (4.0 * DAYS);
+        double chi = 0, tail = 1, pk = Math.exp(-lambda);
+        int cells = 0;
+        for (int k = 0; k < counts.length; k++){
+            double p = k == counts.length - 1 ? tail : pk;
+            double e = samples * p;
+            if (e > 0){ chi += (counts[k] - e) * (counts[k] - e) / e; cells++; }
+            tail -= pk;
+            pk *= lambda / (k + 1);
+        }
+        int dof = cells - 1;
+        return new Result(name, String.format("%,d samples, lambda = %.2f, chi2 = %.1f, %d df", samples, lambda, chi, dof), FairnessStats.chiSquareP(chi, dof));
+    }
+
+    /* ---------------------- Report and signature ---------------------- */
+
+    static String report(List<Result> results, long draws, long shuffles, int threads, String seed, double seconds){
+        StringBuilder sb = new StringBuilder();
+        sb.append("RNG audit of Deck.shuffle and Deck.drawRandom (java.util.Random)\n");
+        sb.append("date: ").append(Instant.now()).append('\n');
+        sb.append("java: ").append(System.getProperty("java.vendor")).append(' ').append(System.getProperty("java.version")).append('\n');
+        sb.append(String.format("draws: %,d  shuffles: %,d  threads: %d  seed: %s  time: %.1f s%n", draws, shuffles, threads, seed, seconds));
+        sb.append(String.format("a test fails when p < %.0e or p > 1 - %.0e%n%n", ALPHA, ALPHA));
+        boolean all = true;
+        for (Result r : results){
+            sb.append(String.format("%-4s %-44s p = %.4f   %s%n", r.passed() ? "PASS" : "FAIL", r.name, r.p, r.detail));
+            all &= r.passed();
+        }
+        sb.append('\n').append(all ? "RESULT: PASS" : "RESULT: FAIL").append('\n');
+        return sb.toString();
+    }
+
+    static String sign(String body, Path keyPath) throws IOException, GeneralSecurityException {
+        KeyPair keys = loadOrCreateKeys(keyPath);
+        Signature s = Signature.getInstance("Ed25519");
+        s.initSign(keys.getPrivate());
+        s.update(body.getBytes(StandardCharsets.UTF_8));
+        return body + SIGNATURE_LINE + "\n"
+                + "public-key: " + Base64.getEncoder().encodeToString(keys.getPublic().getEncoded()) + "\n"
+                + "signature: " + Base64.getEncoder().encodeToString(s.sign()) + "\n";
+    }
+
+    // the key pair from keyPath (PKCS#8) and keyPath.pub (X.509); created on first use
+    private static KeyPair loadOrCreateKeys(Path keyPath) throws IOException, GeneralSecurityException {
+        Path pubPath = Paths.get(keyPath + ".pub");
+        KeyFactory kf = KeyFactory.getInstance("Ed25519");
+        if (Files.exists(keyPath) && Files.exists(pubPath)){
+            PrivateKey priv = kf.generatePrivate(new PKCS8EncodedKeySpec(Files.readAllBytes(keyPath)));
+            PublicKey pub = kf.generatePublic(new X509EncodedKeySpec(Files.readAllBytes(pubPath)));
+            return new KeyPair(pub, priv);
+        }
+        KeyPair keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Files.deleteIfExists(keyPath);
+        if (keyPath.getFileSystem().supportedFileAttributeViews().contains("posix")){
+            Files.createFile(keyPath, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(keyPath);
+            keyPath.toFile().setReadable(false, false);
+            keyPath.toFile().setReadable(true, true);
+        }
+        Files.write(keyPath, keys.getPrivate().getEncoded());
+        Files.write(pubPath, keys.getPublic().getEncoded());
+        System.err.println("created signing key " + keyPath + " (public key in " + pubPath + ")");
+        return keys;
+    }
+
+    // checks the report's signature against trustedPub (X.509); the key named in the report is ignored
+    static boolean verify(String report, Path trustedPub) throws IOException, GeneralSecurityException {
+        int at = report.indexOf(SIGNATURE_LINE + "\n");
+        if (at < 0) return false;
+        String body = report.substring(0, at);
+        String sigB64 = null;
+        for (String line : report.substring(at).split("\n")){
+            if (line.startsWith("signature: ")) sigB64 = line.substring(11).trim();
+        }
+        if (sigB64 == null) return false;
+        PublicKey pub = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(Files.readAllBytes(trustedPub)));
+        Signature s = Signature.getInstance("Ed25519");
+        s.initVerify(pub);
+        s.update(body.getBytes(StandardCharsets.UTF_8));
+        return s.verify(Base64.getDecoder().decode(sigB64));
+    }
+
+    // whether the signed part of the report says RESULT: PASS; check verify() first
+    static boolean passed(String report){
+        int at = report.indexOf(SIGNATURE_LINE + "\n");
+        for (String line : (at < 0 ? report : report.substring(0, at)).split("\n")){
+            if (line.startsWith("RESULT: ")) return line.substring(8).trim().equals("PASS");
+        }
+        return false;
+    }
+
+    /* ---------------------- Main ---------------------- */
+
+    public static void main(String[] args) throws Exception {
+        long draws = 1_000_000_000L, shuffles = 200_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Long seed = null;
+        Path key = Paths.get("rng-audit.key"), out = null, verifyPath = null, pub = null;
+        for (int i = 0; i < args.length; i++){
+            switch (args[i]){
+                case "--draws": draws = Long.parseLong(args[++i].replace("_", "")); break;
+                case "--shuffles": shuffles = Long.parseLong(args[++i].replace("_", "")); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--key": key = Paths.get(args[++i]); break;
+                case "--out": out = Paths.get(args[++i]); break;
+                case "--verify": verifyPath = Paths.get(args[++i]); break;
+                case "--pub": pub = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("usage: java RngAudit [--draws n] [--shuffles n] [--threads n] [--seed s] [--key file] [--out file]");
+                    System.err.println("       java RngAudit --verify report.txt [--pub key.pub] [--key file]");
+                    System.exit(2);
+            }
+        }
+
+        if (verifyPath != null){
+            String report = new String(Files.readAllBytes(verifyPath), StandardCharsets.UTF_8);
+            Path trusted = pub != null ? pub : Paths.get(key + ".pub");
+            if (!Files.exists(trusted)){
+                System.out.println("no trusted public key: " + trusted + " not found (give one with --pub)");
+                System.exit(1);
+            }
+            boolean valid;
+            try {
+                valid = verify(report, trusted);
+            } catch (GeneralSecurityException | IllegalArgumentException ex){
+                valid = false; // a malformed key or signature
+            }
+            if (!valid){
+                System.out.println("signature INVALID");
+                System.exit(1);
+            }
+            boolean passed = passed(report);
+            System.out.println("signature OK, " + (passed ? "RESULT: PASS" : "RESULT: FAIL"));
+            System.exit(passed ? 0 : 1);
+        }
+
+        // half the draws are full draw-downs, half single draws for the birthday test; shuffles
+        // are split between full-deck positions and the small-deck permutations
+        long drawDowns = draws / 2 / 52, singleDraws = draws / 2;
+        long bigShuffles = shuffles / 2, smallRounds = shuffles / 2 / 4;
+        SplittableRandom seeds = seed == null ? null : new SplittableRandom(seed);
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        long t0 = System.nanoTime();
+        for (int w = 0; w < threads; w++){
+            // seeded: independent streams from one seed; unseeded: new Random(), as the game does
+            TracingRandom rng = seeds == null ? new TracingRandom() : new TracingRandom(seeds.nextLong());
+            workers[w] = new Worker(rng, share(drawDowns, threads, w), share(singleDraws, threads, w),
+                    share(bigShuffles, threads, w), share(smallRounds, threads, w));
+            running[w] = new Thread(workers[w], "RngAudit-" + w);
+            running[w].start();
+        }
+        Counts all = new Counts();
+        for (int w = 0; w < threads; w++){
+            running[w].join();
+            all.merge(workers[w].counts);
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        List<Result> results = evaluate(all);
+        String body = report(results, draws, shuffles, threads, seed == null ? "none" : String.valueOf(seed), seconds);
+        String signed = sign(body, key);
+        if (out != null) Files.write(out, signed.getBytes(StandardCharsets.UTF_8));
+        System.out.print(signed);
+        if (!results.stream().allMatch(Result::passed)) System.exit(1);
+    }
+
+    private static long share(long total, int parts, int i){
+        return total / parts + (i < total % parts ? 1 : 0);
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Runs scripted game sessions against GameRound with no UI (nothing from AWT or Swing is
+ * loaded), in parallel, and prints one result line per session plus timing.
+ *
+ *     java -cp . SessionRunner [-t threads] [-r repeat] [-q] script-or-folder...
+ *
+ * Every .txt file is a script; a line holding only --- starts another session in the same
+ * file. One command per line, # starts a comment:
+ *
+ *     seed 42                       random seed for the session (default: from its name)
+ *     bet 10 card Q spades          also: bet 10 suit hearts | colour red | number 7
+ *     parlay 5 red & face then 7    side bet on the next draws, one filter per draw (ParlayBet)
+ *     multiplier suit 2.5           individual, suit, colour, odd or even
+ *     remove red & face             deck edits take a filter expression (see CardFilter);
+ *     keep spades                   also: add ..., undo, redo, reset
+ *     shuffle
+ *     draw 3                        draws one card when no count is given
+ *     window 5                      win window: the last K draws settle the bet (default 3)
+ *     end                           settles the bet against the last K draws
+ *     expect net 40.5               also: expect deck 49 | expect hit true | expect draws 3
+ *
+ * A session fails on a bad command or an unmet expectation. With -r each session runs that
+ * many times, with seeds seed, seed+1, ..., which turns a handful of scripts into a load test.
+ * The exit status is 1 when any session failed.
+ */
+public class SessionRunner {
+
+    private static final class Session {
+        final String name;
+        final List<String> lines = new ArrayList<>();
+        final int firstLine; // line number of lines.get(0) in the file
+        Session(String name, int firstLine){ this.name = name; this.firstLine = firstLine; }
+    }
+
+    private static final class Result {
+        final String name;
+        String error = null; // null when the session passed
+        long net = 0; // minor units
+        int draws = 0;
+        long nanos = 0;
+        Result(String name){ this.name = name; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int repeat = 1;
+        boolean quiet = false;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++){
+            switch (args[i]){
+                case "-t": threads = Integer.parseInt(args[++i]); break;
+                case "-r": repeat = Integer.parseInt(args[++i]); break;
+                case "-q": quiet = true; break;
+                default: inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty() || threads <= 0 || repeat <= 0){
+            System.err.println("usage: java SessionRunner [-t threads] [-r repeat] [-q] script-or-folder...");
+            System.exit(2);
+        }
+
+        List<Session> sessions = new ArrayList<>();
+        for (Path in : inputs) for (Path f : scripts(in)) sessions.addAll(parse(f));
+
+        final int reps = repeat;
+        int total = sessions.size() * reps;
+        Result[] results = new Result[total];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long t0 = System.nanoTime();
+        List<Future<?>> pending = new ArrayList<>(total);
+        for (int i = 0; i < total; i++){
+            final int idx = i;
+            pending.add(pool.submit(() -> { results[idx] = run(sessions.get(idx / reps), idx % reps); }));
+        }
+        for (Future<?> f : pending) f.get();
+        long wall = System.nanoTime() - t0;
+        pool.shutdown();
+
+        int failed = 0;
+        long[] times = new long[total];
+        for (int i = 0; i < total; i++){
+            Result r = results[i];
+            times[i] = r.nanos;
+            if (r.error != null) failed++;
+            if (!quiet || r.error != null){
+                System.out.printf("%s\t%s\tnet=%s\tdraws=%d\t%dus%s%n", r.name, r.error == null ? "ok" : "FAIL",
+                        Money.format(r.net), r.draws, r.nanos / 1000, r.error == null ? "" : "\t" + r.error);
+            }
+        }
+        Arrays.sort(times);
+        System.out.printf("%d sessions, %d failed, %d threads, %.1f ms wall, %.0f sessions/s, p50 %dus, p99 %dus%n",
+                total, failed, threads, wall / 1e6, total / (wall / 1e9),
+                total == 0 ? 0 : times[total / 2] / 1000, total == 0 ? 0 : times[(int) Math.min(total - 1, total * 99L / 100)] / 1000);
+        if (failed > 0) System.exit(1);
+    }
+
+    private static List<Path> scripts(Path in) throws IOException {
+        if (!Files.isDirectory(in)) return Collections.singletonList(in);
+        try (Stream<Path> s = Files.walk(in)){
+            List<Path> out = new ArrayList<>();
+            s.filter(p -> p.toString().endsWith(".txt")).sorted().forEach(out::add);
+            return out;
+        }
+    }
+
+    private static List<Session> parse(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        String base = file.getFileName().toString();
+        List<Session> out = new ArrayList<>();
+        Session cur = new Session(base, 1);
+        for (int i = 0; i < lines.size(); i++){
+            if (lines.get(i).trim().equals("---")){
+                out.add(cur);
+                cur = new Session(base + "#" + (out.size() + 1), i + 2);
+            } else {
+                cur.lines.add(lines.get(i));
+            }
+        }
+        out.add(cur);
+        return out;
+    }
+
+    private static Result run(Session s, int rep){
+        String name = rep == 0 ? s.name : s.name + "@" + rep;
+        Result r = new Result(name);
+        long t0 = System.nanoTime();
+        try {
+            // the seed line, if any, has to be known before the round is created
+            long seed = s.name.hashCode();
+            for (String line : s.lines){
+                String[] w = words(line);
+                if (w.length == 2 && w[0].equals("seed")) seed = Long.parseLong(w[1]);
+            }
+            GameRound round = new GameRound(new Random(seed + rep));
+            for (int i = 0; i < s.lines.size(); i++){
+                try {
+                    step(round, r, words(s.lines.get(i)));
+                } catch (RuntimeException ex){
+                    throw new IllegalArgumentException("line " + (s.firstLine + i) + ": " + ex.getMessage(), ex);
+                }
+            }
+        } catch (RuntimeException ex){
+            r.error = ex.getMessage();
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private static String[] words(String line){
+        int hash = line.indexOf('#');
+        if (hash >= 0) line = line.substring(0, hash);
+        line = line.trim();
+        return line.isEmpty() ? new String[0] : line.split("\\s+");
+    }
+
+    private static void step(GameRound round, Result r, String[] w){
+        if (w.length == 0) return;
+        switch (w[0].toLowerCase(Locale.ROOT)){
+            case "seed": break; // read before the session starts
+            case "bet": {
+                need(w, 3);
+                int bet = Integer.parseInt(w[1]);
+                switch (w[2].toLowerCase(Locale.ROOT)){
+                    case "card": need(w, 5); round.choose(bet, ChosenType.INDIVIDUAL, rank(w[3]), suit(w[4]), null); break;
+                    case "suit": need(w, 4); round.choose(bet, ChosenType.SUIT, null, suit(w[3]), null); break;
+                    case "colour": case "color": need(w, 4);
+                        round.choose(bet, ChosenType.COLOUR, null, null, ColorType.valueOf(w[3].toUpperCase(Locale.ROOT))); break;
+                    case "number": need(w, 4); round.choose(bet, ChosenType.NUMBER, rank(w[3]), null, null); break;
+                    default: throw new IllegalArgumentException("unknown bet type '" + w[2] + "'");
+                }
+                break;
+            }
+            case "multiplier": {
+                need(w, 3);
+                double m = Double.parseDouble(w[2]);
+                double[] mul = { round.mulIndividual, round.mulSuit, round.mulColour, round.mulNumberOdd, round.mulNumberEven };
+                switch (w[1].toLowerCase(Locale.ROOT)){
+                    case "individual": mul[0] = m; break;
+                    case "suit": mul[1] = m; break;
+                    case "colour": case "color": mul[2] = m; break;
+                    case "odd": mul[3] = m; break;
+                    case "even": mul[4] = m; break;
+                    default: throw new IllegalArgumentException("unknown multiplier '" + w[1] + "'");
+                }
+                // through the setter, like the settings screen, so BET_CHANGED goes out
+                round.setMultipliers(mul[0], mul[1], mul[2], mul[3], mul[4]);
+                break;
+            }
+            case "remove": { long m = CardFilter.compile(rest(w)); round.edit(() -> round.deck.removeMask(m)); break; }
+            case "keep": { long m = CardFilter.compile(rest(w)); round.edit(() -> round.deck.keepMask(m)); break; }
+            case "add": { long m = CardFilter.compile(rest(w)); round.edit(() -> round.deck.addMask(m)); break; }
+            case "undo": round.undo(); break;
+            case "redo": round.redo(); break;
+            case "reset": round.edit(round.deck::resetToFull); round.drawHistory.clear(); break; // history only once the edit is allowed
+            case "shuffle": round.shuffle(); break;
+            case "window": need(w, 2); round.setWindow(Integer.parseInt(w[1])); break;
+            case "parlay":
+                need(w, 3);
+                round.placeParlay(ParlayBet.compile(String.join(" ", Arrays.copyOfRange(w, 2, w.length))), Integer.parseInt(w[1]));
+                break;
+            case "draw": {
+                int n = w.length > 1 ? Integer.parseInt(w[1]) : 1;
+                for (int i = 0; i < n; i++){
+                    if (round.draw() == null) throw new IllegalArgumentException("deck is empty");
+                    r.draws++;
+                }
+                break;
+            }
+            case "end": r.net = round.settle(); break;
+            case "expect": {
+                need(w, 3);
+                String actual;
+                switch (w[1].toLowerCase(Locale.ROOT)){
+                    case "net":
+                        // compared in minor units, so "40", "40.00" and "$40" all match
+                        if (Money.parse(w[2]) != r.net) throw new IllegalArgumentException("expected net " + w[2] + " but was " + Money.format(r.net));
+                        return;
+                    case "deck": actual = String.valueOf(round.deck.size()); break;
+                    case "hit": actual = String.valueOf(round.windowHit); break;
+                    case "draws": actual = String.valueOf(round.drawHistory.size()); break;
+                    default: throw new IllegalArgumentException("unknown expectation '" + w[1] + "'");
+                }
+                if (!actual.equalsIgnoreCase(w[2])) throw new IllegalArgumentException("expected " + w[1] + " " + w[2] + " but was " + actual);
+                break;
+            }
+            default: throw new IllegalArgumentException("unknown command '" + w[0] + "'");
+        }
+    }
+
+    private static void need(String[] w, int n){
+        if (w.length < n) throw new IllegalArgumentException("'" + w[0] + "' needs " + (n - 1) + " argument(s)");
+    }
+
+    private static String rest(String[] w){
+        return String.join(" ", Arrays.copyOfRange(w, 1, w.length));
+    }
+
+    private static String rank(String s){
+        String r = s.toUpperCase(Locale.ROOT);
+        if (Card.rankIndex(r) < 0) throw new IllegalArgumentException("unknown rank '" + s + "'");
+        return r;
+    }
+
+    private static Suit suit(String s){
+        try { return Suit.valueOf(s.toUpperCase(Locale.ROOT)); }
+        catch (IllegalArgumentException ex) { throw new IllegalArgumentException("unknown suit '" + s + "'"); }
+    }
+}
@@ -0,0 +1,172 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+
+/**
+ * A full-screen mirror of the card area and the result for spectators, shown undecorated on a
+ * second screen while the dealer keeps the full table on the first.
+ *
+ * Nothing is painted twice. The mirrored CardComponent already paints the card into its own
+ * back buffer once per change (see CardComponent.frame()); the mirror scales that buffer to its
+ * screen once per new frame and otherwise only blits the scaled copy. The caption under the
+ * card is rendered into an image once per text or size change in the same way. Repaints are
+ * driven by the component's frame listener, so an idle table costs the mirror nothing. With a
+ * listener attached the component renders each new card as it is set, not when its own window
+ * paints, so the mirror stays current while the dealer's window is minimised or covered.
+ *
+ * With a single screen the mirror opens as an ordinary window, which is handy for rehearsals.
+ * EDT only.
+ */
+final class SpectatorDisplay {
+
+    private static final Color BACKGROUND = new Color(20,22,26);
+    private static final double CAPTION_SHARE = 0.14; // of the screen height
+
+    private final JFrame window;
+    private final View view = new View();
+    private final Runnable onFrame = view::repaint;
+    private final GraphicsDevice device;
+    private gamePanel.CardComponent source = null;
+
+    private SpectatorDisplay(GraphicsDevice device, boolean fullScreen){
+        this.device = device;
+        window = new JFrame("CardDraw - Spectators", device.getDefaultConfiguration());
+        window.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        window.setContentPane(view);
+        view.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "close");
+        view.getActionMap().put("close", new AbstractAction(){
+            @Override public void actionPerformed(java.awt.event.ActionEvent e){ close(); }
+        });
+        if (fullScreen){
+            window.setUndecorated(true);
+            window.setBounds(device.getDefaultConfiguration().getBounds());
+            if (device.isFullScreenSupported()) device.setFullScreenWindow(window);
+        } else {
+            Rectangle b = device.getDefaultConfiguration().getBounds();
+            window.setBounds(b.x + b.width / 8, b.y + b.height / 8, b.width * 3 / 4, b.height * 3 / 4);
+        }
+    }
+
+    /**
+     * Opens the mirror on the first screen that is not the one `dealer` is on, full-screen, or
+     * in a window on the dealer's screen when there is only one.
+     */
+    static SpectatorDisplay open(Component dealer){
+        GraphicsConfiguration gc = dealer.getGraphicsConfiguration();
+        GraphicsDevice dealerDevice = gc != null ? gc.getDevice()
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        for (GraphicsDevice d : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()){
+            if (d.getType() == GraphicsDevice.TYPE_RASTER_SCREEN && !d.equals(dealerDevice)){
+                SpectatorDisplay s = new SpectatorDisplay(d, true);
+                s.window.setVisible(true);
+                return s;
+            }
+        }
+        SpectatorDisplay s = new SpectatorDisplay(dealerDevice, false);
+        s.window.setVisible(true);
+        return s;
+    }
+
+    boolean isOpen(){ return window.isDisplayable(); }
+
+    void close(){
+        mirror(null);
+        if (device.getFullScreenWindow() == window) device.setFullScreenWindow(null);
+        window.dispose();
+    }
+
+    /** Mirrors `card` from now on (null shows an empty table). */
+    void mirror(gamePanel.CardComponent card){
+        if (card == source) return;
+        if (source != null) source.removeFrameListener(onFrame);
+        source = card;
+        if (source != null) source.addFrameListener(onFrame);
+        view.scaledVersion = -1;
+        view.repaint();
+    }
+
+    /** The line shown under the card, e.g. the result; null or empty for none. */
+    void setCaption(String text, Color colour){
+        view.caption = text == null ? "" : text;
+        view.captionColour = colour;
+        view.captionImage = null;
+        view.repaint();
+    }
+
+    private final class View extends JComponent {
+        String caption = "";
+        Color captionColour = Color.WHITE;
+        BufferedImage scaled = null, captionImage = null;
+        int scaledVersion = -1;
+        private gamePanel.CardComponent scaledSource = null;
+
+        View(){ setOpaque(true); }
+
+        @Override
+        protected void paintComponent(Graphics g){
+            Graphics2D g2 = (Graphics2D) g.create();
+            double scale = g2.getTransform().getScaleX();
+            int w = getWidth(), h = getHeight();
+            g2.setColor(BACKGROUND);
+            g2.fillRect(0, 0, w, h);
+
+            int captionH = caption.isEmpty() ? 0 : (int) (h * CAPTION_SHARE);
+            int cardH = h - captionH;
+            BufferedImage src = source == null ? null : source.frame();
+            if (src != null && w > 0 && cardH > 0){
+                // fit the source frame into the card area, keeping its aspect
+                double fit = Math.min((double) w / src.getWidth(), (double) cardH / src.getHeight());
+                int dw = (int) (src.getWidth() * fit), dh = (int) (src.getHeight() * fit);
+                int pw = (int) Math.ceil(dw * scale), ph = (int) Math.ceil(dh * scale);
+                if (pw > 0 && ph > 0){
+                    if (scaled == null || scaled.getWidth() != pw || scaled.getHeight() != ph
+                            || scaledSource != source || scaledVersion != source.frameVersion()){
+                        if (scaled == null || scaled.getWidth() != pw || scaled.getHeight() != ph)
+                            scaled = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_RGB);
+                        Graphics2D sg = scaled.createGraphics();
+                        sg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                        sg.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                        sg.drawImage(src, 0, 0, pw, ph, null);
+                        sg.dispose();
+                        scaledSource = source;
+                        scaledVersion = source.frameVersion();
+                    }
+                    g2.drawImage(scaled, (w - dw) / 2, (cardH - dh) / 2, dw, dh, null);
+                }
+            }
+
+            if (captionH > 0){
+                int pw = (int) Math.ceil(w * scale), ph = (int) Math.ceil(captionH * scale);
+                if (captionImage == null || captionImage.getWidth() != pw || captionImage.getHeight() != ph)
+                    captionImage = renderCaption(pw, ph);
+                g2.drawImage(captionImage, 0, cardH, w, captionH, null);
+            }
+            g2.dispose();
+        }
+
+        private BufferedImage renderCaption(int pw, int ph){
+            BufferedImage img = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_RGB);
+            Graphics2D cg = img.createGraphics();
+            cg.setColor(BACKGROUND);
+            cg.fillRect(0, 0, pw, ph);
+            cg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            cg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Font font = gamePanel.CardComponent.font("Segoe UI", Font.BOLD, Math.max(8, ph * 3 / 5));
+            FontRenderContext frc = cg.getFontRenderContext();
+            TextLayout layout = new TextLayout(caption, font, frc);
+            float tw = layout.getAdvance();
+            if (tw > pw * 0.95f){
+                font = font.deriveFont(font.getSize2D() * pw * 0.95f / tw);
+                layout = new TextLayout(caption, font, frc);
+                tw = layout.getAdvance();
+            }
+            cg.setColor(captionColour);
+            layout.draw(cg, (pw - tw) / 2, (ph + layout.getAscent() - layout.getDescent()) / 2);
+            cg.dispose();
+            return img;
+        }
+    }
+}
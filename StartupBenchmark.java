@@ -0,0 +1,178 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Time to first draw, from process launch, for the headless engine and for the Swing UI
+ * (Main.main), each in fresh JVMs:
+ *
+ *     java -cp . StartupBenchmark [-n runs=5] [--cds dir]
+ *
+ * The engine (GameRound, Deck, Card, the bets, ledger and tools) needs nothing from AWT or
+ * Swing. The headless runs prove it: they start with --limit-modules java.base, so any class
+ * that reached for java.desktop would fail to load. gamePanel, Main, SpectatorDisplay,
+ * PaintBenchmark and RoundedPanel are the UI; everything else compiles with
+ *
+ *     javac --limit-modules java.base,jdk.management ...
+ *
+ * (jdk.management only for the allocation counters in the benchmarks' main methods).
+ *
+ * With --cds the classes are packaged into dir/carddraw.jar (AppCDS does not archive classes
+ * from directories), one training run per entry point writes a dynamic AppCDS archive with
+ * -XX:ArchiveClassesAtExit, and the measured runs start from those archives as well. The
+ * JVM does not map archives together with --limit-modules, so the archived headless runs go
+ * without it. The launch commands for the archived jar are printed at the end.
+ *
+ * A run is timed from ProcessBuilder.start() to the child printing its first card. The UI runs
+ * fail without a display; they are reported as such and the headless figures still stand.
+ */
+public class StartupBenchmark {
+
+    private static final String DRAWN = "drawn ";
+    private static final String JAR = "carddraw.jar";
+    private static final int TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--child")){
+            if (args[1].equals("ui")) Ui.run(); else headless();
+            return;
+        }
+        int runs = 5;
+        Path cds = null;
+        for (int i = 0; i < args.length; i++){
+            switch (args[i]){
+                case "-n": runs = Integer.parseInt(args[++i]); break;
+                case "--cds": cds = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("usage: java StartupBenchmark [-n runs] [--cds dir]");
+                    System.exit(2);
+            }
+        }
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String cp = System.getProperty("java.class.path");
+        System.out.println("Entry point                     runs   median ms      min ms");
+        measure("headless (java.base only)", runs, command(java, cp, null, "headless"));
+        measure("ui (Main.main, first paint)", runs, command(java, cp, null, "ui"));
+
+        if (cds != null){
+            Files.createDirectories(cds);
+            Path jar = cds.resolve(JAR);
+            packageClasses(cp, jar);
+            for (String mode : new String[]{ "headless", "ui" }){
+                Path archive = cds.resolve(mode + ".jsa");
+                Files.deleteIfExists(archive);
+                List<String> train = command(java, jar.toString(), "-XX:ArchiveClassesAtExit=" + archive, mode);
+                if (run(train) < 0 || !Files.exists(archive)){
+                    System.out.printf("%-30s  training run failed, no archive%n", mode + " + AppCDS");
+                    continue;
+                }
+                measure(mode + " + AppCDS", runs, command(java, jar.toString(), "-XX:SharedArchiveFile=" + archive, mode));
+            }
+            System.out.println();
+            System.out.println("Launch with the archives:");
+            System.out.println("  java -XX:SharedArchiveFile=" + cds.resolve("ui.jsa") + " -cp " + jar + " Main");
+            System.out.println("  java -XX:SharedArchiveFile=" + cds.resolve("headless.jsa") + " -cp " + jar + " SessionRunner ...");
+        }
+    }
+
+    private static List<String> command(String java, String cp, String vmOption, String mode){
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        if (vmOption != null) cmd.add(vmOption);
+        // CDS refuses --limit-modules, so only the plain headless runs check the module boundary
+        if (mode.equals("headless") && vmOption == null){ cmd.add("--limit-modules"); cmd.add("java.base"); }
+        cmd.add("-cp"); cmd.add(cp);
+        cmd.add("StartupBenchmark"); cmd.add("--child"); cmd.add(mode);
+        return cmd;
+    }
+
+    private static void measure(String name, int runs, List<String> cmd) throws Exception {
+        run(cmd); // warms the OS file cache
+        double[] ms = new double[runs];
+        for (int i = 0; i < runs; i++){
+            long nanos = run(cmd);
+            if (nanos < 0){
+                System.out.printf("%-30s  failed (no display for the UI?)%n", name);
+                return;
+            }
+            ms[i] = nanos / 1e6;
+        }
+        Arrays.sort(ms);
+        System.out.printf("%-30s %5d %11.1f %11.1f%n", name, runs, ms[runs / 2], ms[0]);
+    }
+
+    // nanoseconds until the child printed its first card, or -1 when it never did
+    private static long run(List<String> cmd) throws Exception {
+        ProcessBuilder pb = new ProcessBuilder(cmd).redirectErrorStream(true);
+        long t0 = System.nanoTime();
+        Process p = pb.start();
+        long nanos = -1;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))){
+            for (String line; (line = in.readLine()) != null; ){
+                if (nanos < 0 && line.startsWith(DRAWN)) nanos = System.nanoTime() - t0;
+            }
+        }
+        if (!p.waitFor(TIMEOUT_SECONDS, java.util.concurrent.TimeUnit.SECONDS)){
+            p.destroyForcibly();
+            return -1;
+        }
+        return p.exitValue() == 0 ? nanos : -1;
+    }
+
+    // the class directories on the classpath, as one jar
+    private static void packageClasses(String cp, Path jar) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))){
+            for (String entry : cp.split(File.pathSeparator)){
+                Path dir = Paths.get(entry);
+                if (!Files.isDirectory(dir)) continue;
+                List<Path> classes;
+                try (Stream<Path> s = Files.walk(dir)){
+                    classes = s.filter(f -> f.toString().endsWith(".class")).sorted().collect(java.util.stream.Collectors.toList());
+                }
+                for (Path f : classes){
+                    out.putNextEntry(new JarEntry(dir.relativize(f).toString().replace(File.separatorChar, '/')));
+                    Files.copy(f, out);
+                    out.closeEntry();
+                }
+            }
+        }
+    }
+
+    /* ---------------------- Children ---------------------- */
+
+    private static void headless(){
+        GameRound round = new GameRound();
+        round.choose(10, ChosenType.SUIT, "A", Suit.HEARTS, ColorType.RED);
+        System.out.println(DRAWN + round.draw());
+    }
+
+    // a class of its own, so the headless child never loads a Swing type, even to verify
+    private static final class Ui {
+        static void run() throws Exception {
+            if (java.awt.GraphicsEnvironment.isHeadless()) System.exit(1);
+            Main.main(new String[0]);
+            long giveUp = System.nanoTime() + TIMEOUT_SECONDS * 1_000_000_000L;
+            javax.swing.JFrame[] frame = new javax.swing.JFrame[1];
+            while (frame[0] == null){
+                javax.swing.SwingUtilities.invokeAndWait(() -> {
+                    for (java.awt.Frame f : java.awt.Frame.getFrames())
+                        if (f.isShowing() && f instanceof javax.swing.JFrame) frame[0] = (javax.swing.JFrame) f;
+                });
+                if (frame[0] == null && System.nanoTime() > giveUp) System.exit(1);
+                if (frame[0] == null) Thread.sleep(1);
+            }
+            javax.swing.SwingUtilities.invokeAndWait(() -> {
+                javax.swing.JComponent c = (javax.swing.JComponent) frame[0].getContentPane();
+                c.paintImmediately(0, 0, c.getWidth(), c.getHeight());
+                GameRound round = new GameRound();
+                round.choose(10, ChosenType.SUIT, "A", Suit.HEARTS, ColorType.RED);
+                System.out.println(DRAWN + round.draw());
+            });
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+enum Suit { HEARTS("♥"), DIAMONDS("♦"), CLUBS("♣"), SPADES("♠");
+    final String glyph; Suit(String g){ glyph = g; }
+    public String glyph(){ return glyph; }
+}
@@ -0,0 +1,342 @@
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Assigns tables to TableShard processes by consistent hashing and routes table requests to
+ * the owning shard. Each shard sits on the hash ring at VIRTUAL_NODES points, so adding or
+ * removing a shard only moves the tables on the arcs it gains or loses (about 1/n of them).
+ *
+ * A table is migrated by exporting its compact state from the old owner (deck bitmask, bet,
+ * multipliers, window size and the draws in it; see GameRound.writeState), importing it on the new one and
+ * dropping the old copy. Ring changes take the write lock, so no request on a moving table
+ * can slip in between. removeShard() is a graceful drain; tables on a shard that crashed are
+ * lost, as nothing is replicated.
+ *
+ * The progressive jackpot spans every table on every shard. The coordinator holds the one
+ * pot; shards run --pooled and only collect their tables' contributions (Jackpot.feeder). When
+ * END reports a hit, the coordinator takes every shard's collection into the pot and claims
+ * it, so the award is linearizable across shards. A drained shard's collection is taken
+ * before it leaves; a crashed shard's is lost with its tables.
+ *
+ *     java -cp . TableCoordinator --local 3 [--tables 500]
+ *
+ * starts that many shard JVMs on loopback, plays on the tables, adds and removes shards and
+ * checks that every table's state survives each migration. It exits 1 on any mismatch.
+ */
+public class TableCoordinator implements Closeable {
+
+    private static final int VIRTUAL_NODES = 64;
+
+    // one connection per shard; requests on it are strictly one line out, one line back
+    static final class Shard implements Closeable {
+        final String address;
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Shard(String host, int port) throws IOException {
+            this.address = host + ":" + port;
+            this.socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        // the reply without its "OK" prefix
+        synchronized String call(String request) throws IOException {
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) throw new IOException("Shard " + address + " closed the connection");
+            if (reply.startsWith("ERR")) throw new IOException("Shard " + address + ": " + reply.substring(3).trim());
+            return reply.length() > 2 ? reply.substring(3) : "";
+        }
+
+        @Override public void close() throws IOException {
+            try { call("QUIT"); } catch (IOException ignored) { }
+            socket.close();
+        }
+    }
+
+    private final TreeMap<Long,Shard> ring = new TreeMap<>();
+    private final Map<String,Shard> shards = new LinkedHashMap<>();
+    private final Set<String> tables = new HashSet<>(); // every table opened through here
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Jackpot jackpot = new Jackpot(TableShard.JACKPOT_SHARE, TableShard.JACKPOT_SEED);
+
+    /* ---------------------- Membership ---------------------- */
+
+    // returns how many tables moved onto the new shard
+    int addShard(String host, int port) throws IOException {
+        Shard shard = new Shard(host, port);
+        lock.writeLock().lock();
+        try {
+            if (shards.containsKey(shard.address)){ shard.close(); return 0; }
+            if (!shard.call("JACKPOT").endsWith(" POOLED")){
+                shard.close();
+                throw new IllegalStateException("Shard " + shard.address + " keeps its own jackpot; start it with --pooled");
+            }
+            Map<String,Shard> before = owners();
+            shards.put(shard.address, shard);
+            for (int i = 0; i < VIRTUAL_NODES; i++) ring.put(hash(shard.address + "#" + i), shard);
+            return rebalance(before);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // drains the shard's tables onto the remaining shards; returns how many moved
+    int removeShard(String address) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Shard shard = shards.get(address);
+            if (shard == null) return 0;
+            if (shards.size() == 1 && !tables.isEmpty()) throw new IllegalStateException("Cannot remove the last shard while it holds tables");
+            Map<String,Shard> before = owners();
+            shards.remove(address);
+            ring.values().removeIf(s -> s == shard);
+            int moved = rebalance(before);
+            collect(shard);
+            shard.close();
+            return moved;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<String> shardAddresses(){
+        lock.readLock().lock();
+        try { return new ArrayList<>(shards.keySet()); }
+        finally { lock.readLock().unlock(); }
+    }
+
+    String ownerOf(String table){
+        lock.readLock().lock();
+        try { return owner(table).address; }
+        finally { lock.readLock().unlock(); }
+    }
+
+    private Map<String,Shard> owners(){
+        Map<String,Shard> m = new HashMap<>();
+        if (!ring.isEmpty()) for (String t : tables) m.put(t, owner(t));
+        return m;
+    }
+
+    private int rebalance(Map<String,Shard> before) throws IOException {
+        int moved = 0;
+        for (Map.Entry<String,Shard> e : before.entrySet()){
+            Shard to = owner(e.getKey());
+            if (to != e.getValue()){
+                migrate(e.getKey(), e.getValue(), to);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private static void migrate(String table, Shard from, Shard to) throws IOException {
+        String state = from.call("EXPORT " + table);
+        to.call("IMPORT " + table + " " + state);
+        from.call("DROP " + table);
+    }
+
+    private Shard owner(String table){
+        if (ring.isEmpty()) throw new IllegalStateException("No shards");
+        Map.Entry<Long,Shard> e = ring.ceilingEntry(hash(table));
+        return (e != null ? e : ring.firstEntry()).getValue();
+    }
+
+    // FNV-1a, then a 64-bit finaliser so nearby names land far apart on the ring
+    private static long hash(String s){
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++){
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /* ---------------------- Table requests ---------------------- */
+
+    private String route(String table, String request) throws IOException {
+        lock.readLock().lock();
+        try {
+            return owner(table).call(request);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void open(String table) throws IOException {
+        if (table.isEmpty() || table.chars().anyMatch(Character::isWhitespace)) throw new IllegalArgumentException("Bad table name '" + table + "'");
+        lock.readLock().lock();
+        try {
+            owner(table).call("OPEN " + table);
+            synchronized (tables){ tables.add(table); }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void bet(String table, int bet, ChosenType type, String rank, Suit suit, ColorType color) throws IOException {
+        route(table, "BET " + table + " " + bet + " " + type + " " + rank + " " + suit + " " + color);
+    }
+
+    // null when the deck is empty
+    Card draw(String table) throws IOException {
+        int ordinal = Integer.parseInt(route(table, "DRAW " + table));
+        return ordinal < 0 ? null : Card.fromOrdinal(ordinal);
+    }
+
+    // net result in minor units, jackpot included
+    long end(String table) throws IOException {
+        lock.readLock().lock();
+        try {
+            String[] reply = owner(table).call("END " + table).split(" ");
+            long net = Long.parseLong(reply[0]);
+            if (reply.length > 1 && reply[1].equals("JACKPOT")){
+                for (Shard s : shards.values()) collect(s);
+                net += jackpot.claim();
+            }
+            return net;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the pot across all shards in minor units, and its number
+    long[] jackpot() throws IOException {
+        lock.readLock().lock();
+        try {
+            for (Shard s : shards.values()) collect(s);
+            return new long[]{ jackpot.amount(), jackpot.potNumber() };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Shard shard) throws IOException {
+        jackpot.addUnits(Long.parseLong(shard.call("JACKPOT TAKE")));
+    }
+
+    void reset(String table) throws IOException {
+        route(table, "RESET " + table);
+    }
+
+    String exportState(String table) throws IOException {
+        return route(table, "EXPORT " + table);
+    }
+
+    @Override public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Shard s : shards.values()) s.close();
+            shards.clear();
+            ring.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ---------------------- Local multi-process check ---------------------- */
+
+    public static void main(String[] args) throws Exception {
+        int local = 0, tableCount = 500;
+        for (int i = 0; i < args.length; i++){
+            if (args[i].equals("--local")) local = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--tables")) tableCount = Integer.parseInt(args[++i]);
+        }
+        if (local < 2 || tableCount <= 0){
+            System.err.println("usage: java TableCoordinator --local <shards, at least 2> [--tables n]");
+            System.exit(2);
+        }
+
+        List<Process> processes = new ArrayList<>();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> processes.forEach(Process::destroy)));
+        boolean ok = true;
+        try (TableCoordinator coord = new TableCoordinator()){
+            for (int i = 0; i < local; i++) coord.addShard("127.0.0.1", launchShard(processes));
+            System.out.println("shards: " + coord.shardAddresses());
+
+            Random rng = new Random(1);
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < tableCount; i++){
+                String t = "table-" + i;
+                names.add(t);
+                coord.open(t);
+                coord.bet(t, 1 + rng.nextInt(50), ChosenType.values()[rng.nextInt(4)], Card.RANKS[rng.nextInt(13)],
+                        Suit.values()[rng.nextInt(4)], rng.nextBoolean() ? ColorType.RED : ColorType.BLACK);
+                coord.draw(t);
+                coord.draw(t);
+            }
+            Map<String,String> states = snapshot(coord, names);
+
+            long t0 = System.nanoTime();
+            int moved = coord.addShard("127.0.0.1", launchShard(processes));
+            System.out.printf("added a shard: %d of %d tables moved in %.1f ms%n", moved, tableCount, (System.nanoTime() - t0) / 1e6);
+            ok &= check(coord, names, states);
+
+            String drained = coord.shardAddresses().get(0);
+            t0 = System.nanoTime();
+            moved = coord.removeShard(drained);
+            System.out.printf("removed %s: %d tables moved in %.1f ms%n", drained, moved, (System.nanoTime() - t0) / 1e6);
+            ok &= check(coord, names, states);
+
+            // the migrated tables keep playing
+            long net = 0;
+            for (String t : names){ coord.draw(t); net += coord.end(t); }
+            System.out.println("played on after migration, table net total " + Money.format(net));
+
+            // fresh rounds on every table feed and win the one pot, whichever shard they are on
+            for (int r = 0; r < 20; r++){
+                for (String t : names){
+                    coord.reset(t);
+                    for (int d = 0; d < 3; d++) coord.draw(t);
+                    coord.end(t);
+                }
+            }
+            long[] pot = coord.jackpot();
+            System.out.printf("shared jackpot: %d award(s) so far, pot now %s%n", pot[1] - 1, Money.format(pot[0]));
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+        System.out.println(ok ? "all table states survived migration" : "MISMATCH");
+        if (!ok) System.exit(1);
+    }
+
+    private static Map<String,String> snapshot(TableCoordinator coord, List<String> names) throws IOException {
+        Map<String,String> m = new HashMap<>();
+        for (String t : names) m.put(t, coord.exportState(t));
+        return m;
+    }
+
+    private static boolean check(TableCoordinator coord, List<String> names, Map<String,String> expected) throws IOException {
+        int bad = 0;
+        for (String t : names){
+            if (!expected.get(t).equals(coord.exportState(t))) bad++;
+        }
+        if (bad > 0) System.out.println(bad + " table(s) changed state while moving");
+        return bad == 0;
+    }
+
+    // starts a TableShard JVM on a free loopback port and returns the port
+    private static int launchShard(List<Process> processes) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process p = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "TableShard", "0", "--pooled")
+                .redirectErrorStream(true).start();
+        processes.add(p);
+        BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
+        String line = r.readLine();
+        if (line == null || !line.startsWith("TableShard listening on ")) throw new IOException("Shard did not start: " + line);
+        return Integer.parseInt(line.substring(line.lastIndexOf(':') + 1).trim());
+    }
+}
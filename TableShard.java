@@ -0,0 +1,157 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shard of the table engine: a process hosting any number of tables (one GameRound
+ * each) behind a line-based TCP protocol. TableCoordinator decides which shard owns a table.
+ *
+ *     java -cp . TableShard <port> [bind-address] [--pooled]   (binds to loopback by default)
+ *
+ * Requests are one line each and get one line back, "OK ..." or "ERR message":
+ *
+ *     OPEN t                     create table t (a no-op when it exists)
+ *     BET t bet type rank suit colour   type: INDIVIDUAL, SUIT, COLOUR or NUMBER
+ *     DRAW t                     OK <card ordinal>, or OK -1 when the deck is empty
+ *     END t                      settle against the last K draws: OK <net in cents, jackpot included>,
+ *                                or OK <net> JACKPOT when pooled and the round hit the jackpot
+ *     RESET t                    full deck, empty history
+ *     EXPORT t                   OK <base64 of the compact state, see GameRound.writeState>
+ *     IMPORT t <base64>          create or overwrite table t from an exported state
+ *     DROP t                     forget table t
+ *     TABLES                     OK t1 t2 ...
+ *     JACKPOT                    OK <pot in cents> <pot number>, or OK <collected cents> POOLED
+ *     JACKPOT TAKE               pooled only: OK <collected units>, emptying the collection
+ *     PING / QUIT
+ *
+ * Each connection gets its own thread. Requests on one table are serialised on its round.
+ * All tables on the shard feed one progressive Jackpot, with no lock between tables. With
+ * --pooled, which TableCoordinator requires, the shard only collects for the coordinator's
+ * pot (Jackpot.feeder): the coordinator takes the collection and pays hits across all shards.
+ */
+public class TableShard {
+
+    static final double JACKPOT_SHARE = 0.01;  // of every stake
+    static final long JACKPOT_SEED = 1000_00;  // cents
+
+    private final Map<String,GameRound> tables = new ConcurrentHashMap<>();
+    private final Jackpot jackpot;
+    private final ServerSocket server;
+
+    TableShard(ServerSocket server, boolean pooled){
+        this.server = server;
+        this.jackpot = pooled ? Jackpot.feeder(JACKPOT_SHARE) : new Jackpot(JACKPOT_SHARE, JACKPOT_SEED);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        boolean pooled = rest.remove("--pooled");
+        if (rest.size() < 1){
+            System.err.println("usage: java TableShard <port> [bind-address] [--pooled]");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(rest.get(0));
+        InetAddress bind = rest.size() > 1 ? InetAddress.getByName(rest.get(1)) : InetAddress.getLoopbackAddress();
+        TableShard shard = new TableShard(new ServerSocket(port, 50, bind), pooled);
+        // the coordinator's local launcher waits for this line before connecting
+        System.out.println("TableShard listening on " + bind.getHostAddress() + ":" + shard.server.getLocalPort());
+        System.out.flush();
+        shard.serve();
+    }
+
+    void serve() throws IOException {
+        while (true){
+            Socket s = server.accept();
+            Thread t = new Thread(() -> handle(s), "TableShard-" + s.getPort());
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private void handle(Socket s){
+        try (Socket sock = s;
+             BufferedReader in = new BufferedReader(new InputStreamReader(sock.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(sock.getOutputStream(), StandardCharsets.UTF_8))){
+            sock.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null){
+                if (line.equals("QUIT")) break;
+                String reply;
+                try {
+                    reply = execute(line.trim().split("\\s+"));
+                } catch (IOException | RuntimeException ex){
+                    reply = "ERR " + ex.getMessage();
+                }
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException ex){
+            // connection dropped; the tables stay
+        }
+    }
+
+    String execute(String[] w) throws IOException {
+        switch (w[0]){
+            case "PING": return "OK";
+            case "TABLES": return ("OK " + String.join(" ", tables.keySet())).trim();
+            case "JACKPOT": {
+                if (w.length > 1 && w[1].equals("TAKE")){
+                    if (!jackpot.isFeeder()) throw new IllegalStateException("this shard keeps its own jackpot");
+                    return "OK " + jackpot.takeUnits();
+                }
+                return "OK " + jackpot.amount() + " " + (jackpot.isFeeder() ? "POOLED" : String.valueOf(jackpot.potNumber()));
+            }
+            case "OPEN": need(w, 2); tables.computeIfAbsent(w[1], k -> newTable()); return "OK";
+            case "DROP": need(w, 2); tables.remove(w[1]); return "OK";
+            case "IMPORT": {
+                need(w, 3);
+                GameRound round = newTable();
+                round.readState(new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(w[2]))));
+                tables.put(w[1], round);
+                return "OK";
+            }
+        }
+        need(w, 2);
+        GameRound round = tables.get(w[1]);
+        if (round == null) throw new IllegalArgumentException("no table " + w[1]);
+        synchronized (round){
+            switch (w[0]){
+                case "BET": {
+                    need(w, 7);
+                    round.choose(Integer.parseInt(w[2]), ChosenType.valueOf(w[3]), w[4], Suit.valueOf(w[5]), ColorType.valueOf(w[6]));
+                    return "OK";
+                }
+                case "DRAW": {
+                    Card c = round.draw();
+                    return "OK " + (c == null ? -1 : c.ordinal());
+                }
+                case "END": {
+                    long net = round.settle();
+                    return "OK " + net + (round.jackpotHit && jackpot.isFeeder() ? " JACKPOT" : "");
+                }
+                case "RESET": round.restart(); return "OK";
+                case "EXPORT": {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+                    round.writeState(new DataOutputStream(bytes));
+                    return "OK " + Base64.getEncoder().encodeToString(bytes.toByteArray());
+                }
+                default: throw new IllegalArgumentException("unknown request " + w[0]);
+            }
+        }
+    }
+
+    private GameRound newTable(){
+        GameRound round = new GameRound();
+        round.jackpot = jackpot;
+        return round;
+    }
+
+    private static void need(String[] w, int n){
+        if (w.length < n) throw new IllegalArgumentException(w[0] + " needs " + (n - 1) + " argument(s)");
+    }
+}
@@ -10,13 +10,19 @@ import javax.sound.sampled.*;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.plaf.basic.BasicButtonUI;
+import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.font.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
 import java.util.*;
 import java.util.List;
+import java.text.AttributedString;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class gamePanel extends JPanel {
 
@@ -24,176 +30,40 @@ public class gamePanel extends JPanel {
     private enum State { SETUP, PLAY, RESULT }
     private State currentState = State.SETUP;
 
-    // Card/type model
-    private enum Suit { HEARTS("♥"), DIAMONDS("♦"), CLUBS("♣"), SPADES("♠");
-        final String glyph; Suit(String g){ glyph = g; }
-        public String glyph(){ return glyph; }
-    }
-    private enum ColorType { RED, BLACK }
-    private static final String[] RANKS = {"A","2","3","4","5","6","7","8","9","10","J","Q","K"};
-
-    private static class Card {
-        final String rank;
-        final Suit suit;
-        Card(String rank, Suit suit){ this.rank = rank; this.suit = suit; }
-        boolean isFace(){ return "J".equals(rank) || "Q".equals(rank) || "K".equals(rank); }
-        ColorType color(){ return (suit == Suit.HEARTS || suit == Suit.DIAMONDS) ? ColorType.RED : ColorType.BLACK; }
-        @Override public String toString(){ return rank + suit.glyph(); }
-    }
-
-    private static class Deck {
-        private final List<Card> cards = new ArrayList<>();
-        Deck(){ resetToFull(); }
-        void resetToFull(){
-            cards.clear();
-            for (Suit s : Suit.values()){
-                for (String r : RANKS) cards.add(new Card(r,s));
-            }
-        }
-        void clear(){ cards.clear(); }
-        int size(){ return cards.size(); }
-        List<Card> asList(){ return Collections.unmodifiableList(cards); }
-        void removeSuit(Suit suit){ cards.removeIf(c -> c.suit == suit); }
-        void addSuit(Suit suit){
-            for (String r : RANKS){
-                Card c = new Card(r,suit);
-                boolean exists = false;
-                for (Card cc : cards) if (cc.rank.equals(c.rank) && cc.suit == c.suit) { exists = true; break; }
-                if (!exists) cards.add(c);
-            }
-        }
-        void removeColor(ColorType color){ cards.removeIf(c -> c.color() == color); }
-        void addColor(ColorType color){
-            for (Suit s : Suit.values()){
-                if ((color == ColorType.RED && (s==Suit.HEARTS || s==Suit.DIAMONDS)) ||
-                    (color == ColorType.BLACK && (s==Suit.CLUBS || s==Suit.SPADES))){
-                    addSuit(s);
-                }
-            }
-        }
-        void removeFaces(){ cards.removeIf(Card::isFace); }
-        void addFaces(){
-            for (Suit s : Suit.values()){
-                for (String r : new String[]{"J","Q","K"}) {
-                    boolean exists = false;
-                    for (Card c : cards) if (c.rank.equals(r) && c.suit == s) { exists = true; break; }
-                    if (!exists) cards.add(new Card(r,s));
-                }
-            }
-        }
-        Card drawRandom(Random rng){
-            if (cards.isEmpty()) return null;
-            int idx = rng.nextInt(cards.size());
-            return cards.remove(idx);
-        }
-        boolean removeCard(String rank, Suit suit){
-            return cards.removeIf(c -> c.rank.equals(rank) && c.suit == suit);
-        }
-        boolean contains(String rank, Suit suit){
-            for (Card c : cards) if (c.rank.equals(rank) && c.suit == suit) return true;
-            return false;
-        }
-        void addCard(String rank, Suit suit){
-            boolean exists = false;
-            for (Card c : cards) if (c.rank.equals(rank) && c.suit == suit) { exists = true; break; }
-            if (!exists) cards.add(new Card(rank, suit));
-        }
-        void shuffle(Random rng){
-            Collections.shuffle(cards, rng);
-        }
-
-        // counts
-        int countSuit(Suit suit){
-            int c = 0;
-            for (Card card : cards) if (card.suit == suit) c++;
-            return c;
-        }
-        int countColor(ColorType color){
-            int c = 0;
-            for (Card card : cards) if (card.color() == color) c++;
-            return c;
-        }
-        int countRankSuit(String rank, Suit suit){
-            int c = 0;
-            for (Card card : cards) if (card.rank.equals(rank) && card.suit == suit) c++;
-            return c;
-        }
-        int countRank(String rank){
-            int c = 0;
-            for (Card card : cards) if (card.rank.equals(rank)) c++;
-            return c;
-        }
-        int countFaces(){
-            int c = 0;
-            for (Card card : cards) if (card.isFace()) c++;
-            return c;
-        }
-
-        // --- rankValue mapping A=1, 2..10 numeric, J=11, K=12, Q=13 ---
-        private int rankValue(String r){
-            if (r == null) return -1;
-            switch (r) {
-                case "A": return 1;
-                case "J": return 11;
-                case "K": return 12;
-                case "Q": return 13;
-                default:
-                    try { return Integer.parseInt(r); }
-                    catch (NumberFormatException ex) { return -1; }
-            }
-        }
-
-        void removeOdd(){
-            cards.removeIf(c -> {
-                int v = rankValue(c.rank);
-                return v > 0 && (v % 2 == 1);
-            });
-        }
-        void removeEven(){
-            cards.removeIf(c -> {
-                int v = rankValue(c.rank);
-                return v > 0 && (v % 2 == 0);
-            });
-        }
-        void addOdd(){
-            for (Suit s : Suit.values()){
-                for (String r : RANKS){
-                    int v = rankValue(r);
-                    if (v > 0 && (v % 2 == 1)) addCard(r, s);
-                }
-            }
-        }
-        void addEven(){
-            for (Suit s : Suit.values()){
-                for (String r : RANKS){
-                    int v = rankValue(r);
-                    if (v > 0 && (v % 2 == 0)) addCard(r, s);
-                }
-            }
-        }
-    }
-
-    // Chosen bet & type
-    private enum ChosenType { INDIVIDUAL, SUIT, COLOUR, NUMBER }
-    private int betAmount = 0;
-    private ChosenType chosenType = ChosenType.INDIVIDUAL;
-    private String chosenRank = "A"; // reused for number bets as well ("A","2",..."K")
-    private Suit chosenSuit = Suit.SPADES;
-    private ColorType chosenColor = ColorType.RED;
-    private final Deck deck = new Deck();
-    private final Random rng = new Random();
-    private Card lastDrawn = null;
-
-    // draw history - records drawn cards in order
-    private final List<Card> drawHistory = new ArrayList<>();
-
-    // Multipliers (editable in settings)
-    private double mulIndividual = 17.4;
-    private double mulSuit = 2.17;
-    private double mulColour = 1.46;
-    // Number multipliers - separate for odd and even (no fallback single multiplier)
-    private double mulNumberOdd = 4.61;
-    private double mulNumberEven = 4.34;
+    // Deck, bet, multipliers and draw history: the game rules, kept free of Swing (see GameRound)
+    private final GameRound round = new GameRound();
+
+    // The round publishes draws, deck edits, bet changes and settlements on a ring buffer. The
+    // screen polls it on the EDT about once a frame and the result sound plays from it on
+    // its own thread; both subscriptions are lossy, as the round publishes from the EDT and
+    // must never wait for them (see GameEvents).
+    private final GameEvents events = new GameEvents(1024);
+    private static final int EVENT_POLL_MS = 15; // the screen's subscriber is drained about once a frame
+    private boolean deckChanged = false; // EDT only: events since the last refresh
+    private int drawsSinceRefresh = 0;
+    private int lastDrawnOrdinal = -1;
+
+    // Running fairness statistics over the draws, fed by their own lossy subscriber (a gating
+    // one could make the EDT wait); the Fairness tab takes a snapshot a few times a second and
+    // says how many events were skipped, if any (see FairnessStats)
+    private static final int FAIRNESS_REFRESH_MS = 250;
+    private final FairnessStats fairness = new FairnessStats();
+    private final javax.swing.Timer fairnessTimer = new javax.swing.Timer(FAIRNESS_REFRESH_MS, e -> refreshFairnessTab(false));
+    private JEditorPane fairnessPane = null;
+    private PValueTrend fairnessTrend = null;
+    private long fairnessShownDraws = -1;
+
+    // Speculative next-draw results, prepared in the background while the player decides.
+    // Any deck or bet change bumps the generation, which discards work in flight and results.
+    private static final long MAX_SPECULATIVE_RASTER_BYTES = 64L * 1024 * 1024;
+    private final ExecutorService speculationExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), r -> {
+                Thread t = new Thread(r, "DrawSpeculator");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    private final AtomicInteger speculationGeneration = new AtomicInteger();
+    private volatile Speculation speculation = null;
 
     // Swing components
     private final CardComponent cardComponent = new CardComponent();
@@ -205,10 +75,24 @@ public class gamePanel extends JPanel {
     // Left-side remaining-cards list model & UI
     private DefaultListModel<String> deckListModel = new DefaultListModel<>();
     private JList<String> deckList = new JList<>(deckListModel);
+    // optional thumbnail view of the same panel
+    private final DeckGrid deckGrid = new DeckGrid();
+    private boolean showDeckGrid = false;
 
     // For Probability tab
     private JEditorPane probabilityPane;
 
+    // Event deck loaded from a catalog file (null until one is loaded)
+    private EventCatalog eventCatalog = null;
+    private EventSampler eventSampler = null;
+
+    // For Odds tab: one row per possible bet, values read from the deck counters
+    private final OddsBoardModel oddsModel = new OddsBoardModel();
+
+    // combination/parlay quote under the odds board, repriced on every deck change
+    private JTextField parlayField = null;
+    private JLabel parlayQuote = null;
+
     // Theme
     private Color panelBg = new Color(28,34,40);
     private Color accent = new Color(45,160,200);
@@ -229,6 +113,29 @@ public class gamePanel extends JPanel {
     // keep a reference to the last result big card component to scale it when resizing
     private CardComponent lastResultCardComponent = null;
 
+    // progressive jackpot: 1% of every stake, won by an individual-card hit on the final draw
+    private final Jackpot jackpot = new Jackpot(0.01, 1000_00);
+
+    // mirror of the card area on a second screen, null while closed
+    private SpectatorDisplay spectator = null;
+
+    // turbo auto-play: rounds run on the AutoPlay worker; the screen shows its latest snapshot
+    // once per display refresh (autoPlayTimer), skipping everything in between. EDT only.
+    private AutoPlay autoPlay = null;
+    private javax.swing.Timer autoPlayTimer = null;
+    private AutoPlay.Snapshot autoPlayShown = null;
+    private final JLabel autoPlayLabel = new JLabel(" ");
+
+    // Resize storms are coalesced: the layout is rescaled once the window has been still for
+    // RESCALE_DELAY_MS. Font sizes are quantized to SCALE_STEP buckets, so fonts are only
+    // re-derived (and the panel revalidated) when the bucket or the monitor scale changes.
+    private static final int RESCALE_DELAY_MS = 120;
+    private static final double SCALE_STEP = 0.125;
+    private final javax.swing.Timer rescaleTimer = new javax.swing.Timer(RESCALE_DELAY_MS, e -> applyScaling(false));
+    private int scaleBucket = -1; // -1: fonts not applied to the current screen yet
+    private double deviceScale = 0;
+    private final Map<String,Font> scaledFonts = new HashMap<>(); // EDT only
+
     // Right tabbed pane reference so top-bar button can toggle its visibility
     private JTabbedPane rightTabs = null;
 
@@ -236,15 +143,30 @@ public class gamePanel extends JPanel {
         setLayout(new BorderLayout());
         setBackground(panelBg);
         updateGlobalFont(new Font("Segoe UI", Font.PLAIN, 14));
+        round.events = events;
+        round.jackpot = jackpot;
+        GameEvents.Subscriber screen = events.subscribePolled(new GameEvents.Handler(){
+            @Override public void onEvent(GameEvents.Event e, boolean endOfBatch){ onGameEvent(e, endOfBatch); }
+            @Override public void onMissed(long count){ deckChanged = true; }
+        }, true);
+        // polled once a frame, so a draw posts nothing to the event queue and allocates nothing
+        new javax.swing.Timer(EVENT_POLL_MS, e -> screen.poll()).start();
+        events.subscribe("ResultSoundPlayer", (e, endOfBatch) -> {
+            if (e.type == GameEvents.Type.ROUND_SETTLED) playResultSound(e.won());
+        }, true);
+        events.subscribe("FairnessStats", fairness, true);
+        fairnessTimer.start();
         setupGame();
 
-        // listen to resize and apply scaling
+        // listen to resize and to moves between monitors, and rescale once things settle
+        rescaleTimer.setRepeats(false);
         addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
-                applyScaling();
+                rescaleTimer.restart();
             }
         });
+        addPropertyChangeListener("graphicsConfiguration", e -> rescaleTimer.restart());
     }
 
     private void updateGlobalFont(Font f){
@@ -258,14 +180,14 @@ public class gamePanel extends JPanel {
 
     /* ---------------------- Setup screen UI ---------------------- */
     public void setupGame(){
+        stopAutoPlay();
         removeAll();
-        deck.resetToFull();
-        drawHistory.clear();
-        lastDrawn = null;
+        round.restart();
         currentState = State.SETUP;
         setUpSetupScreen();
         revalidate();
         repaint();
+        updateSpectatorDisplay(null, null);
     }
 
     private void setUpSetupScreen(){
@@ -322,7 +244,7 @@ public class gamePanel extends JPanel {
         subChoicePanel.setOpaque(false);
         inputs.add(subChoicePanel, c);
 
-        JComboBox<String> rankBox = stylizeCombo(new JComboBox<>(RANKS));
+        JComboBox<String> rankBox = stylizeCombo(new JComboBox<>(Card.RANKS));
         JComboBox<String> suitBox = stylizeCombo(new JComboBox<>(new String[]{"HEARTS","DIAMONDS","CLUBS","SPADES"}));
         subChoicePanel.add(new JLabel("Rank:")); subChoicePanel.add(rankBox);
         subChoicePanel.add(new JLabel("Suit:")); subChoicePanel.add(suitBox);
@@ -358,10 +280,8 @@ public class gamePanel extends JPanel {
         buttons.add(resetBtn); buttons.add(nextBtn);
 
         resetBtn.addActionListener(e -> {
-            deck.resetToFull();
-            drawHistory.clear();
-            updateDeckList();
-            updateDeckStatus();
+            if (!editDeck(round.deck::resetToFull)) return;
+            round.drawHistory.clear();
             JOptionPane.showMessageDialog(this, "Deck reset to full 52 cards.", "Deck Reset", JOptionPane.INFORMATION_MESSAGE);
         });
 
@@ -369,22 +289,14 @@ public class gamePanel extends JPanel {
             try {
                 int bet = Integer.parseInt(betField.getText().trim());
                 if (bet <= 0) throw new NumberFormatException();
-                betAmount = bet;
                 String sel = (String) typeBox.getSelectedItem();
-                if ("Individual card".equals(sel)){
-                    chosenType = ChosenType.INDIVIDUAL;
-                    chosenRank = (String) rankBox.getSelectedItem();
-                    chosenSuit = Suit.valueOf((String) suitBox.getSelectedItem());
-                } else if ("Suit".equals(sel)){
-                    chosenType = ChosenType.SUIT;
-                    chosenSuit = Suit.valueOf((String) suitBox.getSelectedItem());
-                } else if ("Colour".equals(sel)){
-                    chosenType = ChosenType.COLOUR;
-                    chosenColor = ColorType.valueOf((String) colorBox.getSelectedItem());
-                } else {
-                    chosenType = ChosenType.NUMBER;
-                    chosenRank = (String) rankBox.getSelectedItem();
-                }
+                ChosenType type = "Individual card".equals(sel) ? ChosenType.INDIVIDUAL
+                        : "Suit".equals(sel) ? ChosenType.SUIT
+                        : "Colour".equals(sel) ? ChosenType.COLOUR
+                        : ChosenType.NUMBER;
+                round.choose(bet, type, (String) rankBox.getSelectedItem(),
+                        Suit.valueOf((String) suitBox.getSelectedItem()),
+                        ColorType.valueOf((String) colorBox.getSelectedItem()));
                 enterPlayState();
             } catch (NumberFormatException ex){
                 JOptionPane.showMessageDialog(this, "Please enter a valid positive integer bet.", "Invalid input", JOptionPane.ERROR_MESSAGE);
@@ -403,6 +315,7 @@ public class gamePanel extends JPanel {
 
     /* ---------------------- Play screen UI ---------------------- */
     private void enterPlayState(){
+        stopAutoPlay();
         currentState = State.PLAY;
         removeAll();
 
@@ -429,8 +342,17 @@ public class gamePanel extends JPanel {
         JButton endButton = stylizeButton("End Game");
         JButton shuffleBtn = stylizeButton("Shuffle");
         bottomBar.add(drawButton); bottomBar.add(endButton); bottomBar.add(shuffleBtn);
+        JSpinner autoRate = new JSpinner(new SpinnerNumberModel(0, 0, 10_000_000, 100));
+        autoRate.setToolTipText("Auto-play rounds per second (0 = as fast as possible)");
+        JButton autoButton = stylizeButton("Auto-play");
+        bottomBar.add(autoRate); bottomBar.add(autoButton);
         centerWrapper.add(bottomBar, BorderLayout.SOUTH);
 
+        autoPlayLabel.setForeground(Color.WHITE);
+        autoPlayLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        autoPlayLabel.setText(" ");
+        centerWrapper.add(autoPlayLabel, BorderLayout.NORTH);
+
         centerPanel.add(centerWrapper, BorderLayout.CENTER);
 
         // Right: tabs
@@ -453,11 +375,40 @@ public class gamePanel extends JPanel {
         deckTab.add(controlsTitle);
         deckTab.add(Box.createVerticalStrut(8));
 
-        deckCountLabel = new JLabel("Deck: " + deck.size() + " cards");
+        deckCountLabel = new JLabel("Deck: " + round.deck.size() + " cards");
         deckCountLabel.setForeground(Color.WHITE);
         deckTab.add(deckCountLabel);
         deckTab.add(Box.createVerticalStrut(10));
 
+        // filter expression applied as a single edit
+        JLabel filterLbl = new JLabel("Filter (e.g. red & face, even spades):");
+        filterLbl.setForeground(Color.WHITE);
+        deckTab.add(filterLbl);
+        deckTab.add(Box.createVerticalStrut(6));
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.setOpaque(false);
+        JTextField filterField = stylizeField(new JTextField(14));
+        JButton filterRemoveBtn = stylizeButtonSmall("Remove");
+        JButton filterKeepBtn = stylizeButtonSmall("Keep only");
+        JButton filterAddBtn = stylizeButtonSmall("Add");
+        filterPanel.add(filterField); filterPanel.add(filterRemoveBtn); filterPanel.add(filterKeepBtn); filterPanel.add(filterAddBtn);
+        deckTab.add(filterPanel);
+
+        filterRemoveBtn.addActionListener(e -> applyFilter(filterField.getText(), round.deck::removeMask));
+        filterKeepBtn.addActionListener(e -> applyFilter(filterField.getText(), round.deck::keepMask));
+        filterAddBtn.addActionListener(e -> applyFilter(filterField.getText(), round.deck::addMask));
+
+        JPanel historyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        historyPanel.setOpaque(false);
+        JButton undoBtn = stylizeButtonSmall("Undo");
+        JButton redoBtn = stylizeButtonSmall("Redo");
+        historyPanel.add(undoBtn); historyPanel.add(redoBtn);
+        deckTab.add(historyPanel);
+        deckTab.add(Box.createVerticalStrut(8));
+
+        undoBtn.addActionListener(e -> deckAction(round::undo));
+        redoBtn.addActionListener(e -> deckAction(round::redo));
+
         // remove/add suit
         JLabel lbl1 = new JLabel("Remove suit:");
         lbl1.setForeground(Color.WHITE);
@@ -472,8 +423,7 @@ public class gamePanel extends JPanel {
 
         removeSuitBtn.addActionListener(e -> {
             Suit s = Suit.valueOf((String) removeSuitBox.getSelectedItem());
-            deck.removeSuit(s);
-            updateDeckStatus();
+            editDeck(() -> round.deck.removeSuit(s));
         });
 
         // add suit
@@ -489,8 +439,7 @@ public class gamePanel extends JPanel {
         deckTab.add(addSuitPanel);
         addSuitBtn.addActionListener(e -> {
             Suit s = Suit.valueOf((String) addSuitBox.getSelectedItem());
-            deck.addSuit(s);
-            updateDeckStatus();
+            editDeck(() -> round.deck.addSuit(s));
         });
 
         deckTab.add(Box.createVerticalStrut(8));
@@ -507,8 +456,7 @@ public class gamePanel extends JPanel {
         deckTab.add(removeColPanel);
         removeColBtn.addActionListener(e -> {
             ColorType color = ColorType.valueOf((String) removeColBox.getSelectedItem());
-            deck.removeColor(color);
-            updateDeckStatus();
+            editDeck(() -> round.deck.removeColor(color));
         });
 
         // Add color
@@ -524,8 +472,7 @@ public class gamePanel extends JPanel {
         deckTab.add(addColPanel);
         addColBtn.addActionListener(e -> {
             ColorType color = ColorType.valueOf((String) addColBox.getSelectedItem());
-            deck.addColor(color);
-            updateDeckStatus();
+            editDeck(() -> round.deck.addColor(color));
         });
 
         deckTab.add(Box.createVerticalStrut(8));
@@ -539,14 +486,14 @@ public class gamePanel extends JPanel {
         JButton addFacesBtn = stylizeButtonSmall("Add Faces");
         facesPanel.add(removeFacesBtn); facesPanel.add(addFacesBtn);
         deckTab.add(facesPanel);
-        removeFacesBtn.addActionListener(e -> { deck.removeFaces(); updateDeckStatus(); });
-        addFacesBtn.addActionListener(e -> { deck.addFaces(); updateDeckStatus(); });
+        removeFacesBtn.addActionListener(e -> editDeck(round.deck::removeFaces));
+        addFacesBtn.addActionListener(e -> editDeck(round.deck::addFaces));
 
         deckTab.add(Box.createVerticalStrut(10));
         JLabel lbl6 = new JLabel("Remove/Add specific card:");
         lbl6.setForeground(Color.WHITE);
         deckTab.add(lbl6);
-        JComboBox<String> specificRank = stylizeCombo(new JComboBox<>(RANKS));
+        JComboBox<String> specificRank = stylizeCombo(new JComboBox<>(Card.RANKS));
         JComboBox<String> specificSuit = stylizeCombo(new JComboBox<>(new String[]{"HEARTS","DIAMONDS","CLUBS","SPADES"}));
         JPanel specificPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         specificPanel.setOpaque(false);
@@ -559,16 +506,15 @@ public class gamePanel extends JPanel {
         removeSpecific.addActionListener(e -> {
             String r = (String) specificRank.getSelectedItem();
             Suit s = Suit.valueOf((String) specificSuit.getSelectedItem());
-            boolean changed = deck.removeCard(r,s);
-            updateDeckStatus();
-            JOptionPane.showMessageDialog(this, changed ? "Card removed." : "That card was not in the deck.", "Specific Remove", JOptionPane.INFORMATION_MESSAGE);
+            boolean[] changed = new boolean[1];
+            if (!editDeck(() -> changed[0] = round.deck.removeCard(r,s))) return;
+            JOptionPane.showMessageDialog(this, changed[0] ? "Card removed." : "That card was not in the deck.", "Specific Remove", JOptionPane.INFORMATION_MESSAGE);
         });
         addSpecific.addActionListener(e -> {
             String r = (String) specificRank.getSelectedItem();
             Suit s = Suit.valueOf((String) specificSuit.getSelectedItem());
-            if (!deck.contains(r,s)){
-                deck.addCard(r,s);
-                updateDeckStatus();
+            if (!round.deck.contains(r,s)){
+                if (!editDeck(() -> round.deck.addCard(r,s))) return;
                 JOptionPane.showMessageDialog(this, "Card added.", "Specific Add", JOptionPane.INFORMATION_MESSAGE);
             } else {
                 JOptionPane.showMessageDialog(this, "That card already exists in the deck.", "Specific Add", JOptionPane.INFORMATION_MESSAGE);
@@ -590,15 +536,15 @@ public class gamePanel extends JPanel {
         oddEvenPanel.add(removeOddBtn); oddEvenPanel.add(addOddBtn); oddEvenPanel.add(removeEvenBtn); oddEvenPanel.add(addEvenBtn);
         deckTab.add(oddEvenPanel);
 
-        removeOddBtn.addActionListener(e -> { deck.removeOdd(); updateDeckStatus(); });
-        addOddBtn.addActionListener(e -> { deck.addOdd(); updateDeckStatus(); });
-        removeEvenBtn.addActionListener(e -> { deck.removeEven(); updateDeckStatus(); });
-        addEvenBtn.addActionListener(e -> { deck.addEven(); updateDeckStatus(); });
+        removeOddBtn.addActionListener(e -> editDeck(round.deck::removeOdd));
+        addOddBtn.addActionListener(e -> editDeck(round.deck::addOdd));
+        removeEvenBtn.addActionListener(e -> editDeck(round.deck::removeEven));
+        addEvenBtn.addActionListener(e -> editDeck(round.deck::addEven));
 
         deckTab.add(Box.createVerticalStrut(12));
         JButton resetDeckBtn = stylizeButtonSmall("Reset to Full Deck");
         deckTab.add(resetDeckBtn);
-        resetDeckBtn.addActionListener(e -> { deck.resetToFull(); drawHistory.clear(); updateDeckStatus(); updateDeckList(); });
+        resetDeckBtn.addActionListener(e -> { if (editDeck(round.deck::resetToFull)) round.drawHistory.clear(); });
 
         tabs.addTab("Deck", deckTab);
 
@@ -626,7 +572,7 @@ public class gamePanel extends JPanel {
         s.gridx = 0; s.gridy = 1;
         settingsTab.add(lblInd, s);
 
-        JTextField fieldInd = makeMulField(mulIndividual);
+        JTextField fieldInd = makeMulField(round.mulIndividual);
         s.gridx = 1;
         settingsTab.add(fieldInd, s);
 
@@ -635,7 +581,7 @@ public class gamePanel extends JPanel {
         s.gridx = 0; s.gridy = 2;
         settingsTab.add(lblSuit, s);
 
-        JTextField fieldSuit = makeMulField(mulSuit);
+        JTextField fieldSuit = makeMulField(round.mulSuit);
         s.gridx = 1;
         settingsTab.add(fieldSuit, s);
 
@@ -644,7 +590,7 @@ public class gamePanel extends JPanel {
         s.gridx = 0; s.gridy = 3;
         settingsTab.add(lblCol, s);
 
-        JTextField fieldCol = makeMulField(mulColour);
+        JTextField fieldCol = makeMulField(round.mulColour);
         s.gridx = 1;
         settingsTab.add(fieldCol, s);
 
@@ -654,7 +600,7 @@ public class gamePanel extends JPanel {
         s.gridx = 0; s.gridy = 4;
         settingsTab.add(lblNumOdd, s);
 
-        JTextField fieldNumOdd = makeMulField(mulNumberOdd);
+        JTextField fieldNumOdd = makeMulField(round.mulNumberOdd);
         s.gridx = 1;
         settingsTab.add(fieldNumOdd, s);
 
@@ -663,7 +609,7 @@ public class gamePanel extends JPanel {
         s.gridx = 0; s.gridy = 5;
         settingsTab.add(lblNumEven, s);
 
-        JTextField fieldNumEven = makeMulField(mulNumberEven);
+        JTextField fieldNumEven = makeMulField(round.mulNumberEven);
         s.gridx = 1;
         settingsTab.add(fieldNumEven, s);
 
@@ -682,11 +628,11 @@ public class gamePanel extends JPanel {
 
         applyMulBtn.addActionListener(e -> {
             try {
-                mulIndividual = Double.parseDouble(fieldInd.getText().trim());
-                mulSuit       = Double.parseDouble(fieldSuit.getText().trim());
-                mulColour     = Double.parseDouble(fieldCol.getText().trim());
-                mulNumberOdd  = Double.parseDouble(fieldNumOdd.getText().trim());
-                mulNumberEven = Double.parseDouble(fieldNumEven.getText().trim());
+                round.setMultipliers(Double.parseDouble(fieldInd.getText().trim()),
+                        Double.parseDouble(fieldSuit.getText().trim()),
+                        Double.parseDouble(fieldCol.getText().trim()),
+                        Double.parseDouble(fieldNumOdd.getText().trim()),
+                        Double.parseDouble(fieldNumEven.getText().trim()));
                 JOptionPane.showMessageDialog(this,
                     "Multipliers updated successfully.",
                     "Updated",
@@ -699,6 +645,45 @@ public class gamePanel extends JPanel {
             }
         });
 
+        // provably-fair draws: each round's seed is committed before its first draw
+        JCheckBox fairBox = new JCheckBox("Provably fair draws", round.fair != null);
+        fairBox.setOpaque(false);
+        fairBox.setForeground(Color.WHITE);
+        s.gridx = 0; s.gridy = 8; s.gridwidth = 2;
+        settingsTab.add(fairBox, s);
+        fairBox.addActionListener(e -> {
+            round.fair = fairBox.isSelected() ? new FairDraws() : null;
+            updateTopInfo();
+        });
+
+        // win window: a bet wins when any of the last K draws is in its selection
+        JLabel lblWindow = new JLabel("Win window (draws)");
+        lblWindow.setForeground(Color.WHITE);
+        s.gridx = 0; s.gridy = 9; s.gridwidth = 1;
+        settingsTab.add(lblWindow, s);
+        JSpinner windowSpinner = new JSpinner(new SpinnerNumberModel(round.window(), 1, DrawHistory.MAX_WINDOW, 1));
+        s.gridx = 1;
+        settingsTab.add(windowSpinner, s);
+        windowSpinner.addChangeListener(e -> {
+            round.setWindow(((Number) windowSpinner.getValue()).intValue());
+            updateTopInfo();
+        });
+
+        JCheckBox retainBox = new JCheckBox("Keep the full draw history", round.drawHistory.retains());
+        retainBox.setOpaque(false);
+        retainBox.setForeground(Color.WHITE);
+        s.gridx = 0; s.gridy = 10; s.gridwidth = 2;
+        settingsTab.add(retainBox, s);
+        JButton saveHistoryBtn = new JButton("Save history...");
+        saveHistoryBtn.setEnabled(retainBox.isSelected());
+        s.gridx = 0; s.gridy = 11; s.gridwidth = 2;
+        settingsTab.add(saveHistoryBtn, s);
+        retainBox.addActionListener(e -> {
+            round.drawHistory.setRetain(retainBox.isSelected());
+            saveHistoryBtn.setEnabled(retainBox.isSelected());
+        });
+        saveHistoryBtn.addActionListener(e -> saveDrawHistory());
+
         tabs.addTab("Settings", settingsTab);
 
         /// ---------------- PROBABILITY TAB (NEW) ----------------
@@ -732,6 +717,39 @@ public class gamePanel extends JPanel {
 
         tabs.addTab("Probability", probTab);
 
+        /// ---------------- ODDS BOARD TAB ----------------
+        JPanel oddsTab = new JPanel(new BorderLayout());
+        oddsTab.setBackground(rightBg);
+        oddsTab.setBorder(new EmptyBorder(12,12,12,12));
+
+        JLabel oddsTitle = new JLabel("Odds Board");
+        oddsTitle.setForeground(Color.WHITE);
+        oddsTitle.setFont(oddsTitle.getFont().deriveFont(Font.BOLD, BASE_CONTROLS_TITLE_FONT));
+        oddsTab.add(oddsTitle, BorderLayout.NORTH);
+
+        JTable oddsTable = new JTable(oddsModel);
+        oddsTable.setAutoCreateRowSorter(true);
+        oddsTable.setDefaultRenderer(Double.class, new OddsCellRenderer());
+        oddsTable.setForeground(Color.WHITE);
+        oddsTable.setBackground(new Color(30,34,40));
+        oddsTable.setGridColor(new Color(60,60,60));
+        oddsTable.setSelectionBackground(new Color(70,80,95));
+        oddsTable.setFillsViewportHeight(true);
+
+        JScrollPane oddsScroll = new JScrollPane(oddsTable);
+        oddsScroll.setBorder(BorderFactory.createLineBorder(new Color(60,60,60)));
+        oddsScroll.getViewport().setBackground(new Color(30,34,40));
+        oddsTab.add(oddsScroll, BorderLayout.CENTER);
+        oddsTab.add(createParlayPanel(), BorderLayout.SOUTH);
+
+        tabs.addTab("Odds", oddsTab);
+
+        /// ---------------- EVENTS TAB ----------------
+        tabs.addTab("Events", createEventsTab(rightBg));
+
+        /// ---------------- FAIRNESS TAB ----------------
+        tabs.addTab("Fairness", createFairnessTab(rightBg));
+
         // Left: Remaining cards panel (live-updating) - only here
         JPanel leftInfo = new RoundedPanel(new Color(40,46,54), 12);
         leftInfo.setOpaque(false);
@@ -741,7 +759,12 @@ public class gamePanel extends JPanel {
         JLabel leftTitle = new JLabel("Remaining Cards");
         leftTitle.setForeground(Color.WHITE);
         leftTitle.setBorder(new EmptyBorder(6,6,6,6));
-        leftInfo.add(leftTitle, BorderLayout.NORTH);
+        JButton viewToggle = stylizeButtonSmall(showDeckGrid ? "List" : "Grid");
+        JPanel leftHeader = new JPanel(new BorderLayout());
+        leftHeader.setOpaque(false);
+        leftHeader.add(leftTitle, BorderLayout.CENTER);
+        leftHeader.add(viewToggle, BorderLayout.EAST);
+        leftInfo.add(leftHeader, BorderLayout.NORTH);
 
         // configure deckList appearance
         deckList.setForeground(Color.WHITE);
@@ -751,7 +774,21 @@ public class gamePanel extends JPanel {
 
         JScrollPane leftScroll = new JScrollPane(deckList);
         leftScroll.setBorder(BorderFactory.createLineBorder(new Color(60,60,60)));
-        leftInfo.add(leftScroll, BorderLayout.CENTER);
+
+        JScrollPane gridScroll = new JScrollPane(deckGrid);
+        gridScroll.setBorder(BorderFactory.createLineBorder(new Color(60,60,60)));
+        gridScroll.getViewport().setBackground(new Color(30,34,40));
+
+        // swap rather than CardLayout, so the list keeps its own (narrower) width
+        leftInfo.add(showDeckGrid ? gridScroll : leftScroll, BorderLayout.CENTER);
+        viewToggle.addActionListener(e -> {
+            showDeckGrid = !showDeckGrid;
+            viewToggle.setText(showDeckGrid ? "List" : "Grid");
+            leftInfo.remove(showDeckGrid ? leftScroll : gridScroll);
+            leftInfo.add(showDeckGrid ? gridScroll : leftScroll, BorderLayout.CENTER);
+            leftInfo.revalidate();
+            leftInfo.repaint();
+        });
 
         // Layout main content
         JPanel content = new JPanel(new BorderLayout(12,12));
@@ -770,26 +807,39 @@ public class gamePanel extends JPanel {
 
         // Hook up actions
         drawButton.addActionListener(e -> {
-            Card c = deck.drawRandom(rng);
-            lastDrawn = c;
-            if (c != null) drawHistory.add(c);
-            updateDeckStatus();
-            updateDeckList();
-            cardComponent.setCard(c);
-            cardComponent.repaint();
-            if (deck.size() == 0) drawButton.setEnabled(false);
+            // the screen catches up from the DRAW event (onGameEvent)
+            Card c = round.draw();
             if (c == null) JOptionPane.showMessageDialog(this, "Deck is empty. Reset or add cards.", "Empty Deck", JOptionPane.WARNING_MESSAGE);
         });
 
         shuffleBtn.addActionListener(ev -> {
-            deck.shuffle(rng);
-            updateDeckStatus();
-            updateDeckList();
+            round.shuffle();
             JOptionPane.showMessageDialog(this, "Deck shuffled.", "Shuffle", JOptionPane.INFORMATION_MESSAGE);
         });
 
         endButton.addActionListener(e -> enterResultState());
 
+        autoRate.addChangeListener(e -> {
+            if (autoPlay != null) autoPlay.setTarget(((Number) autoRate.getValue()).doubleValue());
+        });
+        autoButton.addActionListener(e -> {
+            boolean start = autoPlay == null;
+            if (start){
+                try {
+                    startAutoPlay(((Number) autoRate.getValue()).doubleValue());
+                } catch (IllegalStateException ex){
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Auto-play", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+            } else {
+                stopAutoPlay();
+            }
+            autoButton.setText(start ? "Stop" : "Auto-play");
+            drawButton.setEnabled(!start);
+            endButton.setEnabled(!start);
+            shuffleBtn.setEnabled(!start);
+        });
+
         // ensure all labels inside these tabs are white (extra safety)
         setLabelsWhite(deckTab);
         setLabelsWhite(settingsTab);
@@ -797,35 +847,98 @@ public class gamePanel extends JPanel {
 
         updateDeckStatus();
         updateDeckList();
-        cardComponent.setCard(lastDrawn);
+        cardComponent.setCard(round.lastDrawn);
 
         // initial probability render
         updateProbabilityPane();
 
         // apply scaling after layout
-        SwingUtilities.invokeLater(this::applyScaling);
+        SwingUtilities.invokeLater(() -> applyScaling(true));
 
         revalidate();
         repaint();
+        updateSpectatorDisplay(null, null);
+    }
+
+    // run a deck edit and remember it for undo; the DECK_EDIT event refreshes the screen
+    private boolean editDeck(Runnable edit){
+        return deckAction(() -> round.edit(edit));
     }
 
-    // return the most recent matching card among the last up-to-3 draws, or null if none
-    private Card getMostRecentHit() {
-        int n = drawHistory.size();
-        int start = Math.max(0, n - 3);
-        for (int i = n - 1; i >= start; i--) {
-            Card c = drawHistory.get(i);
-            if (matchesChoice(c)) return c;
+    // runs something that changes the deck; false, after telling the player why, when the round
+    // refuses it because a parlay is open
+    private boolean deckAction(Runnable action){
+        try {
+            action.run();
+            return true;
+        } catch (IllegalStateException ex){
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Deck Locked", JOptionPane.INFORMATION_MESSAGE);
+            return false;
+        }
+    }
+
+    // UI subscriber, on the EDT: note what changed and refresh once at the end of each batch
+    private void onGameEvent(GameEvents.Event e, boolean endOfBatch){
+        switch (e.type){
+            case DRAW:
+                drawsSinceRefresh++;
+                lastDrawnOrdinal = e.ordinal;
+                break;
+            case DECK_EDIT:
+            case BET_CHANGED:
+                deckChanged = true;
+                break;
+            default:
+                break; // the result screen is built from the round itself
+        }
+        if (endOfBatch) refreshAfterEvents();
+    }
+
+    private void refreshAfterEvents(){
+        if (!deckChanged && drawsSinceRefresh == 0) return;
+        Speculation spec = speculation;
+        PrecomputedDraw pre = (!deckChanged && drawsSinceRefresh == 1 && lastDrawnOrdinal >= 0
+                && spec != null && spec.generation == speculationGeneration.get())
+                ? spec.draws[lastDrawnOrdinal] : null;
+        boolean drew = drawsSinceRefresh > 0;
+        deckChanged = false;
+        drawsSinceRefresh = 0;
+        if (pre != null){
+            // a single draw we had prepared: no recount, no hit check, no list rebuild, no card paint
+            Card c = Card.fromOrdinal(lastDrawnOrdinal);
+            deckListModel.removeElement(c.toString());
+            deckGrid.setDeckMask(round.deck.mask());
+            refreshDeckLabels(pre);
+            if (probabilityPane != null){
+                probabilityPane.setText(pre.probabilityHtml);
+                probabilityPane.setCaretPosition(0);
+            }
+            oddsModel.refresh();
+            cardComponent.setCard(c, pre.raster);
+            speculateNextDraw();
+        } else {
+            updateDeckStatus();
+            updateDeckList();
+            if (drew) cardComponent.setCard(round.lastDrawn);
+        }
+    }
+
+    private void applyFilter(String expr, java.util.function.LongConsumer op){
+        try {
+            long m = CardFilter.compile(expr);
+            editDeck(() -> op.accept(m));
+        } catch (IllegalArgumentException ex){
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid filter", JOptionPane.ERROR_MESSAGE);
         }
-        return null;
     }
 
     // Update the left list with all remaining cards
     private void updateDeckList(){
         deckListModel.clear();
-        for (Card c : deck.asList()){
+        for (Card c : round.deck.asList()){
             deckListModel.addElement(c.toString());
         }
+        deckGrid.setDeckMask(round.deck.mask());
     }
 
     // helper: walk a container and set JLabel foreground to white (ensures contrast)
@@ -837,17 +950,19 @@ public class gamePanel extends JPanel {
     }
 
     private String chosenSummary(){
-        switch (chosenType){
-            case INDIVIDUAL: return String.format("Chosen: %s of %s (Individual).", chosenRank, chosenSuit.name());
-            case SUIT: return String.format("Chosen suit: %s.", chosenSuit.name());
-            case COLOUR: return String.format("Chosen colour: %s.", chosenColor.name());
-            default: return String.format("Chosen rank: %s (Number).", chosenRank);
+        switch (round.chosenType){
+            case INDIVIDUAL: return String.format("Chosen: %s of %s (Individual).", round.chosenRank, round.chosenSuit.name());
+            case SUIT: return String.format("Chosen suit: %s.", round.chosenSuit.name());
+            case COLOUR: return String.format("Chosen colour: %s.", round.chosenColor.name());
+            default: return String.format("Chosen rank: %s (Number).", round.chosenRank);
         }
     }
 
     /* ---------------------- Result screen UI ---------------------- */
     private void enterResultState(){
+        stopAutoPlay();
         currentState = State.RESULT;
+        speculateNextDraw(); // not in play any more: just cancels pending work
         removeAll();
 
         JPanel topBar = createTopBar();
@@ -857,25 +972,26 @@ public class gamePanel extends JPanel {
         container.setOpaque(false);
         container.setBorder(new EmptyBorder(18,18,18,18));
 
-        // choose which card to show large: prefer most recent hit among last 3, else lastDrawn
-        Card hitCard = getMostRecentHit();
-        Card displayCard = (hitCard != null) ? hitCard : lastDrawn;
+        // choose which card to show large: prefer most recent hit among the last K, else lastDrawn
+        Card hitCard = round.mostRecentHit();
+        Card displayCard = (hitCard != null) ? hitCard : round.lastDrawn;
 
         final CardComponent bigCardComp = new CardComponent();
         bigCardComp.setCard(displayCard);
         // default preferred (will adjust later)
         bigCardComp.setPreferredSize(new Dimension(320, 440));
+        lastResultCardComponent = bigCardComp;
 
-        // determine win: true if any of last 3 matched (hitCard != null)
+        // determine win: true if any of the last K matched (hitCard != null)
         boolean won = (hitCard != null);
 
         // build hit list and last-3 summary for labels
         StringBuilder hitList = new StringBuilder();
-        int n = drawHistory.size();
-        int start = Math.max(0, n - 3);
-        for (int i = start; i < n; i++){
-            Card chk = drawHistory.get(i);
-            if (matchesChoice(chk)){
+        long n = round.drawHistory.size();
+        int inWindow = round.drawHistory.inWindow();
+        for (int i = 0; i < inWindow; i++){
+            Card chk = round.drawHistory.inWindowCard(i);
+            if (round.matchesChoice(chk)){
                 if (hitList.length() > 0) hitList.append(", ");
                 hitList.append(chk.toString());
             }
@@ -886,10 +1002,10 @@ public class gamePanel extends JPanel {
             hitInfo = "No cards were drawn.";
         } else {
             StringBuilder tmp = new StringBuilder();
-            tmp.append(String.format("Last %d draw(s): ", Math.min(3, n)));
-            for (int i = Math.max(0, n-3); i < n; i++){
-                tmp.append(drawHistory.get(i).toString());
-                if (i < n-1) tmp.append(", ");
+            tmp.append(String.format("Last %d draw(s): ", inWindow));
+            for (int i = 0; i < inWindow; i++){
+                tmp.append(round.drawHistory.inWindowCard(i).toString());
+                if (i < inWindow-1) tmp.append(", ");
             }
             hitInfo = tmp.toString();
         }
@@ -908,24 +1024,44 @@ public class gamePanel extends JPanel {
         right.add(resultTitle);
         right.add(Box.createVerticalStrut(14));
 
-        JLabel chosen = new JLabel("Your bet: $" + betAmount + " on " + chosenSummary());
+        JLabel chosen = new JLabel("Your bet: $" + round.betAmount + " on " + chosenSummary());
         chosen.setForeground(Color.WHITE);
         right.add(chosen);
         right.add(Box.createVerticalStrut(8));
 
-        double multiplier = getMultiplierForChosen();
-        JLabel potential = new JLabel(String.format("Potential payout: $%.2f (bet × %.2f)", betAmount * multiplier, multiplier));
+        double multiplier = round.multiplier();
+        JLabel potential = new JLabel(String.format("Potential payout: $%.2f (bet × %.2f)", round.betAmount * multiplier, multiplier));
         potential.setForeground(Color.WHITE);
         right.add(potential);
         right.add(Box.createVerticalStrut(8));
 
-        int net = won ? (int) Math.round(betAmount * multiplier) : -betAmount;
-        JLabel netLbl = new JLabel((net >= 0 ? "Return: $" : "Lost: $") + Math.abs(net));
+        long net = round.settle();
+        JLabel netLbl = new JLabel((net >= 0 ? "Return: " : "Lost: ") + Money.format(Math.abs(net)));
         netLbl.setForeground(net >= 0 ? new Color(18,150,31) : new Color(200,60,60));
         netLbl.setFont(netLbl.getFont().deriveFont(Font.BOLD, 18f));
         right.add(netLbl);
         right.add(Box.createVerticalStrut(16));
 
+        if (round.lastJackpot > 0){
+            JLabel jackpotLbl = new JLabel("JACKPOT! " + Money.format(round.lastJackpot) + " (included above)");
+            jackpotLbl.setForeground(new Color(240,200,60));
+            jackpotLbl.setFont(jackpotLbl.getFont().deriveFont(Font.BOLD, 18f));
+            right.add(jackpotLbl);
+            right.add(Box.createVerticalStrut(16));
+        }
+
+        if (round.fair != null && round.lastProof != null){
+            // everything needed to re-check the round: java FairDraws <these arguments>
+            JLabel fairLbl = new JLabel("Provably fair round. Verify with: java FairDraws ...");
+            fairLbl.setForeground(Color.LIGHT_GRAY);
+            right.add(fairLbl);
+            JTextField proofField = new JTextField(round.lastProof.verifierArgs());
+            proofField.setEditable(false);
+            proofField.setMaximumSize(new Dimension(Integer.MAX_VALUE, proofField.getPreferredSize().height));
+            right.add(proofField);
+            right.add(Box.createVerticalStrut(16));
+        }
+
         JLabel displayedLbl = new JLabel("<html>Displayed card: " + (displayCard == null ? "None" : displayCard.toString()) +
                                     "<br/><small style='color:#CCCCCC;'>" + hitInfo + "</small></html>");
         displayedLbl.setForeground(Color.WHITE);
@@ -933,14 +1069,14 @@ public class gamePanel extends JPanel {
         right.add(Box.createVerticalStrut(8));
 
         if (hitList.length() > 0){
-            JLabel hitsLbl = new JLabel("Hit(s) among last 3: " + hitList.toString());
+            JLabel hitsLbl = new JLabel("Hit(s) among last " + round.window() + ": " + hitList.toString());
             hitsLbl.setForeground(new Color(200,200,120));
             right.add(hitsLbl);
             right.add(Box.createVerticalStrut(8));
         }
 
         JButton restart = stylizeButton("Restart Game");
-        restart.addActionListener(e -> { deck.resetToFull(); drawHistory.clear(); lastDrawn = null; setupGame(); });
+        restart.addActionListener(e -> { round.restart(); setupGame(); });
         right.add(restart);
         right.add(Box.createVerticalStrut(8));
         JButton playAgain = stylizeButton("Play Again (keep deck & choice)");
@@ -961,81 +1097,16 @@ public class gamePanel extends JPanel {
         repaint();
 
         // IMPORTANT: adjust bigCardComp size after the panel has layouted so we can use actual panel size.
-        SwingUtilities.invokeLater(() -> {
-            int panelW = getWidth();
-            int panelH = getHeight();
-            if (panelW <= 0) panelW = BASE_WIDTH;
-            if (panelH <= 0) panelH = BASE_HEIGHT;
-
-            // target width ~ half of content area (leave room for right info)
-            int availableForCard = Math.max(200, (int)(panelW * 0.55)); // 55% of overall width for card area
-            int targetW = Math.max(360, availableForCard / 1);
-            int targetH = (int) (targetW / (380.0/520.0)); // preserve aspect ratio
-            // clamp not to exceed panel height minus some margins
-            int maxH = panelH - 180;
-            if (targetH > maxH) {
-                targetH = maxH;
-                targetW = (int)(targetH * (380.0/520.0));
-            }
+        SwingUtilities.invokeLater(() -> applyScaling(true));
 
-            bigCardComp.setPreferredSize(new Dimension(targetW, targetH));
-            bigCardComp.revalidate();
-            bigCardComp.repaint();
-        });
-
-        // play result sound (attempt classpath then filesystem)
-        playResultSound(won);
-    }
-
-    /* ---------------------- Helpers / logic ---------------------- */
-    private boolean evaluateWin(Card drawn){
-        if (drawn == null) return false;
-        switch (chosenType){
-            case INDIVIDUAL:
-                return drawn.rank.equals(chosenRank) && drawn.suit == chosenSuit;
-            case SUIT:
-                return drawn.suit == chosenSuit;
-            case COLOUR:
-                return drawn.color() == chosenColor;
-            default: // NUMBER
-                return drawn.rank.equals(chosenRank);
-        }
-    }
+        updateSpectatorDisplay(title + "  " + netLbl.getText(), titleColor);
 
-    // check whether a single card would be a winning hit for the current selection
-    private boolean matchesChoice(Card c){
-        if (c == null) return false;
-        switch (chosenType){
-            case INDIVIDUAL:
-                return c.rank.equals(chosenRank) && c.suit == chosenSuit;
-            case SUIT:
-                return c.suit == chosenSuit;
-            case COLOUR:
-                return c.color() == chosenColor;
-            case NUMBER:
-                return c.rank.equals(chosenRank);
-            default:
-                return false;
-        }
-    }
-
-    // helper to convert rank string to numeric value (A=1, 2..10 numeric, J=11, K=12, Q=13)
-    private int rankValue(String r){
-        if (r == null) return -1;
-        switch (r) {
-            case "A": return 1;
-            case "J": return 11;
-            case "K": return 12;
-            case "Q": return 13;
-            default:
-                try { return Integer.parseInt(r); }
-                catch (NumberFormatException ex) { return -1; }
-        }
+        // the result sound is played by its subscriber, from the ROUND_SETTLED event
     }
 
     /**
      * Play a short sound on win/loss. Tries several classpath and filesystem locations.
-     * Runs playback on a background thread so it doesn't block the EDT.
+     * Called on the ResultSoundPlayer subscriber thread, never on the EDT.
      */
     private void playResultSound(boolean won){
         final String[][] candidates = new String[][]{
@@ -1046,54 +1117,108 @@ public class gamePanel extends JPanel {
         };
         final String[] chosenList = won ? candidates[0] : candidates[1];
 
-        new Thread(() -> {
-            AudioInputStream ais = null;
-            for (String path : chosenList){
-                try {
-                    // try classpath first
-                    URL url = getClass().getResource(path);
-                    if (url != null){
-                        ais = AudioSystem.getAudioInputStream(url);
-                        break;
-                    }
-                } catch (Exception ignored) {}
+        AudioInputStream ais = null;
+        for (String path : chosenList){
+            try {
+                // try classpath first
+                URL url = getClass().getResource(path);
+                if (url != null){
+                    ais = AudioSystem.getAudioInputStream(url);
+                    break;
+                }
+            } catch (Exception ignored) {}
 
-                try {
-                    File f = new File(path.startsWith("/") ? path.substring(1) : path);
-                    if (f.exists()){
-                        ais = AudioSystem.getAudioInputStream(f);
-                        break;
-                    }
-                } catch (Exception ignored) {}
-            }
+            try {
+                File f = new File(path.startsWith("/") ? path.substring(1) : path);
+                if (f.exists()){
+                    ais = AudioSystem.getAudioInputStream(f);
+                    break;
+                }
+            } catch (Exception ignored) {}
+        }
 
-            if (ais == null) return; // no sound available
+        if (ais == null) return; // no sound available
 
-            try (AudioInputStream stream = ais){
-                Clip clip = AudioSystem.getClip();
-                clip.open(stream);
-                clip.start();
-            } catch (Exception ex){
-                // silently ignore playback errors to avoid crashing the UI
-                System.err.println("Failed to play result sound: " + ex.getMessage());
-            }
-        }, "ResultSoundPlayer").start();
+        try (AudioInputStream stream = ais){
+            Clip clip = AudioSystem.getClip();
+            clip.open(stream);
+            clip.start();
+        } catch (Exception ex){
+            // silently ignore playback errors to avoid crashing the UI
+            System.err.println("Failed to play result sound: " + ex.getMessage());
+        }
     }
 
-    // Return the correct multiplier for the player's current choice
-    private double getMultiplierForChosen(){
-        switch (chosenType){
-            case INDIVIDUAL: return mulIndividual;
-            case SUIT: return mulSuit;
-            case COLOUR: return mulColour;
-            case NUMBER: {
-                int v = rankValue(chosenRank);
-                // no fallback multiplier field: if rank invalid, treat as odd (safe default)
-                if (v <= 0) return mulNumberOdd;
-                return (v % 2 == 1) ? mulNumberOdd : mulNumberEven;
-            }
-            default: return mulNumberOdd;
+    /* ---------------------- Speculative next draw ---------------------- */
+    // what the screen should show if a given card is drawn next
+    private static class PrecomputedDraw {
+        final String probabilityHtml;
+        final BufferedImage raster; // null when the component was too large to cache
+        final boolean hit;          // the card is in the selection
+        final boolean windowHit;    // the bet would win if settled after the draw
+        final Card recentHit;       // the newest hit in the win window after the draw, null for none
+        PrecomputedDraw(String probabilityHtml, BufferedImage raster, boolean hit, Card recentHit){
+            this.probabilityHtml = probabilityHtml;
+            this.raster = raster;
+            this.hit = hit;
+            this.windowHit = recentHit != null;
+            this.recentHit = recentHit;
+        }
+    }
+
+    private static class Speculation {
+        final int generation;
+        final PrecomputedDraw[] draws; // indexed by Card.ordinal()
+        Speculation(int generation, PrecomputedDraw[] draws){ this.generation = generation; this.draws = draws; }
+    }
+
+    // Invalidate any previous speculation and, while in play, precompute the result of drawing
+    // each card still in the deck. Inputs are snapshotted here on the EDT; the worker only
+    // reads the snapshot and gives up as soon as the generation moves on.
+    private void speculateNextDraw(){
+        final int gen = speculationGeneration.incrementAndGet();
+        speculation = null;
+        if (currentState != State.PLAY || round.deck.size() == 0) return;
+
+        final List<Card> candidates = new ArrayList<>(round.deck.asList());
+        final ChosenType type = round.chosenType;
+        final String rank = round.chosenRank;
+        final Suit suit = round.chosenSuit;
+        final ColorType color = round.chosenColor;
+        final int bet = round.betAmount;
+        final double mult = round.multiplier();
+        final long selMask = Card.selectionMask(type, rank, suit, color);
+        final int fav = round.favorableCount();
+        final int total = round.deck.size();
+        // after the draw the window holds the newest K - 1 draws in it now, then the new card
+        Card hitBefore = null;
+        int inWindow = round.drawHistory.inWindow();
+        for (int i = inWindow - 1; i >= Math.max(0, inWindow - (round.window() - 1)) && hitBefore == null; i--){
+            Card c = round.drawHistory.inWindowCard(i);
+            if ((selMask & c.bit()) != 0) hitBefore = c;
         }
+        final Card recentBefore = hitBefore;
+
+        final int w = cardComponent.getWidth();
+        final int h = cardComponent.getHeight();
+        GraphicsConfiguration gc = cardComponent.getGraphicsConfiguration();
+        final double scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+        final boolean rasterize = w > 0 && h > 0
+                && (long) Math.ceil(w * scale) * (long) Math.ceil(h * scale) * 4L * candidates.size() <= MAX_SPECULATIVE_RASTER_BYTES;
+
+        speculationExecutor.execute(() -> {
+            if (speculationGeneration.get() != gen) return;
+            String hitHtml = fav > 0 ? probabilityHtml(type, rank, suit, color, bet, mult, fav - 1, total - 1) : null;
+            String missHtml = probabilityHtml(type, rank, suit, color, bet, mult, fav, total - 1);
+            PrecomputedDraw[] draws = new PrecomputedDraw[Card.RANKS.length * Suit.values().length];
+            for (Card c : candidates){
+                if (speculationGeneration.get() != gen) return; // deck or bet changed meanwhile
+                boolean match = (selMask & c.bit()) != 0;
+                BufferedImage raster = rasterize ? CardComponent.renderCard(c, w, h, scale) : null;
+                draws[c.ordinal()] = new PrecomputedDraw(match ? hitHtml : missHtml, raster, match, match ? c : recentBefore);
+            }
+            if (speculationGeneration.get() == gen) speculation = new Speculation(gen, draws);
+        });
     }
 
     private JPanel createTopBar(){
@@ -1112,7 +1237,7 @@ public class gamePanel extends JPanel {
         JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT,8,0));
         right.setOpaque(false);
         JButton reset = stylizeButtonSmall("Reset Deck");
-        reset.addActionListener(e -> { deck.resetToFull(); drawHistory.clear(); updateDeckStatus(); updateDeckList(); });
+        reset.addActionListener(e -> { if (editDeck(round.deck::resetToFull)) round.drawHistory.clear(); });
         right.add(reset);
         JButton help = stylizeButtonSmall("Help");
         help.addActionListener(a -> JOptionPane.showMessageDialog(this,
@@ -1129,20 +1254,118 @@ public class gamePanel extends JPanel {
         editToggle.addActionListener(e -> toggleRightTabs());
         right.add(editToggle);
 
+        JButton spectate = stylizeButtonSmall("Spectators");
+        spectate.setToolTipText("Mirror the card and result on another screen (Esc there closes it)");
+        spectate.addActionListener(e -> toggleSpectatorDisplay());
+        right.add(spectate);
+
         top.add(right, BorderLayout.EAST);
         return top;
     }
 
+    private void startAutoPlay(double roundsPerSecond){
+        autoPlay = new AutoPlay(round, roundsPerSecond);
+        autoPlayShown = null;
+        autoPlayTimer = new javax.swing.Timer(1000 / refreshRate(), e -> showAutoPlay());
+        autoPlay.start();
+        autoPlayTimer.start();
+    }
+
+    // stops the worker and puts the screen back to the round, which auto-play never touched
+    private void stopAutoPlay(){
+        if (autoPlay == null) return;
+        autoPlayTimer.stop();
+        autoPlay.stop();
+        showAutoPlay();
+        autoPlay = null;
+        autoPlayTimer = null;
+        cardComponent.setCard(round.lastDrawn);
+    }
+
+    // one frame: the latest state only, and nothing when the worker has not published since
+    private void showAutoPlay(){
+        AutoPlay.Snapshot snap = autoPlay.latest();
+        if (snap == autoPlayShown) return;
+        autoPlayShown = snap;
+        if (snap.lastCard != null) cardComponent.setCard(snap.lastHit != null ? snap.lastHit : snap.lastCard);
+        autoPlayLabel.setText(String.format("Auto-play: %,d rounds  |  %,.0f rounds/s  |  RTP %.3f%%  |  hit rate %.2f%%  |  net %s",
+                snap.rounds, snap.roundsPerSecond, 100 * snap.rtp(), 100 * snap.hitRate(), Money.format(snap.net)));
+    }
+
+    // frames per second of the screen this panel is on, 60 when it cannot be told
+    private int refreshRate(){
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        int hz = gc == null ? DisplayMode.REFRESH_RATE_UNKNOWN : gc.getDevice().getDisplayMode().getRefreshRate();
+        return hz > 0 ? hz : 60;
+    }
+
+    private void toggleSpectatorDisplay(){
+        if (spectator != null && spectator.isOpen()){
+            spectator.close();
+            spectator = null;
+            return;
+        }
+        spectator = SpectatorDisplay.open(this);
+        updateSpectatorDisplay(null, null);
+    }
+
+    // shows the card of the current screen on the spectator display, with an optional caption
+    private void updateSpectatorDisplay(String caption, Color colour){
+        if (spectator == null) return;
+        if (!spectator.isOpen()){ spectator = null; return; }
+        switch (currentState){
+            case PLAY: spectator.mirror(cardComponent); break;
+            case RESULT: spectator.mirror(lastResultCardComponent); break;
+            default: spectator.mirror(null); break;
+        }
+        if (caption == null) caption = currentState == State.SETUP ? "Place your bets" : "";
+        spectator.setCaption(caption, colour == null ? Color.WHITE : colour);
+    }
+
     private void updateTopInfo(){
-        String txt = String.format("<html><div style='color:white;padding:6px;'>Bet: $%d &nbsp;&nbsp; | &nbsp;&nbsp; Choice: %s &nbsp;&nbsp; | &nbsp;&nbsp; Deck size: %d</div></html>",
-                betAmount, chosenSummary(), deck.size());
+        Card recent = round.windowHit ? round.mostRecentHit() : null;
+        updateTopInfo(round.windowHit, recent, recent != null && round.lastDrawn != null && recent.ordinal() == round.lastDrawn.ordinal());
+    }
+
+    // the win state of the window: whether it holds a hit, the newest one, and whether that is
+    // the last draw (a speculated draw passes the state it precomputed)
+    private void updateTopInfo(boolean windowHit, Card recentHit, boolean drawHit){
+        String state = windowHit ? "HIT (" + recentHit + (drawHit ? ", this draw" : "") + ")" : "no hit";
+        String window = (currentState == State.PLAY && !round.drawHistory.isEmpty())
+                ? String.format(" &nbsp;&nbsp; | &nbsp;&nbsp; Last %d: %s", round.window(), state) : "";
+        if (currentState == State.PLAY && round.fair != null)
+            window += " &nbsp;&nbsp; | &nbsp;&nbsp; Commitment: " + FairDraws.hex(round.fair.commitment()).substring(0, 16) + "…";
+        String txt = String.format("<html><div style='color:white;padding:6px;'>Bet: $%d &nbsp;&nbsp; | &nbsp;&nbsp; Choice: %s &nbsp;&nbsp; | &nbsp;&nbsp; Deck size: %d &nbsp;&nbsp; | &nbsp;&nbsp; Jackpot: %s%s</div></html>",
+                round.betAmount, chosenSummary(), round.deck.size(), Money.format(jackpot.amount()), window);
         if (topInfoLabel != null) topInfoLabel.setText(txt);
     }
 
+    // writes the retained draws to a text file, one card per line, oldest first
+    private void saveDrawHistory(){
+        JFileChooser chooser = new JFileChooser(new File("."));
+        chooser.setSelectedFile(new File("draws.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        DrawHistory history = round.drawHistory;
+        long written = 0;
+        try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(chooser.getSelectedFile().toPath())){
+            byte[] chunk = new byte[DrawHistory.SPILL_CHUNK];
+            for (long i = history.retainedFrom(); i < history.size(); ){
+                int n = history.readRetained(i, chunk);
+                for (int k = 0; k < n; k++) out.write(Card.fromOrdinal(chunk[k]) + "\n");
+                i += n;
+                written += n;
+            }
+        } catch (java.io.IOException | java.io.UncheckedIOException ex){
+            JOptionPane.showMessageDialog(this, "Could not save the history: " + ex.getMessage(), "Save history", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JOptionPane.showMessageDialog(this, String.format("%,d draws saved.", written), "Save history", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /* ---------------------- Probability content builder ---------------------- */
 
     // greatest common divisor helper for fraction reduction
-    private int gcd(int a, int b){
+    private static int gcd(int a, int b){
         a = Math.abs(a); b = Math.abs(b);
         if (a == 0) return b;
         if (b == 0) return a;
@@ -1154,10 +1377,18 @@ public class gamePanel extends JPanel {
         return a;
     }
 
-    // build HTML content for probability pane
+    // refresh the probability pane for the current deck
     private void updateProbabilityPane(){
         if (probabilityPane == null) return;
-        int total = deck.size();
+        probabilityPane.setText(probabilityHtml(round.chosenType, round.chosenRank, round.chosenSuit, round.chosenColor,
+                round.betAmount, round.multiplier(), round.favorableCount(), round.deck.size()));
+        probabilityPane.setCaretPosition(0);
+    }
+
+    // build HTML content for probability pane; depends only on its arguments so it can also
+    // be prepared off the EDT for a deck that does not exist yet (see speculateNextDraw)
+    private static String probabilityHtml(ChosenType type, String rank, Suit suit, ColorType color,
+                                          int bet, double mult, int fav, int total){
         StringBuilder html = new StringBuilder();
         html.append("<html><body style='font-family:Segoe UI, Sans-Serif; color:#ECECEC; background:#222;'>");
         html.append("<div style='padding:6px;'>");
@@ -1166,15 +1397,12 @@ public class gamePanel extends JPanel {
         if (total == 0){
             html.append("<p style='color:#FFCCBB;'>Deck is empty — no probability available. Add or reset cards.</p>");
             html.append("</div></body></html>");
-            probabilityPane.setText(html.toString());
-            probabilityPane.setCaretPosition(0);
-            return;
+            return html.toString();
         }
 
-        switch (chosenType){
+        switch (type){
             case INDIVIDUAL: {
-                int fav = deck.countRankSuit(chosenRank, chosenSuit);
-                html.append(String.format("<p><b>Chosen:</b> %s of %s (individual card)</p>", chosenRank, chosenSuit.name()));
+                html.append(String.format("<p><b>Chosen:</b> %s of %s (individual card)</p>", rank, suit.name()));
                 html.append("<ol>");
                 html.append(String.format("<li>Count favorable outcomes (the chosen card) = <b>%d</b>.</li>", fav));
                 html.append(String.format("<li>Total possible outcomes (cards in deck) = <b>%d</b>.</li>", total));
@@ -1195,8 +1423,7 @@ public class gamePanel extends JPanel {
                 break;
             }
             case SUIT: {
-                int fav = deck.countSuit(chosenSuit);
-                html.append(String.format("<p><b>Chosen:</b> Suit = %s</p>", chosenSuit.name()));
+                html.append(String.format("<p><b>Chosen:</b> Suit = %s</p>", suit.name()));
                 html.append("<ol>");
                 html.append(String.format("<li>Count favorable outcomes (cards of that suit) = <b>%d</b>.</li>", fav));
                 html.append(String.format("<li>Total possible outcomes (cards in deck) = <b>%d</b>.</li>", total));
@@ -1213,8 +1440,7 @@ public class gamePanel extends JPanel {
                 break;
             }
             case COLOUR: {
-                int fav = deck.countColor(chosenColor);
-                html.append(String.format("<p><b>Chosen:</b> Colour = %s</p>", chosenColor.name()));
+                html.append(String.format("<p><b>Chosen:</b> Colour = %s</p>", color.name()));
                 html.append("<ol>");
                 html.append(String.format("<li>Count favorable outcomes (cards of that colour) = <b>%d</b>.</li>", fav));
                 html.append(String.format("<li>Total possible outcomes (cards in deck) = <b>%d</b>.</li>", total));
@@ -1231,8 +1457,7 @@ public class gamePanel extends JPanel {
                 break;
             }
             case NUMBER: {
-                int fav = deck.countRank(chosenRank);
-                html.append(String.format("<p><b>Chosen:</b> Rank = %s (number)</p>", chosenRank));
+                html.append(String.format("<p><b>Chosen:</b> Rank = %s (number)</p>", rank));
                 html.append("<ol>");
                 html.append(String.format("<li>Count favorable outcomes (cards of that rank) = <b>%d</b>.</li>", fav));
                 html.append(String.format("<li>Total possible outcomes (cards in deck) = <b>%d</b>.</li>", total));
@@ -1255,31 +1480,429 @@ public class gamePanel extends JPanel {
         }
 
         // Optionally show expected value (brief)
-        double p = 0.0;
-        switch (chosenType){
-            case INDIVIDUAL:
-                p = (double) deck.countRankSuit(chosenRank, chosenSuit) / (double) total; break;
-            case SUIT:
-                p = (double) deck.countSuit(chosenSuit) / (double) total; break;
-            case COLOUR:
-                p = (double) deck.countColor(chosenColor) / (double) total; break;
-            case NUMBER:
-                p = (double) deck.countRank(chosenRank) / (double) total; break;
-        }
-        double mult = getMultiplierForChosen();
-        double expected = p * (betAmount * mult) + (1 - p) * (0); // expected payout (not net) quickly shown
+        double p = (double) fav / (double) total;
+        double expected = p * (bet * mult) + (1 - p) * (0); // expected payout (not net) quickly shown
         html.append(String.format("<hr style='border-color:#444;'/>"));
         html.append(String.format("<p style='font-size:11px;color:#DDDDDD;'>Quick note: If you want expected net value: EV = p × (payout) − (1 − p) × (bet).<br/>Current quick payout expectation: <b>%.2f</b> (not net).</p>", expected));
         html.append("</div></body></html>");
+        return html.toString();
+    }
 
-        probabilityPane.setText(html.toString());
-        probabilityPane.setCaretPosition(0);
+    /* ---------------------- Event deck ---------------------- */
+    private JPanel createEventsTab(Color bg){
+        JPanel eventsTab = new JPanel();
+        eventsTab.setBackground(bg);
+        eventsTab.setLayout(new BoxLayout(eventsTab, BoxLayout.Y_AXIS));
+        eventsTab.setBorder(new EmptyBorder(10,10,10,10));
+
+        JLabel title = new JLabel("Event Deck");
+        title.setForeground(Color.WHITE);
+        title.setFont(title.getFont().deriveFont(Font.BOLD, BASE_CONTROLS_TITLE_FONT));
+        eventsTab.add(title);
+        eventsTab.add(Box.createVerticalStrut(8));
+
+        JLabel status = new JLabel();
+        status.setForeground(Color.LIGHT_GRAY);
+        eventsTab.add(status);
+        eventsTab.add(Box.createVerticalStrut(8));
+
+        JButton loadBtn = stylizeButtonSmall("Load catalog...");
+        eventsTab.add(loadBtn);
+        eventsTab.add(Box.createVerticalStrut(10));
+
+        JLabel tagLbl = new JLabel("Bet on tag:");
+        tagLbl.setForeground(Color.WHITE);
+        eventsTab.add(tagLbl);
+        eventsTab.add(Box.createVerticalStrut(6));
+        JPanel tagPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        tagPanel.setOpaque(false);
+        JComboBox<String> tagBox = stylizeCombo(new JComboBox<>());
+        JButton drawEventBtn = stylizeButtonSmall("Draw event");
+        tagPanel.add(tagBox); tagPanel.add(drawEventBtn);
+        eventsTab.add(tagPanel);
+
+        JPanel modePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        modePanel.setOpaque(false);
+        JCheckBox noReplace = new JCheckBox("Without replacement");
+        noReplace.setOpaque(false);
+        noReplace.setForeground(Color.WHITE);
+        JButton resetEventsBtn = stylizeButtonSmall("Put all back");
+        modePanel.add(noReplace); modePanel.add(resetEventsBtn);
+        eventsTab.add(modePanel);
+
+        JLabel tagOdds = new JLabel(" ");
+        tagOdds.setForeground(Color.LIGHT_GRAY);
+        eventsTab.add(tagOdds);
+        eventsTab.add(Box.createVerticalStrut(10));
+
+        JLabel drawn = new JLabel(" ");
+        drawn.setForeground(Color.WHITE);
+        eventsTab.add(drawn);
+
+        Runnable refresh = () -> {
+            if (eventCatalog == null){
+                tagBox.removeAllItems();
+                status.setText("No catalog loaded.");
+                drawEventBtn.setEnabled(false);
+                return;
+            }
+            status.setText(String.format("%d events, %d of %d copies left, %d tags", eventCatalog.size(),
+                    eventSampler.remainingTotal(), eventCatalog.totalCopies(), eventCatalog.tags().size()));
+            if (tagBox.getItemCount() == 0) for (String t : eventCatalog.tags()) tagBox.addItem(t);
+            drawEventBtn.setEnabled(eventSampler.remainingTotal() > 0);
+        };
+        refresh.run();
+
+        tagBox.addActionListener(e -> {
+            String tag = (String) tagBox.getSelectedItem();
+            if (eventCatalog == null || tag == null || eventCatalog.totalWeight() <= 0) { tagOdds.setText(" "); return; }
+            double p = eventCatalog.taggedWeight(eventCatalog.tagId(tag)) / eventCatalog.totalWeight();
+            tagOdds.setText(String.format("P(%s) = %.3f%% (full catalog)", tag, 100.0 * p));
+        });
+
+        loadBtn.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(new File("."));
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            File file = chooser.getSelectedFile();
+            loadBtn.setEnabled(false);
+            status.setText("Loading " + file.getName() + "...");
+            // index the catalog off the EDT; large catalogs take a noticeable moment
+            new SwingWorker<EventCatalog, Void>(){
+                private EventSampler sampler;
+                @Override protected EventCatalog doInBackground() throws Exception {
+                    EventCatalog cat = EventCatalog.load(file.toPath());
+                    sampler = new EventSampler(cat);
+                    return cat;
+                }
+                @Override protected void done(){
+                    loadBtn.setEnabled(true);
+                    try {
+                        eventCatalog = get();
+                        eventSampler = sampler;
+                        tagBox.removeAllItems();
+                    } catch (Exception ex){
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        JOptionPane.showMessageDialog(gamePanel.this, "Could not load catalog: " + cause.getMessage(),
+                                "Event Catalog", JOptionPane.ERROR_MESSAGE);
+                    }
+                    refresh.run();
+                }
+            }.execute();
+        });
+
+        drawEventBtn.addActionListener(e -> {
+            if (eventCatalog == null) return;
+            int idx = noReplace.isSelected() ? eventSampler.drawWithoutReplacement(round.rng) : eventSampler.drawWithReplacement(round.rng);
+            refresh.run();
+            if (idx < 0) return;
+            EventCatalog.Entry ev = eventCatalog.entry(idx);
+            cardComponent.setEvent(ev);
+            String tag = (String) tagBox.getSelectedItem();
+            boolean hit = tag != null && eventCatalog.hasTag(idx, eventCatalog.tagId(tag));
+            drawn.setText("<html>Drew: <b>" + ev.name + "</b><br/>Tags: " + String.join(", ", ev.tags)
+                    + (tag == null ? "" : "<br/>Tag '" + tag + "': " + (hit ? "HIT" : "miss")) + "</html>");
+        });
+
+        resetEventsBtn.addActionListener(e -> {
+            if (eventSampler == null) return;
+            eventSampler.reset();
+            refresh.run();
+        });
+
+        return eventsTab;
+    }
+
+    /* ---------------------- Fairness tab ---------------------- */
+    private JPanel createFairnessTab(Color bg){
+        JPanel tab = new JPanel(new BorderLayout(0,8));
+        tab.setBackground(bg);
+        tab.setBorder(new EmptyBorder(12,12,12,12));
+
+        JLabel title = new JLabel("Fairness");
+        title.setForeground(Color.WHITE);
+        title.setFont(title.getFont().deriveFont(Font.BOLD, BASE_CONTROLS_TITLE_FONT));
+        tab.add(title, BorderLayout.NORTH);
+
+        fairnessPane = new JEditorPane();
+        fairnessPane.setContentType("text/html");
+        fairnessPane.setEditable(false);
+        fairnessPane.setBackground(new Color(34,38,44));
+        fairnessPane.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+        JScrollPane scroll = new JScrollPane(fairnessPane);
+        scroll.setBorder(BorderFactory.createLineBorder(new Color(60,60,60)));
+        tab.add(scroll, BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel(new BorderLayout(0,6));
+        bottom.setOpaque(false);
+        fairnessTrend = new PValueTrend();
+        bottom.add(fairnessTrend, BorderLayout.CENTER);
+        JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        actions.setOpaque(false);
+        JButton resetBtn = stylizeButtonSmall("Reset statistics");
+        actions.add(resetBtn);
+        bottom.add(actions, BorderLayout.SOUTH);
+        tab.add(bottom, BorderLayout.SOUTH);
+
+        resetBtn.addActionListener(e -> { fairness.reset(); refreshFairnessTab(true); });
+        refreshFairnessTab(true);
+        return tab;
+    }
+
+    // timer tick on the EDT: snapshot when there were new draws, render only while visible
+    private void refreshFairnessTab(boolean force){
+        if (fairnessPane == null) return;
+        if (!force && !fairnessPane.isShowing()) return;
+        FairnessStats.Snapshot s = fairness.snapshot();
+        if (!force && s.draws == fairnessShownDraws) return;
+        fairnessShownDraws = s.draws;
+        fairnessPane.setText(fairnessHtml(s));
+        fairnessPane.setCaretPosition(0);
+        fairnessTrend.setTrend(s);
+    }
+
+    private static String fairnessHtml(FairnessStats.Snapshot s){
+        StringBuilder html = new StringBuilder();
+        html.append("<html><body style='font-family:Segoe UI, Sans-Serif; color:#ECECEC; background:#222;'>");
+        html.append("<div style='padding:6px;'>");
+        html.append(String.format("<h3 style='margin:6px 0 10px 0; color:#FFFFFF;'>%,d draws observed</h3>", s.draws));
+        if (s.missed > 0){
+            html.append(String.format("<p style='color:#CCCCCC;'>%,d events were skipped while the statistics fell behind; the tests cover the draws observed.</p>", s.missed));
+        }
+        if (s.draws == 0){
+            html.append("<p style='color:#CCCCCC;'>Statistics start with the first draw. Expected rates follow the deck as it was at each draw.</p>");
+            html.append("</div></body></html>");
+            return html.toString();
+        }
+
+        html.append("<p><b>Tests</b> (p below 0.01 deserves a closer look)</p><ul>");
+        appendChi(html, "Cards", s.cardChi, s.cardDof, s.cardP);
+        appendChi(html, "Suits", s.suitChi, s.suitDof, s.suitP);
+        appendChi(html, "Colours", s.colourChi, s.colourDof, s.colourP);
+        appendChi(html, "Ranks", s.rankChi, s.rankDof, s.rankP);
+        html.append(String.format("<li>Red/black runs: %,d vs %.1f expected, z = %.2f, %s</li>", s.runs, s.runsExpected, s.runsZ, pValue(s.runsP)));
+        html.append("</ul>");
+
+        String[] suits = new String[4];
+        for (Suit suit : Suit.values()) suits[suit.ordinal()] = suit.name();
+        appendRates(html, "Suits", suits, s.suitObserved, s.suitExpected, s.draws);
+        appendRates(html, "Colours", new String[]{ "RED", "BLACK" }, s.colourObserved, s.colourExpected, s.draws);
+        appendRates(html, "Ranks", Card.RANKS, s.rankObserved, s.rankExpected, s.draws);
+        String[] cards = new String[52];
+        for (int c = 0; c < 52; c++) cards[c] = Card.fromOrdinal(c).toString();
+        appendRates(html, "Cards", cards, s.observed, s.expected, s.draws);
+
+        html.append("</div></body></html>");
+        return html.toString();
+    }
+
+    private static void appendChi(StringBuilder html, String what, double chi, int dof, double p){
+        if (dof <= 0) html.append(String.format("<li>%s: not enough cells yet</li>", what));
+        else if (Double.isNaN(p)) html.append(String.format("<li>%s: &chi;&sup2; = %.2f, %d df, waiting for %.0f expected draws per cell</li>", what, chi, dof, FairnessStats.MIN_EXPECTED));
+        else html.append(String.format("<li>%s: &chi;&sup2; = %.2f, %d df, %s</li>", what, chi, dof, pValue(p)));
+    }
+
+    private static String pValue(double p){
+        if (Double.isNaN(p)) return "p = n/a";
+        String colour = p < 0.01 ? "#FF8888" : p < 0.05 ? "#FFCC66" : "#88DD88";
+        return String.format("<span style='color:%s;'>p = %.3f</span>", colour, p);
+    }
+
+    private static void appendRates(StringBuilder html, String title, String[] names, long[] observed, double[] expected, long draws){
+        html.append("<p style='margin-top:10px;'><b>").append(title).append("</b></p>");
+        html.append("<table cellpadding='2' style='color:#ECECEC;'><tr><th align='left'></th><th align='right'>Seen</th><th align='right'>Expected</th><th align='right'>Rate</th><th align='right'>Theory</th></tr>");
+        for (int i = 0; i < names.length; i++){
+            html.append(String.format("<tr><td>%s</td><td align='right'>%,d</td><td align='right'>%.1f</td><td align='right'>%.3f%%</td><td align='right'>%.3f%%</td></tr>",
+                    names[i], observed[i], expected[i], 100.0 * observed[i] / draws, 100.0 * expected[i] / draws));
+        }
+        html.append("</table>");
+    }
+
+    // p-value trend: cards chi-square (blue) and runs test (orange), with the 0.05 line
+    private static class PValueTrend extends JComponent {
+        private FairnessStats.Snapshot snap = null;
+
+        PValueTrend(){ setPreferredSize(new Dimension(200, 70)); setOpaque(true); setBackground(new Color(30,34,40)); }
+
+        void setTrend(FairnessStats.Snapshot s){ snap = s; repaint(); }
+
+        @Override
+        protected void paintComponent(Graphics g){
+            Graphics2D g2 = (Graphics2D) g.create();
+            int w = getWidth(), h = getHeight();
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, w, h);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            int y05 = h - 1 - (int) Math.round(0.05 * (h - 2));
+            g2.setColor(new Color(120,60,60));
+            g2.drawLine(0, y05, w, y05);
+            if (snap != null && snap.trendChi.length > 1){
+                plot(g2, snap.trendChi, w, h, new Color(90,170,230));
+                plot(g2, snap.trendRuns, w, h, new Color(240,160,60));
+            } else {
+                g2.setColor(Color.GRAY);
+                g2.drawString("p-value trend", 6, h / 2);
+            }
+            g2.dispose();
+        }
+
+        private static void plot(Graphics2D g2, double[] p, int w, int h, Color c){
+            g2.setColor(c);
+            int n = p.length, px = 0, py = 0;
+            for (int i = 0; i < n; i++){
+                int x = (int) Math.round(i * (w - 1) / (double) (FairnessStats.TREND - 1));
+                int y = h - 1 - (int) Math.round(p[i] * (h - 2));
+                if (i > 0) g2.drawLine(px, py, x, y);
+                px = x; py = y;
+            }
+        }
+    }
+
+    /* ---------------------- Odds board ---------------------- */
+    // Fixed rows for every bet on the table: 52 cards, 4 suits, 2 colours and 13 numbers.
+    // Cells are computed on demand from the deck's running counters, so a refresh is just a
+    // repaint of the visible rows and never rescans the deck.
+    private class OddsBoardModel extends AbstractTableModel {
+        private final String[] columns = {"Bet", "Type", "P(win)", "Multiplier", "EV per $1"};
+        private final List<Object[]> bets = new ArrayList<>(); // {ChosenType, rank, Suit, ColorType}
+
+        OddsBoardModel(){
+            for (Suit su : Suit.values())
+                for (String r : Card.RANKS) bets.add(new Object[]{ChosenType.INDIVIDUAL, r, su, null});
+            for (Suit su : Suit.values()) bets.add(new Object[]{ChosenType.SUIT, null, su, null});
+            for (ColorType col : ColorType.values()) bets.add(new Object[]{ChosenType.COLOUR, null, null, col});
+            for (String r : Card.RANKS) bets.add(new Object[]{ChosenType.NUMBER, r, null, null});
+        }
+
+        void refresh(){ fireTableDataChanged(); }
+
+        @Override public int getRowCount(){ return bets.size(); }
+        @Override public int getColumnCount(){ return columns.length; }
+        @Override public String getColumnName(int col){ return columns[col]; }
+        @Override public Class<?> getColumnClass(int col){ return col < 2 ? String.class : Double.class; }
+
+        @Override
+        public Object getValueAt(int row, int col){
+            Object[] b = bets.get(row);
+            ChosenType type = (ChosenType) b[0];
+            String rank = (String) b[1];
+            Suit suit = (Suit) b[2];
+            ColorType color = (ColorType) b[3];
+            switch (col){
+                case 0:
+                    switch (type){
+                        case INDIVIDUAL: return rank + suit.glyph();
+                        case SUIT: return suit.name();
+                        case COLOUR: return color.name();
+                        default: return rank;
+                    }
+                case 1: return type.name();
+                case 2: return probability(type, rank, suit, color);
+                case 3: return round.multiplierFor(type, rank);
+                default: {
+                    double p = probability(type, rank, suit, color);
+                    return p * round.multiplierFor(type, rank) - (1 - p);
+                }
+            }
+        }
+
+        private double probability(ChosenType type, String rank, Suit suit, ColorType color){
+            int total = round.deck.size();
+            if (total == 0) return 0.0;
+            int fav;
+            switch (type){
+                case INDIVIDUAL: fav = round.deck.countRankSuit(rank, suit); break;
+                case SUIT: fav = round.deck.countSuit(suit); break;
+                case COLOUR: fav = round.deck.countColor(color); break;
+                default: fav = round.deck.countRank(rank); break;
+            }
+            return (double) fav / total;
+        }
+    }
+
+    // formats the numeric odds columns: probability as a percentage, the rest to two places
+    private static class OddsCellRenderer extends DefaultTableCellRenderer {
+        OddsCellRenderer(){ setHorizontalAlignment(SwingConstants.RIGHT); }
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean sel, boolean focus, int row, int col){
+            super.getTableCellRendererComponent(table, value, sel, focus, row, col);
+            if (value instanceof Double){
+                double d = (Double) value;
+                boolean pct = table.convertColumnIndexToModel(col) == 2;
+                setText(pct ? String.format("%.2f%%", 100.0 * d) : String.format("%.2f", d));
+            }
+            return this;
+        }
     }
 
     /* ---------------------- Card painter (robust) ---------------------- */
-    private static class CardComponent extends JComponent {
+    static class CardComponent extends JComponent {
         private Card card = null;
-        void setCard(Card c){ this.card = c; repaint(); }
+        private EventCatalog.Entry event = null; // shown instead of a playing card when set
+        private BufferedImage raster = null; // optional pre-rendered image of card at this size
+        void setCard(Card c){ setCard(c, null); }
+        void setCard(Card c, BufferedImage prerendered){ this.card = c; this.event = null; this.raster = prerendered; invalidateFrame(); }
+        void setEvent(EventCatalog.Entry e){ this.card = null; this.event = e; this.raster = null; invalidateFrame(); }
+
+        // The card is painted once per change of card, size or monitor scale into a back buffer
+        // in device pixels, and every repaint is a blit of it. A SpectatorDisplay mirrors the same
+        // buffer, so a second screen costs a blit rather than a second paint. While anyone listens
+        // for frames, a change of card renders the buffer at once instead of at the next paint, so
+        // the mirror keeps up when this component is not painted at all (a minimised or covered
+        // window). EDT only.
+        private BufferedImage frame = null;
+        private boolean frameOwned = false;  // false while frame is the shared speculative raster
+        private boolean frameDirty = true;
+        private int frameVersion = 0;
+        private double frameScale = 0;       // device scale of the last paint, 0 before the first
+        private final List<Runnable> frameListeners = new ArrayList<>();
+
+        void invalidateFrame(){
+            frameDirty = true;
+            if (!frameListeners.isEmpty()){
+                double scale = frameScale;
+                if (scale == 0){
+                    GraphicsConfiguration gc = getGraphicsConfiguration();
+                    scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1;
+                }
+                renderFrame(scale);
+            }
+            repaint();
+        }
+
+        // the last painted frame in device pixels, or null before the first paint
+        BufferedImage frame(){ return frame; }
+        int frameVersion(){ return frameVersion; }
+        void addFrameListener(Runnable r){ frameListeners.add(r); }
+        void removeFrameListener(Runnable r){ frameListeners.remove(r); }
+
+        // Fonts, wrapped text layouts and event art are shared by every card component (the live
+        // card, the enlarged result card and offscreen renders), so text is shaped once per
+        // text/font/width and reused across repaints and resizes. Painting may also run on the
+        // speculation worker, hence the synchronized/concurrent maps.
+        private static final Map<String,Font> FONTS = new ConcurrentHashMap<>();
+        private static final int MAX_LAYOUTS = 128;
+        private static final Map<LayoutKey,List<TextLayout>> LAYOUTS = Collections.synchronizedMap(
+                new LinkedHashMap<LayoutKey,List<TextLayout>>(64, 0.75f, true){
+                    @Override protected boolean removeEldestEntry(Map.Entry<LayoutKey,List<TextLayout>> e){ return size() > MAX_LAYOUTS; }
+                });
+        private static final Map<String,Optional<Image>> ART = new ConcurrentHashMap<>();
+
+        private static final class LayoutKey {
+            final String text; final Font font; final int width; final FontRenderContext frc;
+            LayoutKey(String text, Font font, int width, FontRenderContext frc){
+                this.text = text; this.font = font; this.width = width; this.frc = frc;
+            }
+            @Override public boolean equals(Object o){
+                if (!(o instanceof LayoutKey)) return false;
+                LayoutKey k = (LayoutKey) o;
+                return width == k.width && text.equals(k.text) && font.equals(k.font) && frc.equals(k.frc);
+            }
+            @Override public int hashCode(){ return Objects.hash(text, font, width, frc); }
+        }
+
+        static Font font(String name, int style, int size){
+            return FONTS.computeIfAbsent(name + "/" + style + "/" + size, k -> new Font(name, style, size));
+        }
 
         private static Image cardBack = null;
         static {
@@ -1309,10 +1932,51 @@ public class gamePanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g){
             super.paintComponent(g);
+            int w = getWidth(), h = getHeight();
             Graphics2D g2 = (Graphics2D) g.create();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            frameScale = g2.getTransform().getScaleX();
+            renderFrame(frameScale);
+            if (frame != null) g2.drawImage(frame, 0, 0, w, h, null);
+            g2.dispose();
+        }
 
+        // repaints the back buffer when the card, the size or the scale changed, and tells the listeners
+        private void renderFrame(double scale){
             int w = getWidth(), h = getHeight();
+            int pw = (int) Math.ceil(w * scale), ph = (int) Math.ceil(h * scale);
+            if (pw <= 0 || ph <= 0 || !(frameDirty || frame == null || frame.getWidth() != pw || frame.getHeight() != ph)) return;
+            if (raster != null && raster.getWidth() == pw && raster.getHeight() == ph){
+                frame = raster;
+                frameOwned = false;
+            } else {
+                if (!frameOwned || frame.getWidth() != pw || frame.getHeight() != ph){
+                    GraphicsConfiguration gc = getGraphicsConfiguration();
+                    frame = gc != null ? gc.createCompatibleImage(pw, ph) : new BufferedImage(pw, ph, BufferedImage.TYPE_INT_RGB);
+                    frameOwned = true;
+                }
+                Graphics2D fg = frame.createGraphics();
+                fg.scale(scale, scale);
+                paintCard(fg, w, h, card, event);
+                fg.dispose();
+            }
+            frameDirty = false;
+            frameVersion++;
+            for (Runnable r : frameListeners) r.run();
+        }
+
+        // render a card the size of a w x h component at the given device scale; safe off the EDT
+        static BufferedImage renderCard(Card card, int w, int h, double scale){
+            BufferedImage img = new BufferedImage((int) Math.ceil(w * scale), (int) Math.ceil(h * scale), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = img.createGraphics();
+            g2.scale(scale, scale);
+            paintCard(g2, w, h, card, null);
+            g2.dispose();
+            return img;
+        }
+
+        static void paintCard(Graphics2D g2, int w, int h, Card card, EventCatalog.Entry event){
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
             g2.setColor(new Color(20,22,26));
             g2.fillRect(0,0,w,h);
 
@@ -1335,11 +1999,16 @@ public class gamePanel extends JPanel {
             g2.setStroke(new BasicStroke(Math.max(1f, cardW / 210f)));
             g2.draw(rr);
 
+            if (event != null){
+                paintEvent(g2, x, y, cardW, cardH, event);
+                return;
+            }
+
             if (card == null){
                 boolean drewImage = false;
                 if (cardBack != null) {
-                    int iw = cardBack.getWidth(this);
-                    int ih = cardBack.getHeight(this);
+                    int iw = cardBack.getWidth(null);
+                    int ih = cardBack.getHeight(null);
                     if (iw > 0 && ih > 0) {
                         int imgMaxW = (int)(cardW * 0.7);
                         int imgMaxH = (int)(cardH * 0.7);
@@ -1348,13 +2017,13 @@ public class gamePanel extends JPanel {
                         int drawH = (int)(ih * is);
                         int ix = x + (cardW - drawW)/2;
                         int iy = y + (cardH - drawH)/2;
-                        g2.drawImage(cardBack, ix, iy, drawW, drawH, this);
+                        g2.drawImage(cardBack, ix, iy, drawW, drawH, null);
                         drewImage = true;
                     }
                 }
                 if (!drewImage) {
                     int fontSize = Math.max(14, cardW / 12);
-                    g2.setFont(new Font("SansSerif", Font.BOLD, fontSize));
+                    g2.setFont(font("SansSerif", Font.BOLD, fontSize));
                     g2.setColor(new Color(140,140,140));
                     String s = "No card drawn";
                     FontMetrics fm = g2.getFontMetrics();
@@ -1366,17 +2035,17 @@ public class gamePanel extends JPanel {
                 Color suitColor = isRed ? new Color(180,40,40) : new Color(40,40,40);
 
                 int rankFont = Math.max(18, cardW / 12);
-                g2.setFont(new Font("SansSerif", Font.BOLD, rankFont));
+                g2.setFont(font("SansSerif", Font.BOLD, rankFont));
                 g2.setColor(suitColor);
                 g2.drawString(card.rank, x + 18, y + 36);
 
                 int glyphFont = Math.max(18, cardW / 12);
-                g2.setFont(new Font("Serif", Font.PLAIN, glyphFont));
+                g2.setFont(font("Serif", Font.PLAIN, glyphFont));
                 g2.drawString(card.suit.glyph(), x + 18, y + 60);
 
                 if (!card.isFace()){
                     int centerFont = Math.max(64, cardW / 2);
-                    g2.setFont(new Font("Serif", Font.BOLD, centerFont));
+                    g2.setFont(font("Serif", Font.BOLD, centerFont));
                     FontMetrics fmCenter = g2.getFontMetrics();
                     String glyph = card.suit.glyph();
                     int gw = fmCenter.stringWidth(glyph);
@@ -1386,20 +2055,100 @@ public class gamePanel extends JPanel {
                     drawFaceArt(g2, x, y, cardW, cardH, card.rank, card.suit, suitColor);
                 }
 
-                g2.setFont(new Font("SansSerif", Font.BOLD, Math.max(14, cardW / 12)));
+                g2.setFont(font("SansSerif", Font.BOLD, Math.max(14, cardW / 12)));
                 String rank = card.rank;
                 int sw = g2.getFontMetrics().stringWidth(rank);
                 g2.drawString(rank, x + cardW - 18 - sw, y + cardH - 18);
-                g2.setFont(new Font("Serif", Font.PLAIN, Math.max(12, cardW / 14)));
+                g2.setFont(font("Serif", Font.PLAIN, Math.max(12, cardW / 14)));
                 String glyph2 = card.suit.glyph();
                 int sgw = g2.getFontMetrics().stringWidth(glyph2);
                 g2.drawString(glyph2, x + cardW - 18 - sgw, y + cardH - 40);
             }
+        }
 
-            g2.dispose();
+        // title, art and wrapped description of a catalog event inside the card outline
+        private static void paintEvent(Graphics2D g2, int x, int y, int w, int h, EventCatalog.Entry ev){
+            FontRenderContext frc = g2.getFontRenderContext();
+            int pad = Math.max(12, w / 14);
+            int textW = w - 2 * pad;
+            float ty = y + pad;
+
+            g2.setColor(new Color(30,34,40));
+            for (TextLayout line : wrap(ev.name, font("SansSerif", Font.BOLD, Math.max(16, w / 14)), textW, frc)){
+                ty += line.getAscent();
+                line.draw(g2, x + pad + (textW - line.getAdvance()) / 2f, ty);
+                ty += line.getDescent() + line.getLeading();
+            }
+            ty += pad / 2f;
+
+            // art (or a monogram when there is none) fills the upper part of what is left
+            int artH = (int) ((y + h - ty) * 0.45);
+            Image art = ev.art == null ? null : ART.computeIfAbsent(ev.art, CardComponent::loadArt).orElse(null);
+            if (art != null && art.getWidth(null) > 0 && art.getHeight(null) > 0){
+                double is = Math.min((double) textW / art.getWidth(null), (double) artH / art.getHeight(null));
+                int dw = (int) (art.getWidth(null) * is), dh = (int) (art.getHeight(null) * is);
+                g2.drawImage(art, x + (w - dw) / 2, (int) ty + (artH - dh) / 2, dw, dh, null);
+            } else if (artH > 0){
+                int d = Math.min(artH, textW);
+                g2.setColor(new Color(45,160,200));
+                g2.fillOval(x + (w - d) / 2, (int) ty + (artH - d) / 2, d, d);
+                g2.setColor(Color.WHITE);
+                g2.setFont(font("SansSerif", Font.BOLD, Math.max(12, d / 2)));
+                FontMetrics fm = g2.getFontMetrics();
+                String initial = ev.name.isEmpty() ? "?" : ev.name.substring(0, 1).toUpperCase();
+                g2.drawString(initial, x + (w - fm.stringWidth(initial)) / 2, (int) ty + artH / 2 + fm.getAscent() / 3);
+            }
+            ty += artH + pad / 2f;
+
+            float bottom = y + h - pad;
+            if (!ev.tags.isEmpty()){
+                Font tagFont = font("SansSerif", Font.PLAIN, Math.max(10, w / 30));
+                g2.setFont(tagFont);
+                g2.setColor(new Color(120,120,120));
+                g2.drawString(String.join(" · ", ev.tags), x + pad, (int) bottom);
+                bottom -= g2.getFontMetrics().getHeight();
+            }
+
+            g2.setColor(new Color(50,50,50));
+            for (TextLayout line : wrap(ev.description, font("Serif", Font.PLAIN, Math.max(12, w / 22)), textW, frc)){
+                if (ty + line.getAscent() + line.getDescent() > bottom) break;
+                ty += line.getAscent();
+                line.draw(g2, x + pad, ty);
+                ty += line.getDescent() + line.getLeading();
+            }
+        }
+
+        // wrapped lines of text at this font and width, shaped once and then served from the cache
+        private static List<TextLayout> wrap(String text, Font font, int width, FontRenderContext frc){
+            if (text == null || text.isEmpty() || width <= 0) return Collections.emptyList();
+            LayoutKey key = new LayoutKey(text, font, width, frc);
+            List<TextLayout> lines = LAYOUTS.get(key);
+            if (lines != null) return lines;
+            lines = new ArrayList<>();
+            for (String para : text.split("\n")){
+                if (para.isEmpty()) continue;
+                AttributedString as = new AttributedString(para);
+                as.addAttribute(TextAttribute.FONT, font);
+                LineBreakMeasurer lbm = new LineBreakMeasurer(as.getIterator(), frc);
+                while (lbm.getPosition() < para.length()) lines.add(lbm.nextLayout(width));
+            }
+            lines = Collections.unmodifiableList(lines);
+            LAYOUTS.put(key, lines);
+            return lines;
         }
 
-        private void drawFaceArt(Graphics2D g2, int x, int y, int w, int h, String rank, Suit suit, Color suitColor){
+        private static Optional<Image> loadArt(String path){
+            try {
+                java.net.URL res = gamePanel.class.getResource(path.startsWith("/") ? path : "/" + path);
+                ImageIcon icon = res != null ? new ImageIcon(res) : (new File(path).exists() ? new ImageIcon(path) : null);
+                if (icon == null || icon.getIconWidth() <= 0) return Optional.empty();
+                return Optional.of(icon.getImage());
+            } catch (Exception e){
+                return Optional.empty();
+            }
+        }
+
+        private static void drawFaceArt(Graphics2D g2, int x, int y, int w, int h, String rank, Suit suit, Color suitColor){
             int px = x + Math.max(24, w/10), pw = w - Math.max(48, w/5), py = y + Math.max(40, h/12), ph = h - Math.max(120, h/6);
             GradientPaint gp = new GradientPaint(px, py, new Color(245,245,245), px, py+ph, new Color(230,230,230));
             g2.setPaint(gp);
@@ -1427,7 +2176,7 @@ public class gamePanel extends JPanel {
             collar.addPoint(cx + Math.min(50, pw/6), py + ph - Math.min(40, ph/8));
             g2.fillPolygon(collar);
 
-            g2.setFont(new Font("Serif", Font.BOLD, Math.max(24, pw/10)));
+            g2.setFont(font("Serif", Font.BOLD, Math.max(24, pw/10)));
             g2.setColor(suitColor);
             FontMetrics fm = g2.getFontMetrics();
             String glyph = suit.glyph();
@@ -1439,7 +2188,7 @@ public class gamePanel extends JPanel {
             g2.translate(0, midY*2);
             g2.scale(1, -1);
             g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.08f));
-            g2.setFont(new Font("Serif", Font.BOLD, Math.max(48, pw/6)));
+            g2.setFont(font("Serif", Font.BOLD, Math.max(48, pw/6)));
             g2.setColor(new Color(0,0,0));
             String big = rank;
             FontMetrics fmb = g2.getFontMetrics();
@@ -1450,6 +2199,137 @@ public class gamePanel extends JPanel {
         }
     }
 
+    /* ---------------------- Remaining-cards thumbnail grid ---------------------- */
+    // All 52 faces pre-rasterised into one image (13 columns x 4 suit rows) at a given cell size
+    // and device scale. The grid blits sub-rectangles of it instead of painting cards.
+    private static class CardAtlas {
+        private static CardAtlas cached = null;
+
+        final BufferedImage image;
+        final int cellW, cellH;
+        final double scale;
+
+        private CardAtlas(int cellW, int cellH, double scale){
+            this.cellW = cellW;
+            this.cellH = cellH;
+            this.scale = scale;
+            int pw = (int) Math.ceil(cellW * scale), ph = (int) Math.ceil(cellH * scale);
+            image = new BufferedImage(pw * Card.RANKS.length, ph * Suit.values().length, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = image.createGraphics();
+            for (Suit s : Suit.values()){
+                for (int r = 0; r < Card.RANKS.length; r++){
+                    Graphics2D cell = (Graphics2D) g2.create(r * pw, s.ordinal() * ph, pw, ph);
+                    cell.scale(scale, scale);
+                    paintThumb(cell, cellW, cellH, new Card(Card.RANKS[r], s));
+                    cell.dispose();
+                }
+            }
+            g2.dispose();
+        }
+
+        static synchronized CardAtlas get(int cellW, int cellH, double scale){
+            if (cached == null || cached.cellW != cellW || cached.cellH != cellH || cached.scale != scale){
+                cached = new CardAtlas(cellW, cellH, scale);
+            }
+            return cached;
+        }
+
+        // blit one card (by ordinal) into the destination rectangle
+        void draw(Graphics g, int ordinal, int dx, int dy){
+            int pw = image.getWidth() / Card.RANKS.length, ph = image.getHeight() / Suit.values().length;
+            int sx = (ordinal % Card.RANKS.length) * pw, sy = (ordinal / Card.RANKS.length) * ph;
+            g.drawImage(image, dx, dy, dx + cellW, dy + cellH, sx, sy, sx + pw, sy + ph, null);
+        }
+
+        private static void paintThumb(Graphics2D g2, int w, int h, Card card){
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int arc = Math.max(4, w / 6);
+            g2.setColor(new Color(245,245,245));
+            g2.fillRoundRect(1, 1, w - 3, h - 3, arc, arc);
+            g2.setColor(new Color(150,150,150));
+            g2.drawRoundRect(1, 1, w - 3, h - 3, arc, arc);
+
+            Color suitColor = card.color() == ColorType.RED ? new Color(180,40,40) : new Color(40,40,40);
+            g2.setColor(suitColor);
+            g2.setFont(CardComponent.font("SansSerif", Font.BOLD, Math.max(8, h / 5)));
+            g2.drawString(card.rank, 4, 3 + g2.getFontMetrics().getAscent());
+            g2.setFont(CardComponent.font("Serif", Font.PLAIN, Math.max(10, h / 2)));
+            FontMetrics fm = g2.getFontMetrics();
+            String glyph = card.suit.glyph();
+            g2.drawString(glyph, (w - fm.stringWidth(glyph)) / 2, h - 6 - fm.getDescent());
+        }
+    }
+
+    // Every card of the full deck has a fixed slot (its ordinal), so a draw or edit only
+    // repaints the slots whose cards changed, and painting only visits slots in the clip.
+    private static class DeckGrid extends JComponent implements Scrollable {
+        private static final int CELL_W = 40, CELL_H = 56, GAP = 4;
+        private static final int SLOTS = Card.RANKS.length * 4;
+        private long mask = 0L;
+
+        DeckGrid(){ setOpaque(true); setBackground(new Color(30,34,40)); }
+
+        void setDeckMask(long m){
+            long changed = mask ^ m;
+            mask = m;
+            while (changed != 0){
+                int slot = Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                repaint(slotBounds(slot));
+            }
+        }
+
+        private int columns(){
+            int w = getParent() instanceof JViewport ? getParent().getWidth() : getWidth();
+            return Math.max(1, (w - GAP) / (CELL_W + GAP));
+        }
+
+        private Rectangle slotBounds(int slot){
+            int cols = columns();
+            return new Rectangle(GAP + (slot % cols) * (CELL_W + GAP), GAP + (slot / cols) * (CELL_H + GAP), CELL_W, CELL_H);
+        }
+
+        @Override public Dimension getPreferredSize(){
+            int cols = columns();
+            int rows = (SLOTS + cols - 1) / cols;
+            return new Dimension(GAP + cols * (CELL_W + GAP), GAP + rows * (CELL_H + GAP));
+        }
+
+        @Override
+        protected void paintComponent(Graphics g){
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+            double scale = ((Graphics2D) g).getTransform().getScaleX();
+            CardAtlas atlas = CardAtlas.get(CELL_W, CELL_H, scale);
+            int cols = columns();
+            int firstRow = Math.max(0, (clip.y - GAP) / (CELL_H + GAP));
+            int lastRow = (clip.y + clip.height) / (CELL_H + GAP);
+            g.setColor(new Color(60,66,74));
+            for (int row = firstRow; row <= lastRow; row++){
+                for (int col = 0; col < cols; col++){
+                    int slot = row * cols + col;
+                    if (slot >= SLOTS) return;
+                    int dx = GAP + col * (CELL_W + GAP), dy = GAP + row * (CELL_H + GAP);
+                    if ((mask & (1L << slot)) != 0) atlas.draw(g, slot, dx, dy);
+                    else g.drawRoundRect(dx + 1, dy + 1, CELL_W - 3, CELL_H - 3, 6, 6);
+                }
+            }
+        }
+
+        // four columns wide by default; the viewport decides the real column count
+        @Override public Dimension getPreferredScrollableViewportSize(){
+            return new Dimension(GAP + 4 * (CELL_W + GAP), GAP + 6 * (CELL_H + GAP));
+        }
+        @Override public int getScrollableUnitIncrement(Rectangle r, int o, int d){ return CELL_H + GAP; }
+        @Override public int getScrollableBlockIncrement(Rectangle r, int o, int d){ return Math.max(CELL_H + GAP, r.height - CELL_H); }
+        @Override public boolean getScrollableTracksViewportWidth(){ return true; }
+        @Override public boolean getScrollableTracksViewportHeight(){ return false; }
+    }
+
   /* ---------------------- Small UI helpers (styles) ---------------------- */
     private JButton stylizeButton(String text){
         JButton b = new JButton(text);
@@ -1502,10 +2382,96 @@ public class gamePanel extends JPanel {
 
     // small update method used across the UI
     private void updateDeckStatus(){
-        if (deckCountLabel != null) deckCountLabel.setText("Deck: " + deck.size() + " cards");
-        updateTopInfo();
-        if (drawButton != null) drawButton.setEnabled(deck.size() > 0);
+        round.updateWindowHit();
+        refreshDeckLabels();
         updateProbabilityPane();
+        oddsModel.refresh();
+        speculateNextDraw();
+    }
+
+    // the cheap part of a status update: count label, top bar, Draw button and parlay quote
+    private void refreshDeckLabels(){
+        refreshDeckLabels(null);
+    }
+
+    // after a speculated draw, pre carries the win state it precomputed
+    private void refreshDeckLabels(PrecomputedDraw pre){
+        if (deckCountLabel != null) deckCountLabel.setText("Deck: " + round.deck.size() + " cards");
+        if (pre == null) updateTopInfo(); else updateTopInfo(pre.windowHit, pre.recentHit, pre.hit);
+        if (drawButton != null) drawButton.setEnabled(round.deck.size() > 0);
+        updateParlayQuote();
+    }
+
+    private JPanel createParlayPanel(){
+        JPanel panel = new JPanel(new BorderLayout(6,6));
+        panel.setOpaque(false);
+        panel.setBorder(new EmptyBorder(8,0,0,0));
+
+        JLabel title = new JLabel("Combo / parlay (e.g. red & face then spade | 7)");
+        title.setForeground(Color.WHITE);
+        panel.add(title, BorderLayout.NORTH);
+
+        parlayField = new JTextField();
+        JTextField stakeField = new JTextField("5", 4);
+        JButton place = stylizeButtonSmall("Place");
+        JPanel row = new JPanel(new BorderLayout(6,0));
+        row.setOpaque(false);
+        row.add(parlayField, BorderLayout.CENTER);
+        JPanel east = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
+        east.setOpaque(false);
+        JLabel stakeLbl = new JLabel("Stake $");
+        stakeLbl.setForeground(Color.WHITE);
+        east.add(stakeLbl); east.add(stakeField); east.add(place);
+        row.add(east, BorderLayout.EAST);
+        panel.add(row, BorderLayout.CENTER);
+
+        parlayQuote = new JLabel(" ");
+        parlayQuote.setForeground(Color.LIGHT_GRAY);
+        panel.add(parlayQuote, BorderLayout.SOUTH);
+
+        parlayField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener(){
+            @Override public void insertUpdate(javax.swing.event.DocumentEvent e){ updateParlayQuote(); }
+            @Override public void removeUpdate(javax.swing.event.DocumentEvent e){ updateParlayQuote(); }
+            @Override public void changedUpdate(javax.swing.event.DocumentEvent e){ updateParlayQuote(); }
+        });
+        place.addActionListener(e -> {
+            try {
+                int stake = Integer.parseInt(stakeField.getText().trim());
+                round.placeParlay(ParlayBet.compile(parlayField.getText()), stake);
+                updateParlayQuote();
+            } catch (NumberFormatException ex){
+                JOptionPane.showMessageDialog(this, "Enter a whole-dollar stake.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex){
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid Bet", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        updateParlayQuote();
+        return panel;
+    }
+
+    // the price of the typed bet on the deck as it is now, and the state of a placed one
+    private void updateParlayQuote(){
+        if (parlayQuote == null) return;
+        StringBuilder q = new StringBuilder("<html>");
+        String text = parlayField.getText().trim();
+        if (!text.isEmpty()){
+            try {
+                ParlayBet bet = ParlayBet.compile(text);
+                long deck = round.deck.mask();
+                double p = bet.probability(deck);
+                q.append(p <= 0 ? "Cannot win on this deck."
+                        : String.format("%d leg(s): P(win) %.4f%% &nbsp; fair x%.2f &nbsp; offered x%.2f",
+                                bet.legs(), 100 * p, bet.fairMultiplier(deck), bet.offeredMultiplier(deck)));
+            } catch (IllegalArgumentException ex){
+                q.append(ex.getMessage());
+            }
+        }
+        if (round.parlay != null){
+            if (!text.isEmpty()) q.append("<br/>");
+            q.append(String.format("Placed: %s, %s at x%.2f", round.parlay, Money.format(round.parlayStake),
+                    round.parlayMultiplier / (double) Money.MULT_SCALE));
+        }
+        parlayQuote.setText(q.length() == 6 ? " " : q.append("</html>").toString());
     }
 
     // toggles right tabs (edit deck) visibility
@@ -1522,26 +2488,80 @@ public class gamePanel extends JPanel {
         repaint();
     }
 
-    // apply basic scaling: scale a few key fonts to maintain layout on resize
-    private void applyScaling(){
+    // apply basic scaling: scale a few key fonts to maintain layout on resize. Unless forced
+    // (a screen was just built), nothing is touched while the scale bucket and monitor are unchanged.
+    private void applyScaling(boolean force){
+        if (force) rescaleTimer.stop();
         int w = getWidth() > 0 ? getWidth() : BASE_WIDTH;
         int h = getHeight() > 0 ? getHeight() : BASE_HEIGHT;
         double scale = Math.min((double)w / BASE_WIDTH, (double)h / BASE_HEIGHT);
+        int bucket = (int) Math.round(scale / SCALE_STEP);
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        double device = gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+
+        boolean changed = false;
+        if (force || bucket != scaleBucket || device != deviceScale){
+            scaleBucket = bucket;
+            deviceScale = device;
+            double s = Math.max(1, bucket) * SCALE_STEP;
+            float topFont = Math.max(10f, (float)(BASE_TOPINFO_FONT * s));
+            float listFont = Math.max(10f, (float)(BASE_LIST_FONT * s));
+            float smallFont = Math.max(9f, (float)(BASE_SMALL_FONT * s));
+
+            changed |= setScaledFont(topInfoLabel, topFont);
+            changed |= setScaledFont(deckList, listFont);
+            changed |= setScaledFont(deckCountLabel, smallFont);
+        }
+        // the result card follows the panel size itself, not just the bucket
+        if (currentState == State.RESULT && lastResultCardComponent != null){
+            changed |= sizeResultCard(lastResultCardComponent, w, h, device);
+        }
 
-        float topFont = Math.max(10f, (float)(BASE_TOPINFO_FONT * scale));
-        float titleFont = Math.max(14f, (float)(BASE_TITLE_FONT * scale));
-        float controlsTitle = Math.max(12f, (float)(BASE_CONTROLS_TITLE_FONT * scale));
-        float listFont = Math.max(10f, (float)(BASE_LIST_FONT * scale));
-        float buttonFont = Math.max(12f, (float)(BASE_BUTTON_FONT * scale));
-        float smallFont = Math.max(9f, (float)(BASE_SMALL_FONT * scale));
-        float resultTitle = Math.max(18f, (float)(BASE_RESULT_TITLE_FONT * scale));
+        if (changed){
+            revalidate();
+            repaint();
+        }
+    }
 
-        if (topInfoLabel != null) topInfoLabel.setFont(topInfoLabel.getFont().deriveFont(topFont));
-        if (deckList != null) deckList.setFont(deckList.getFont().deriveFont(listFont));
-        if (deckCountLabel != null) deckCountLabel.setFont(deckCountLabel.getFont().deriveFont(smallFont));
+    // true when the component's font actually changed
+    private boolean setScaledFont(JComponent c, float size){
+        if (c == null) return false;
+        Font base = c.getFont();
+        Font f = scaledFonts.computeIfAbsent(base.getName() + "/" + base.getStyle() + "/" + size, k -> base.deriveFont(size));
+        if (f.equals(base)) return false;
+        c.setFont(f);
+        return true;
+    }
 
-        revalidate();
-        repaint();
+    // true when the card's preferred size changed
+    private boolean sizeResultCard(CardComponent card, int panelW, int panelH, double device){
+        // target width ~ half of content area (leave room for right info)
+        int availableForCard = Math.max(200, (int)(panelW * 0.55)); // 55% of overall width for card area
+        int targetW = Math.max(360, availableForCard / 1);
+        int targetH = (int) (targetW / (380.0/520.0)); // preserve aspect ratio
+        // clamp not to exceed panel height minus some margins
+        int maxH = panelH - 180;
+        if (targetH > maxH) {
+            targetH = maxH;
+            targetW = (int)(targetH * (380.0/520.0));
+        }
+        // on fractional HiDPI scales, snap to sizes that are whole device pixels so the card's
+        // edges are not resampled (e.g. even sizes at 150%, multiples of 4 at 125%)
+        int step = 1;
+        while (step < 8 && Math.abs(step * device - Math.rint(step * device)) > 1e-6) step++;
+        targetW -= targetW % step;
+        targetH -= targetH % step;
+
+        Dimension target = new Dimension(targetW, targetH);
+        if (target.equals(card.getPreferredSize())) return false;
+        card.setPreferredSize(target);
+        return true;
+    }
+
+    // the panel background used throughout; lets tools outside this file paint one without
+    // reaching for the RoundedPanel declared at the bottom of it
+    static JPanel roundedPanel(Color bg, int round){
+        return new RoundedPanel(bg, round);
     }
 
     // ---- main method to run standalone ----